@@ -0,0 +1,56 @@
+package com.rapidobackup.console.agent.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+import com.rapidobackup.console.agent.websocket.AgentHandshakeInterceptor;
+import com.rapidobackup.console.agent.websocket.AgentWebSocketHandler;
+
+/**
+ * Registers the agent WebSocket gateway on {@code /ws/agent}.
+ *
+ * The application runs on the servlet stack, so the gateway uses the container's WebSocket
+ * support, whose non-blocking I/O holds idle connections without threads. Message buffers
+ * are allocated per connection and sized for agent messages, which keeps the memory of a
+ * large idle fleet small. Connections without any message for
+ * {@code console.agent.websocket.idle-timeout}, a few missed heartbeats, are closed.
+ */
+@Configuration
+@EnableWebSocket
+public class AgentWebSocketConfig implements WebSocketConfigurer {
+
+    private final AgentWebSocketHandler webSocketHandler;
+    private final AgentHandshakeInterceptor handshakeInterceptor;
+
+    public AgentWebSocketConfig(AgentWebSocketHandler webSocketHandler, AgentHandshakeInterceptor handshakeInterceptor) {
+        this.webSocketHandler = webSocketHandler;
+        this.handshakeInterceptor = handshakeInterceptor;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // Agents are not browsers, they authenticate with their API key instead of relying on origins
+        registry.addHandler(webSocketHandler, "/ws/agent")
+            .addInterceptors(handshakeInterceptor)
+            .setAllowedOriginPatterns("*");
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer(
+            @Value("${console.agent.websocket.max-text-message-size:8192}") int maxTextMessageSize,
+            @Value("${console.agent.websocket.idle-timeout:120s}") Duration idleTimeout) {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(maxTextMessageSize);
+        // Agents only send text messages
+        container.setMaxBinaryMessageBufferSize(1024);
+        container.setMaxSessionIdleTimeout(idleTimeout.toMillis());
+        return container;
+    }
+}
@@ -1,6 +1,9 @@
 package com.rapidobackup.console.agent.controller;
 
 import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.http.MediaType;
@@ -14,9 +17,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.rapidobackup.console.agent.dto.AgentCommandRequest;
+import com.rapidobackup.console.agent.dto.AgentCommandResult;
+import com.rapidobackup.console.agent.dto.AgentStatusEvent;
 import com.rapidobackup.console.agent.entity.Agent;
+import com.rapidobackup.console.agent.service.AgentStatusHub;
 import com.rapidobackup.console.agent.service.ReactiveAgentService;
+import com.rapidobackup.console.agent.websocket.AgentWebSocketHandler;
 
+import jakarta.validation.Valid;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -29,9 +38,11 @@ import reactor.core.publisher.Mono;
 public class ReactiveAgentController {
 
     private final ReactiveAgentService agentService;
+    private final AgentWebSocketHandler webSocketGateway;
 
-    public ReactiveAgentController(ReactiveAgentService agentService) {
+    public ReactiveAgentController(ReactiveAgentService agentService, AgentWebSocketHandler webSocketGateway) {
         this.agentService = agentService;
+        this.webSocketGateway = webSocketGateway;
     }
 
     @GetMapping("/{id}")
@@ -54,15 +65,28 @@ public class ReactiveAgentController {
                 .map(created -> ResponseEntity.status(201).body(created));
     }
 
-    // Server-Sent Events endpoint for real-time monitoring
+    // Server-Sent Events endpoints for real-time monitoring: a snapshot, then status changes
     @GetMapping(value = "/stream/online", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<Agent> streamOnlineAgents() {
-        return agentService.streamOnlineAgents();
+    public Flux<AgentStatusEvent> streamOnlineAgents(
+            @RequestParam(defaultValue = "BUFFER") AgentStatusHub.Overflow overflow) {
+        return agentService.streamOnlineAgents(overflow);
     }
 
     @GetMapping(value = "/stream/user/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<Agent> streamAgentsByUser(@PathVariable UUID userId) {
-        return agentService.streamAgentsByUser(userId);
+    public Flux<AgentStatusEvent> streamAgentsByUser(
+            @PathVariable UUID userId,
+            @RequestParam(defaultValue = "BUFFER") AgentStatusHub.Overflow overflow) {
+        return agentService.streamAgentsByUser(userId, overflow);
+    }
+
+    @GetMapping(value = "/stream/status", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<AgentStatusEvent> streamAgentStatus(
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) List<Agent.AgentStatus> status,
+            @RequestParam(defaultValue = "BUFFER") AgentStatusHub.Overflow overflow) {
+        Set<Agent.AgentStatus> statuses = status != null && !status.isEmpty()
+            ? EnumSet.copyOf(status) : EnumSet.noneOf(Agent.AgentStatus.class);
+        return agentService.streamAgentStatus(userId, statuses, overflow);
     }
 
     @GetMapping("/search")
@@ -86,6 +110,14 @@ public class ReactiveAgentController {
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Deliver a command to an agent connected over WebSocket and wait for its acknowledgement.
+     */
+    @PostMapping("/{id}/commands")
+    public Mono<AgentCommandResult> sendCommand(@PathVariable UUID id, @Valid @RequestBody AgentCommandRequest request) {
+        return webSocketGateway.sendCommand(id, request.getCommand(), request.getPayload());
+    }
+
     @PostMapping("/{id}/rotate-api-key")
     public Mono<ResponseEntity<Agent>> rotateApiKey(@PathVariable UUID id) {
         return agentService.rotateApiKey(id)
@@ -103,7 +135,7 @@ public class ReactiveAgentController {
     @PostMapping("/heartbeat/batch")
     public Mono<ResponseEntity<String>> batchHeartbeat(@RequestBody Flux<String> apiKeys) {
         return agentService.processHeartbeatBatch(apiKeys)
-                .map(updatedCount -> ResponseEntity.ok("Updated " + updatedCount + " heartbeats"));
+                .map(acceptedCount -> ResponseEntity.ok("Accepted " + acceptedCount + " heartbeats"));
     }
 
     @GetMapping(value = "/monitor/stale", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
@@ -0,0 +1,23 @@
+package com.rapidobackup.console.agent.dto;
+
+import java.util.Map;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Command to deliver to a connected agent.
+ */
+public class AgentCommandRequest {
+
+    @NotBlank
+    @Size(max = 100)
+    private String command;
+
+    private Map<String, Object> payload;
+
+    public String getCommand() { return command; }
+    public void setCommand(String command) { this.command = command; }
+    public Map<String, Object> getPayload() { return payload; }
+    public void setPayload(Map<String, Object> payload) { this.payload = payload; }
+}
@@ -0,0 +1,41 @@
+package com.rapidobackup.console.agent.dto;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Outcome of a command delivered to an agent.
+ */
+public class AgentCommandResult {
+
+    public enum Status {
+        /** Acknowledged by the agent as successful */
+        SUCCEEDED,
+        /** Acknowledged by the agent as failed */
+        FAILED,
+        /** Not acknowledged within {@code console.agent.command-timeout} */
+        TIMED_OUT,
+        /** The agent disconnected before acknowledging */
+        DISCONNECTED
+    }
+
+    private final UUID commandId;
+    private final UUID agentId;
+    private final Status status;
+    private final Map<String, Object> payload;
+    private final String error;
+
+    public AgentCommandResult(UUID commandId, UUID agentId, Status status, Map<String, Object> payload, String error) {
+        this.commandId = commandId;
+        this.agentId = agentId;
+        this.status = status;
+        this.payload = payload;
+        this.error = error;
+    }
+
+    public UUID getCommandId() { return commandId; }
+    public UUID getAgentId() { return agentId; }
+    public Status getStatus() { return status; }
+    public Map<String, Object> getPayload() { return payload; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,67 @@
+package com.rapidobackup.console.agent.dto;
+
+import java.util.Map;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * JSON message exchanged with agents over the {@code /ws/agent} WebSocket.
+ *
+ * One connection multiplexes the agent's heartbeats, the commands sent to it and its
+ * acknowledgements, which refer to their command by {@code commandId}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AgentMessage {
+
+    public enum Type {
+        /** Agent to server */
+        HEARTBEAT,
+        /** Server to agent */
+        COMMAND,
+        /** Agent to server, result of a command */
+        ACK,
+        /** Server to agent, message that could not be processed */
+        ERROR
+    }
+
+    private Type type;
+    private UUID commandId;
+    private String command;
+    private Map<String, Object> payload;
+    private Boolean success;
+    private String error;
+
+    public AgentMessage() {
+    }
+
+    public static AgentMessage command(UUID commandId, String command, Map<String, Object> payload) {
+        AgentMessage message = new AgentMessage();
+        message.type = Type.COMMAND;
+        message.commandId = commandId;
+        message.command = command;
+        message.payload = payload;
+        return message;
+    }
+
+    public static AgentMessage error(UUID commandId, String error) {
+        AgentMessage message = new AgentMessage();
+        message.type = Type.ERROR;
+        message.commandId = commandId;
+        message.error = error;
+        return message;
+    }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+    public UUID getCommandId() { return commandId; }
+    public void setCommandId(UUID commandId) { this.commandId = commandId; }
+    public String getCommand() { return command; }
+    public void setCommand(String command) { this.command = command; }
+    public Map<String, Object> getPayload() { return payload; }
+    public void setPayload(Map<String, Object> payload) { this.payload = payload; }
+    public Boolean getSuccess() { return success; }
+    public void setSuccess(Boolean success) { this.success = success; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
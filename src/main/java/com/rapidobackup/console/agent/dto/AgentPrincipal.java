@@ -0,0 +1,24 @@
+package com.rapidobackup.console.agent.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An authenticated agent, as held by the API-key cache.
+ *
+ * Immutable, so it can be shared between lookups; it only carries what does not change
+ * while the API key stays valid. Everything else is read from the agent itself.
+ */
+public class AgentPrincipal {
+
+    private final UUID agentId;
+    private final Instant apiKeyExpiresDate;
+
+    public AgentPrincipal(UUID agentId, Instant apiKeyExpiresDate) {
+        this.agentId = agentId;
+        this.apiKeyExpiresDate = apiKeyExpiresDate;
+    }
+
+    public UUID getAgentId() { return agentId; }
+    public Instant getApiKeyExpiresDate() { return apiKeyExpiresDate; }
+}
@@ -0,0 +1,64 @@
+package com.rapidobackup.console.agent.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.rapidobackup.console.agent.entity.Agent;
+
+/**
+ * Status of one agent, as pushed to agent status streams.
+ *
+ * Every event carries the full current status of the agent, so clients simply replace what
+ * they hold for {@code agentId}. {@code previousStatus} is set on status changes, letting a
+ * client filtering by status drop agents that left it.
+ */
+public class AgentStatusEvent {
+
+    public enum Type {
+        /** Current status when subscribing */
+        SNAPSHOT,
+        /** New agent */
+        REGISTERED,
+        /** Heartbeat of an agent whose status did not change */
+        HEARTBEAT,
+        STATUS_CHANGED
+    }
+
+    private final Type type;
+    private final UUID agentId;
+    private final String name;
+    private final String hostname;
+    private final UUID assignedUserId;
+    private final Agent.AgentStatus status;
+    private final Agent.AgentStatus previousStatus;
+    private final Instant lastHeartbeat;
+
+    public AgentStatusEvent(Type type, UUID agentId, String name, String hostname, UUID assignedUserId,
+                            Agent.AgentStatus status, Agent.AgentStatus previousStatus, Instant lastHeartbeat) {
+        this.type = type;
+        this.agentId = agentId;
+        this.name = name;
+        this.hostname = hostname;
+        this.assignedUserId = assignedUserId;
+        this.status = status;
+        this.previousStatus = previousStatus;
+        this.lastHeartbeat = lastHeartbeat;
+    }
+
+    public Type getType() { return type; }
+    public UUID getAgentId() { return agentId; }
+    public String getName() { return name; }
+    public String getHostname() { return hostname; }
+    public UUID getAssignedUserId() { return assignedUserId; }
+    public Agent.AgentStatus getStatus() { return status; }
+    public Agent.AgentStatus getPreviousStatus() { return previousStatus; }
+    public Instant getLastHeartbeat() { return lastHeartbeat; }
+
+    /**
+     * Event of the same agent with another type, status or heartbeat.
+     */
+    public AgentStatusEvent as(Type type, Agent.AgentStatus status, Agent.AgentStatus previousStatus,
+                               Instant lastHeartbeat) {
+        return new AgentStatusEvent(type, agentId, name, hostname, assignedUserId, status, previousStatus, lastHeartbeat);
+    }
+}
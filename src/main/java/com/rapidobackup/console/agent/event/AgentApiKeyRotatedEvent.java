@@ -0,0 +1,20 @@
+package com.rapidobackup.console.agent.event;
+
+import java.util.UUID;
+
+/**
+ * Published when the API key of an agent was replaced, so that connections
+ * authenticated with the previous key can be closed.
+ */
+public class AgentApiKeyRotatedEvent {
+
+    private final UUID agentId;
+
+    public AgentApiKeyRotatedEvent(UUID agentId) {
+        this.agentId = agentId;
+    }
+
+    public UUID getAgentId() {
+        return agentId;
+    }
+}
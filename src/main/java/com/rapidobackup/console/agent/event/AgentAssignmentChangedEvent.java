@@ -0,0 +1,32 @@
+package com.rapidobackup.console.agent.event;
+
+import java.util.UUID;
+
+/**
+ * Published when an agent is attached to, detached from or moved between users,
+ * so that tenant-level agent counts can follow.
+ */
+public class AgentAssignmentChangedEvent {
+
+    private final UUID agentId;
+    private final UUID previousUserId;
+    private final UUID newUserId;
+
+    public AgentAssignmentChangedEvent(UUID agentId, UUID previousUserId, UUID newUserId) {
+        this.agentId = agentId;
+        this.previousUserId = previousUserId;
+        this.newUserId = newUserId;
+    }
+
+    public UUID getAgentId() {
+        return agentId;
+    }
+
+    public UUID getPreviousUserId() {
+        return previousUserId;
+    }
+
+    public UUID getNewUserId() {
+        return newUserId;
+    }
+}
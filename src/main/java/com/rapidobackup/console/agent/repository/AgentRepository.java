@@ -1,6 +1,7 @@
 package com.rapidobackup.console.agent.repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.UUID;
 
 import org.springframework.data.r2dbc.repository.Query;
@@ -22,6 +23,8 @@ public interface AgentRepository extends R2dbcRepository<Agent, UUID> {
 
     // Basic reactive queries
     Mono<Agent> findByApiKey(String apiKey);
+
+    Flux<Agent> findByApiKeyIn(Collection<String> apiKeys);
     
     Mono<Agent> findByHostname(String hostname);
     
@@ -55,6 +58,16 @@ public interface AgentRepository extends R2dbcRepository<Agent, UUID> {
         ORDER BY last_seen DESC NULLS LAST
         """)
     Flux<Agent> findStaleAgents(@Param("threshold") Instant threshold);
+
+    Flux<Agent> findByStatusNot(Agent.AgentStatus status);
+
+    @Query("""
+        UPDATE agents SET status = 'OFFLINE', last_modified_date = :now
+        WHERE (last_heartbeat IS NULL OR last_heartbeat < :threshold)
+        AND status != 'OFFLINE'
+        RETURNING *
+        """)
+    Flux<Agent> markStaleAgentsOffline(@Param("threshold") Instant threshold, @Param("now") Instant now);
     
     @Query("""
         SELECT * FROM agents 
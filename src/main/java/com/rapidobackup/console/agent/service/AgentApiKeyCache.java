@@ -0,0 +1,175 @@
+package com.rapidobackup.console.agent.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.rapidobackup.console.agent.dto.AgentPrincipal;
+import com.rapidobackup.console.agent.entity.Agent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory cache of agent API-key lookups, so steady-state agent authentication does no
+ * database I/O.
+ *
+ * Entries are keyed by a SHA-256 digest of the API key, never by the key itself:
+ * <ul>
+ * <li>known keys are cached until the key expires, at most {@code console.agent.auth-cache.ttl},
+ *     which also bounds how long a key rotated on another node stays usable here;</li>
+ * <li>unknown or expired keys are cached for {@code console.agent.auth-cache.negative-ttl}, so
+ *     floods of invalid keys do not reach the database;</li>
+ * <li>concurrent lookups of the same uncached key share a single query.</li>
+ * </ul>
+ * Each kind of entry is bounded by {@code console.agent.auth-cache.max-entries}; when full,
+ * expired entries are purged first, then the whole kind is dropped. Only immutable
+ * {@link AgentPrincipal}s are cached, never agents, whose status and heartbeat keep changing.
+ * Lookups are counted in {@code agent.auth.cache}
+ * ({@code result=hit|negative-hit|miss}).
+ */
+@Component
+public class AgentApiKeyCache {
+
+    private final Map<String, Entry> principals = new ConcurrentHashMap<>();
+    private final Map<String, Entry> unknownKeys = new ConcurrentHashMap<>();
+    private final Map<String, Mono<Optional<AgentPrincipal>>> inFlight = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final int maxEntries;
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+
+    public AgentApiKeyCache(MeterRegistry meterRegistry,
+                            @Value("${console.agent.auth-cache.ttl:5m}") Duration ttl,
+                            @Value("${console.agent.auth-cache.negative-ttl:10s}") Duration negativeTtl,
+                            @Value("${console.agent.auth-cache.max-entries:100000}") int maxEntries) {
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.maxEntries = maxEntries;
+        this.hits = counter(meterRegistry, "hit");
+        this.negativeHits = counter(meterRegistry, "negative-hit");
+        this.misses = counter(meterRegistry, "miss");
+    }
+
+    /**
+     * Resolve the agent owning a valid API key, from the cache or with {@code loader}.
+     *
+     * @return the agent principal, or empty if the key is unknown or expired
+     */
+    public Mono<AgentPrincipal> authenticate(String apiKey, Function<String, Mono<Agent>> loader) {
+        String digest = digest(apiKey);
+        Instant now = Instant.now();
+        Entry entry = principals.get(digest);
+        if (entry != null && entry.isValidAt(now)) {
+            hits.increment();
+            return Mono.just(entry.principal);
+        }
+        entry = unknownKeys.get(digest);
+        if (entry != null && entry.isValidAt(now)) {
+            negativeHits.increment();
+            return Mono.empty();
+        }
+
+        misses.increment();
+        AtomicReference<Mono<Optional<AgentPrincipal>>> self = new AtomicReference<>();
+        Mono<Optional<AgentPrincipal>> lookup = loader.apply(apiKey)
+            .filter(agent -> !agent.isApiKeyExpired())
+            .map(agent -> Optional.of(new AgentPrincipal(agent.getId(), agent.getApiKeyExpiresDate())))
+            .defaultIfEmpty(Optional.empty())
+            .doOnNext(result -> {
+                // Not cached if the key was invalidated while it was being looked up
+                if (inFlight.get(digest) == self.get()) {
+                    put(digest, result.orElse(null));
+                }
+            })
+            .doFinally(signal -> inFlight.remove(digest, self.get()))
+            .cache();
+        self.set(lookup);
+        Mono<Optional<AgentPrincipal>> shared = inFlight.putIfAbsent(digest, lookup);
+        return (shared != null ? shared : lookup).flatMap(Mono::justOrEmpty);
+    }
+
+    /**
+     * Stop accepting a key that is being rotated. The key is cached as unknown right away,
+     * so it is rejected until the rotation has committed.
+     */
+    public void invalidate(String apiKey) {
+        String digest = digest(apiKey);
+        principals.remove(digest);
+        inFlight.remove(digest);
+        Instant now = Instant.now();
+        putBounded(unknownKeys, digest, new Entry(null, now.plus(negativeTtl)), now);
+    }
+
+    // === Private Methods ===
+
+    private void put(String digest, AgentPrincipal principal) {
+        Instant now = Instant.now();
+        if (principal == null) {
+            unknownKeys.remove(digest);
+            putBounded(unknownKeys, digest, new Entry(null, now.plus(negativeTtl)), now);
+            return;
+        }
+        Instant expiresAt = now.plus(ttl);
+        if (principal.getApiKeyExpiresDate() != null && principal.getApiKeyExpiresDate().isBefore(expiresAt)) {
+            expiresAt = principal.getApiKeyExpiresDate();
+        }
+        unknownKeys.remove(digest);
+        putBounded(principals, digest, new Entry(principal, expiresAt), now);
+    }
+
+    private void putBounded(Map<String, Entry> entries, String digest, Entry entry, Instant now) {
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(existing -> !existing.isValidAt(now));
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(digest, entry);
+    }
+
+    private static String digest(String apiKey) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("agent.auth.cache")
+            .description("Agent API-key lookups by cache result")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static final class Entry {
+
+        private final AgentPrincipal principal;
+        private final Instant expiresAt;
+
+        private Entry(AgentPrincipal principal, Instant expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isValidAt(Instant now) {
+            return now.isBefore(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.rapidobackup.console.agent.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Write-behind buffer coalescing agent heartbeats.
+ *
+ * A heartbeat brings an offline or connecting agent online.
+ *
+ * Heartbeats are only recorded in memory, keeping the latest one per API key, and written
+ * every {@code console.agent.heartbeat-flush-interval} as multi-row
+ * {@code UPDATE ... FROM (VALUES ...)} statements of at most {@code MAX_ROWS_PER_STATEMENT}
+ * agents. However many heartbeats arrive, the database sees one statement per chunk of
+ * agents per interval. Only heartbeats of authenticated keys are recorded
+ * ({@link ReactiveAgentService#recordHeartbeat}), so memory is bounded by the number of agents.
+ *
+ * A heartbeat reaches the database at most one interval plus one flush after it was
+ * recorded: flushes never overlap, and ticks missed during a slow flush are skipped rather
+ * than queued. Heartbeats of a failed or cancelled flush are put back and retried on the
+ * next tick unless a newer one arrived meanwhile. Remaining heartbeats, including those of
+ * a flush interrupted by shutdown, are flushed on shutdown.
+ *
+ * Metrics: {@code agent.heartbeat.pending}, {@code agent.heartbeat.flush} (latency),
+ * {@code agent.heartbeat.flush.size} (agents per flush), {@code agent.heartbeat.flush.failures}.
+ */
+@Component
+public class AgentHeartbeatBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(AgentHeartbeatBuffer.class);
+    // Two bind parameters per row, well within the 32767 limit of the PostgreSQL protocol
+    static final int MAX_ROWS_PER_STATEMENT = 1000;
+    private static final Duration SHUTDOWN_FLUSH_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Map<String, Instant> pending = new ConcurrentHashMap<>();
+    private final DatabaseClient databaseClient;
+    private final Duration flushInterval;
+    private final Timer flushTimer;
+    private final DistributionSummary flushSize;
+    private final Counter flushFailures;
+    private Disposable flushLoop;
+
+    public AgentHeartbeatBuffer(DatabaseClient databaseClient, MeterRegistry meterRegistry,
+                                @Value("${console.agent.heartbeat-flush-interval:1s}") Duration flushInterval) {
+        this.databaseClient = databaseClient;
+        this.flushInterval = flushInterval;
+        Gauge.builder("agent.heartbeat.pending", pending, Map::size)
+            .description("Agents with a heartbeat not yet written to the database")
+            .register(meterRegistry);
+        this.flushTimer = Timer.builder("agent.heartbeat.flush")
+            .description("Time to write a batch of buffered heartbeats")
+            .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("agent.heartbeat.flush.size")
+            .description("Agents whose heartbeat was written by one flush")
+            .register(meterRegistry);
+        this.flushFailures = Counter.builder("agent.heartbeat.flush.failures")
+            .description("Heartbeat flushes that failed and were retried")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Record a heartbeat; an older heartbeat of the same agent still pending is replaced.
+     */
+    public void record(String apiKey, Instant timestamp) {
+        pending.merge(apiKey, timestamp, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        flushLoop = Flux.interval(flushInterval, flushInterval)
+            .onBackpressureDrop()
+            .concatMap(tick -> flush().onErrorResume(error -> Mono.just(0)), 1)
+            .subscribe();
+        log.info("Agent heartbeats are written behind every {}", flushInterval);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flushLoop != null) {
+            // A flush in progress puts its batch back when cancelled, so the final flush covers it
+            flushLoop.dispose();
+        }
+        flush().onErrorResume(error -> Mono.just(0)).block(SHUTDOWN_FLUSH_TIMEOUT);
+    }
+
+    /**
+     * Write all pending heartbeats now.
+     *
+     * @return the number of updated agents
+     */
+    public Mono<Integer> flush() {
+        Map<String, Instant> batch = drain();
+        if (batch.isEmpty()) {
+            return Mono.just(0);
+        }
+        List<Map.Entry<String, Instant>> rows = new ArrayList<>(batch.entrySet());
+        long startTime = System.nanoTime();
+        return Flux.range(0, (rows.size() + MAX_ROWS_PER_STATEMENT - 1) / MAX_ROWS_PER_STATEMENT)
+            .concatMap(chunk -> update(rows.subList(chunk * MAX_ROWS_PER_STATEMENT,
+                Math.min(rows.size(), (chunk + 1) * MAX_ROWS_PER_STATEMENT))))
+            .reduce(0, Integer::sum)
+            .doOnSuccess(updated -> {
+                flushTimer.record(Duration.ofNanos(System.nanoTime() - startTime));
+                flushSize.record(batch.size());
+                log.debug("Flushed {} buffered heartbeats, {} agents updated", batch.size(), updated);
+            })
+            .doOnError(error -> {
+                flushFailures.increment();
+                batch.forEach(this::record);
+                log.warn("Failed to flush {} buffered heartbeats, retrying on next flush: {}",
+                    batch.size(), error.getMessage());
+            })
+            // Rows already written are written again, which the update ignores as not newer
+            .doOnCancel(() -> batch.forEach(this::record));
+    }
+
+    // === Private Methods ===
+
+    /**
+     * Take the pending heartbeats out of the buffer. Entries are removed one by one, so a
+     * heartbeat recorded concurrently is either part of this batch or stays for the next.
+     */
+    private Map<String, Instant> drain() {
+        Map<String, Instant> batch = new LinkedHashMap<>();
+        for (String apiKey : pending.keySet()) {
+            Instant timestamp = pending.remove(apiKey);
+            if (timestamp != null) {
+                batch.put(apiKey, timestamp);
+            }
+        }
+        return batch;
+    }
+
+    private Mono<Integer> update(List<Map.Entry<String, Instant>> rows) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                values.append(", ");
+            }
+            values.append("($").append(2 * i + 1).append(", CAST($").append(2 * i + 2).append(" AS timestamptz))");
+        }
+        DatabaseClient.GenericExecuteSpec statement = databaseClient.sql(
+            "UPDATE agents a SET last_heartbeat = v.ts, last_seen = v.ts, " +
+            "status = CASE WHEN a.status IN ('OFFLINE', 'CONNECTING') THEN 'ONLINE' ELSE a.status END " +
+            "FROM (VALUES " + values + ") AS v(api_key, ts) " +
+            "WHERE a.api_key = v.api_key AND (a.last_heartbeat IS NULL OR a.last_heartbeat < v.ts)");
+        for (int i = 0; i < rows.size(); i++) {
+            statement = statement.bind(2 * i, rows.get(i).getKey()).bind(2 * i + 1, rows.get(i).getValue());
+        }
+        return statement.fetch().rowsUpdated().map(Long::intValue);
+    }
+}
@@ -0,0 +1,195 @@
+package com.rapidobackup.console.agent.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.rapidobackup.console.agent.entity.Agent;
+import com.rapidobackup.console.agent.repository.AgentRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Detection of agents that stopped sending heartbeats.
+ *
+ * Every heartbeat extends the agent's deadline in a {@link HashedTimingWheel} by
+ * {@code console.agent.stale-timeout}. The wheel ticks every {@code console.agent.liveness-tick}
+ * and the agents whose deadline passed during the tick are marked offline together, in one
+ * {@code UPDATE}. Detection therefore costs nothing per heartbeat beyond a map update, and
+ * nothing at all while agents are alive. Agents whose expiry could not be written are retried
+ * on the next tick. Only keys of agents are tracked: heartbeats reach the wheel once
+ * authenticated by {@link ReactiveAgentService#recordHeartbeat}, so it is bounded by the fleet.
+ *
+ * The database is only scanned to recover state the wheel does not have: on startup, agents
+ * already stale are marked offline and the others are tracked from their last heartbeat; the
+ * {@code console.agent.stale-sweep-cron} sweep catches agents whose heartbeats were received
+ * by a node that stopped since.
+ *
+ * Metrics: {@code agent.liveness.tracked}, {@code agent.liveness.expired}.
+ */
+@Component
+public class AgentLivenessMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(AgentLivenessMonitor.class);
+    // Power of two, larger than the stale timeout in ticks: most deadlines fire in their first rotation
+    private static final int WHEEL_SIZE = 512;
+
+    private final AgentRepository agentRepository;
+    private final DatabaseClient databaseClient;
+    private final AgentStatusHub statusHub;
+    private final Duration staleTimeout;
+    private final Duration tick;
+    private final HashedTimingWheel<String> wheel;
+    private final Counter expiredAgents;
+    private Disposable tickLoop;
+
+    public AgentLivenessMonitor(AgentRepository agentRepository, DatabaseClient databaseClient, AgentStatusHub statusHub,
+                                MeterRegistry meterRegistry,
+                                @Value("${console.agent.stale-timeout:90s}") Duration staleTimeout,
+                                @Value("${console.agent.liveness-tick:1s}") Duration tick) {
+        this.agentRepository = agentRepository;
+        this.databaseClient = databaseClient;
+        this.statusHub = statusHub;
+        this.staleTimeout = staleTimeout;
+        this.tick = tick;
+        this.wheel = new HashedTimingWheel<>(tick, WHEEL_SIZE, System.currentTimeMillis());
+        Gauge.builder("agent.liveness.tracked", wheel, HashedTimingWheel::size)
+            .description("Agents whose heartbeat deadline is tracked in memory")
+            .register(meterRegistry);
+        this.expiredAgents = Counter.builder("agent.liveness.expired")
+            .description("Agents marked offline because their heartbeat deadline passed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Extend the deadline of an agent after a heartbeat. The key must belong to an agent:
+     * callers authenticate it first.
+     */
+    void heartbeat(String apiKey, Instant timestamp) {
+        wheel.schedule(apiKey, timestamp.plus(staleTimeout).toEpochMilli());
+    }
+
+    public int trackedCount() {
+        return wheel.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        tickLoop = recover()
+            .onErrorResume(error -> {
+                log.warn("Failed to recover agent liveness from the database: {}", error.getMessage());
+                return Mono.just(0L);
+            })
+            .thenMany(Flux.interval(tick, tick))
+            .onBackpressureDrop()
+            .concatMap(tickNumber -> expireDue(Instant.now()).onErrorResume(error -> Mono.just(0)), 1)
+            .subscribe();
+        log.info("Agents are marked offline {} after their last heartbeat", staleTimeout);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (tickLoop != null) {
+            tickLoop.dispose();
+        }
+    }
+
+    /**
+     * Mark offline, in one statement, the agents whose deadline passed by the given time.
+     *
+     * @return the number of agents marked offline
+     */
+    public Mono<Integer> expireDue(Instant now) {
+        List<String> expired = wheel.advance(now.toEpochMilli());
+        if (expired.isEmpty()) {
+            return Mono.just(0);
+        }
+        return databaseClient.sql("""
+                UPDATE agents SET status = 'OFFLINE', last_modified_date = CAST($1 AS timestamptz)
+                WHERE api_key = ANY($2) AND status <> 'OFFLINE'
+                AND (last_heartbeat IS NULL OR last_heartbeat <= CAST($3 AS timestamptz))
+                RETURNING id
+                """)
+            .bind(0, now)
+            .bind(1, expired.toArray(new String[0]))
+            // Agents that sent a heartbeat to another node meanwhile stay online
+            .bind(2, now.minus(staleTimeout))
+            .map(row -> row.get("id", UUID.class))
+            .all()
+            .collectList()
+            .doOnSuccess(offline -> {
+                statusHub.markOffline(offline);
+                expiredAgents.increment(offline.size());
+                if (!offline.isEmpty()) {
+                    log.info("Marked {} stale agents offline", offline.size());
+                }
+            })
+            .map(List::size)
+            .doOnError(error -> {
+                expired.forEach(apiKey -> wheel.schedule(apiKey, now.toEpochMilli()));
+                log.warn("Failed to mark {} stale agents offline, retrying on next tick: {}",
+                    expired.size(), error.getMessage());
+            });
+    }
+
+    /**
+     * Mark offline all agents stale in the database, then track the deadline of the others.
+     *
+     * @return the number of agents marked offline
+     */
+    public Mono<Long> recover() {
+        return sweep()
+            .flatMap(marked -> agentRepository.findByStatusNot(Agent.AgentStatus.OFFLINE)
+                .filter(agent -> agent.getLastHeartbeat() != null)
+                .doOnNext(agent -> heartbeat(agent.getApiKey(), agent.getLastHeartbeat()))
+                .count()
+                .doOnSuccess(tracked -> log.info("Agent liveness recovered: {} stale agents marked offline, {} tracked",
+                    marked, tracked))
+                .thenReturn(marked));
+    }
+
+    @Scheduled(cron = "${console.agent.stale-sweep-cron:0 */10 * * * *}")
+    public void scheduledSweep() {
+        sweep().onErrorResume(error -> {
+            log.warn("Stale agent sweep failed: {}", error.getMessage());
+            return Mono.just(0L);
+        }).subscribe();
+    }
+
+    /**
+     * Mark offline, in one statement, all agents without a heartbeat for the stale timeout.
+     *
+     * @return the number of agents marked offline
+     */
+    public Mono<Long> sweep() {
+        return sweep(staleTimeout).count();
+    }
+
+    /**
+     * Mark offline, in one statement, all agents without a heartbeat for the given threshold.
+     */
+    public Flux<Agent> sweep(Duration staleThreshold) {
+        Instant now = Instant.now();
+        return agentRepository.markStaleAgentsOffline(now.minus(staleThreshold), now)
+            .doOnNext(agent -> {
+                statusHub.update(agent);
+                expiredAgents.increment();
+            });
+    }
+}
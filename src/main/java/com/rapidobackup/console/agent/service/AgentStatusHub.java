@@ -0,0 +1,354 @@
+package com.rapidobackup.console.agent.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.rapidobackup.console.agent.dto.AgentStatusEvent;
+import com.rapidobackup.console.agent.entity.Agent;
+import com.rapidobackup.console.agent.repository.AgentRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * In-memory status of all agents, pushed to status stream subscribers.
+ *
+ * Heartbeats, registrations and status transitions update the status held here and are
+ * published as {@link AgentStatusEvent}s through one multicast sink. A subscriber receives
+ * a snapshot of the current status, then the changes: it is connected to the sink before
+ * the snapshot is taken, so no change is lost in between (a change may be seen twice, which
+ * is harmless as events carry the full status). Changes are held per subscriber behind its
+ * snapshot, which is always sent in full. Pending heartbeats are coalesced into the latest
+ * one per agent, and dropped by any newer change of the agent: a large fleet heartbeating
+ * during a snapshot holds at most one heartbeat per agent, outside of the change buffer. Streams never touch the database; the
+ * status is loaded once on startup, and heartbeats of agents unknown here (registered on
+ * another node) are resolved together, with one query per
+ * {@code console.agent.heartbeat-flush-interval}.
+ *
+ * Subscribers are filtered server side by assigned user and status; an agent leaving a
+ * status is still reported to subscribers of that status. Each subscriber chooses how it
+ * handles changes arriving faster than it consumes them ({@link Overflow}), without ever
+ * slowing down the publisher or other subscribers.
+ *
+ * A heartbeat brings an offline or connecting agent online.
+ *
+ * Metrics: {@code agent.status.subscribers}.
+ */
+@Component
+public class AgentStatusHub {
+
+    private static final Logger log = LoggerFactory.getLogger(AgentStatusHub.class);
+    // Bounds the memory and query size taken by heartbeats of unknown, possibly invalid, API keys
+    private static final int MAX_UNRESOLVED = 10_000;
+
+    /**
+     * Handling of changes a subscriber does not consume fast enough.
+     */
+    public enum Overflow {
+        /** Buffer up to {@code console.agent.status-stream.buffer-size} changes besides heartbeats, then end the stream */
+        BUFFER,
+        /** Drop the changes the subscriber is not ready for, including while it receives its snapshot */
+        DROP,
+        /** Keep only the latest change the subscriber is not ready for */
+        LATEST
+    }
+
+    private final Map<UUID, AgentStatusEvent> agents = new ConcurrentHashMap<>();
+    private final Map<String, UUID> agentIdsByApiKey = new ConcurrentHashMap<>();
+    private final Map<UUID, String> apiKeysByAgentId = new ConcurrentHashMap<>();
+    private final Map<String, Instant> unresolved = new ConcurrentHashMap<>();
+    private final Sinks.Many<AgentStatusEvent> sink = Sinks.many().multicast().directBestEffort();
+    private final Object lock = new Object();
+    private final AgentRepository agentRepository;
+    private final int bufferSize;
+    private final Duration resolveInterval;
+    private Disposable resolveLoop;
+
+    public AgentStatusHub(AgentRepository agentRepository, MeterRegistry meterRegistry,
+                          @Value("${console.agent.status-stream.buffer-size:1000}") int bufferSize,
+                          @Value("${console.agent.heartbeat-flush-interval:1s}") Duration resolveInterval) {
+        this.agentRepository = agentRepository;
+        this.bufferSize = bufferSize;
+        this.resolveInterval = resolveInterval;
+        Gauge.builder("agent.status.subscribers", sink, Sinks.Many::currentSubscriberCount)
+            .description("Subscribers of agent status streams")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        agentRepository.findAll()
+            .doOnNext(this::load)
+            .count()
+            .subscribe(
+                count -> log.info("Agent status hub loaded {} agents", count),
+                error -> log.warn("Failed to load agent status, agents are added as they report: {}",
+                    error.getMessage()));
+        resolveLoop = Flux.interval(resolveInterval, resolveInterval)
+            .onBackpressureDrop()
+            .concatMap(tick -> resolveUnknown().onErrorResume(error -> Mono.just(0L)), 1)
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (resolveLoop != null) {
+            resolveLoop.dispose();
+        }
+    }
+
+    /**
+     * Stream the status of the agents matching the filters: a snapshot, then the changes.
+     *
+     * @param userId only agents assigned to this user, or all agents when null
+     * @param statuses only agents with one of these statuses, or all agents when empty
+     */
+    public Flux<AgentStatusEvent> subscribe(UUID userId, Set<Agent.AgentStatus> statuses, Overflow overflow) {
+        Predicate<AgentStatusEvent> ofUser = event -> userId == null || userId.equals(event.getAssignedUserId());
+        Predicate<AgentStatusEvent> inSnapshot = ofUser
+            .and(event -> statuses.isEmpty() || statuses.contains(event.getStatus()));
+        Predicate<AgentStatusEvent> inChanges = ofUser
+            .and(event -> statuses.isEmpty() || statuses.contains(event.getStatus())
+                || statuses.contains(event.getPreviousStatus()));
+
+        return Flux.create(emitter -> {
+            ChangeQueue queue = new ChangeQueue(emitter, overflow, bufferSize);
+            // Connected before the snapshot is taken; the queue holds changes until it is sent
+            Disposable changes = sink.asFlux().filter(inChanges).subscribe(queue::offer);
+            emitter.onDispose(changes);
+            queue.start(agents.values().stream()
+                .filter(inSnapshot)
+                .map(event -> event.as(AgentStatusEvent.Type.SNAPSHOT, event.getStatus(), null, event.getLastHeartbeat()))
+                .toList());
+            emitter.onRequest(requested -> queue.drain());
+        }, FluxSink.OverflowStrategy.IGNORE);
+    }
+
+    /**
+     * Record a heartbeat of the agent with the given API key.
+     */
+    public void heartbeat(String apiKey, Instant timestamp) {
+        UUID agentId = agentIdsByApiKey.get(apiKey);
+        if (agentId != null) {
+            heartbeat(agentId, timestamp);
+        } else if (unresolved.size() < MAX_UNRESOLVED) {
+            unresolved.merge(apiKey, timestamp, (current, next) -> next.isAfter(current) ? next : current);
+        }
+    }
+
+    /**
+     * Look up the agents of heartbeats with unknown API keys, in one query, and record them.
+     * Keys matching no agent are discarded.
+     *
+     * @return the number of resolved agents
+     */
+    public Mono<Long> resolveUnknown() {
+        Map<String, Instant> batch = new ConcurrentHashMap<>();
+        for (String apiKey : new ArrayList<>(unresolved.keySet())) {
+            Instant timestamp = unresolved.remove(apiKey);
+            if (timestamp != null) {
+                batch.put(apiKey, timestamp);
+            }
+        }
+        if (batch.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return agentRepository.findByApiKeyIn(batch.keySet())
+            .doOnNext(agent -> {
+                load(agent);
+                heartbeat(agent.getId(), batch.get(agent.getApiKey()));
+            })
+            .count();
+    }
+
+    /**
+     * Record a new or updated agent, publishing it when it is new or its status changed.
+     */
+    public void update(Agent agent) {
+        synchronized (lock) {
+            index(agent);
+            AgentStatusEvent current = agents.get(agent.getId());
+            if (current == null) {
+                publish(toEvent(AgentStatusEvent.Type.REGISTERED, agent, null));
+            } else if (current.getStatus() != agent.getStatus()) {
+                publish(toEvent(AgentStatusEvent.Type.STATUS_CHANGED, agent, current.getStatus()));
+            }
+        }
+    }
+
+    /**
+     * Record agents marked offline.
+     */
+    public void markOffline(Collection<UUID> agentIds) {
+        synchronized (lock) {
+            for (UUID agentId : agentIds) {
+                AgentStatusEvent current = agents.get(agentId);
+                if (current != null && current.getStatus() != Agent.AgentStatus.OFFLINE) {
+                    publish(current.as(AgentStatusEvent.Type.STATUS_CHANGED, Agent.AgentStatus.OFFLINE,
+                        current.getStatus(), current.getLastHeartbeat()));
+                }
+            }
+        }
+    }
+
+    public int agentCount() {
+        return agents.size();
+    }
+
+    // === Private Methods ===
+
+    private void heartbeat(UUID agentId, Instant timestamp) {
+        synchronized (lock) {
+            AgentStatusEvent current = agents.get(agentId);
+            if (current == null || (current.getLastHeartbeat() != null && !timestamp.isAfter(current.getLastHeartbeat()))) {
+                return;
+            }
+            Agent.AgentStatus status = current.getStatus();
+            if (status == Agent.AgentStatus.OFFLINE || status == Agent.AgentStatus.CONNECTING) {
+                publish(current.as(AgentStatusEvent.Type.STATUS_CHANGED, Agent.AgentStatus.ONLINE, status, timestamp));
+            } else {
+                publish(current.as(AgentStatusEvent.Type.HEARTBEAT, status, null, timestamp));
+            }
+        }
+    }
+
+    /**
+     * Add an agent read from the database, unless a more recent status is already held.
+     */
+    private void load(Agent agent) {
+        synchronized (lock) {
+            if (!agents.containsKey(agent.getId())) {
+                index(agent);
+                agents.put(agent.getId(), toEvent(AgentStatusEvent.Type.SNAPSHOT, agent, null));
+            }
+        }
+    }
+
+    private void index(Agent agent) {
+        String previousKey = apiKeysByAgentId.put(agent.getId(), agent.getApiKey());
+        if (previousKey != null && !previousKey.equals(agent.getApiKey())) {
+            agentIdsByApiKey.remove(previousKey);
+        }
+        agentIdsByApiKey.put(agent.getApiKey(), agent.getId());
+    }
+
+    /**
+     * Emissions are serialized by the lock, as sinks require.
+     */
+    private void publish(AgentStatusEvent event) {
+        agents.put(event.getAgentId(), event);
+        sink.tryEmitNext(event);
+    }
+
+    private static AgentStatusEvent toEvent(AgentStatusEvent.Type type, Agent agent, Agent.AgentStatus previousStatus) {
+        return new AgentStatusEvent(type, agent.getId(), agent.getName(), agent.getHostname(), agent.getAssignedUserId(),
+            agent.getStatus(), previousStatus, agent.getLastHeartbeat());
+    }
+
+    /**
+     * Events of one subscriber not yet requested: its snapshot, then the changes kept by its
+     * {@link Overflow}, then the heartbeats. A pending heartbeat is always newer than the
+     * pending changes of its agent, so each agent's events stay in order. Nothing is sent
+     * beyond what the subscriber requested. Access is serialized on the queue, as sinks require.
+     */
+    private static final class ChangeQueue {
+
+        private final FluxSink<AgentStatusEvent> emitter;
+        private final Overflow overflow;
+        private final int bufferSize;
+        private final Deque<AgentStatusEvent> snapshot = new ArrayDeque<>();
+        private final Deque<AgentStatusEvent> changes = new ArrayDeque<>();
+        private final Map<UUID, AgentStatusEvent> heartbeats = new LinkedHashMap<>();
+        private boolean started;
+        private boolean draining;
+
+        private ChangeQueue(FluxSink<AgentStatusEvent> emitter, Overflow overflow, int bufferSize) {
+            this.emitter = emitter;
+            this.overflow = overflow;
+            this.bufferSize = bufferSize;
+        }
+
+        private synchronized void start(List<AgentStatusEvent> events) {
+            snapshot.addAll(events);
+            started = true;
+            drain();
+        }
+
+        private synchronized void offer(AgentStatusEvent event) {
+            if (overflow == Overflow.DROP && (!started || !snapshot.isEmpty() || emitter.requestedFromDownstream() == 0)) {
+                return;
+            }
+            if (overflow == Overflow.LATEST) {
+                changes.clear();
+                heartbeats.clear();
+            }
+            // Events carry the full status: any change supersedes a pending heartbeat of the agent
+            heartbeats.remove(event.getAgentId());
+            if (event.getType() == AgentStatusEvent.Type.HEARTBEAT) {
+                heartbeats.put(event.getAgentId(), event);
+            } else {
+                changes.add(event);
+            }
+            if (changes.size() > bufferSize) {
+                // The subscriber resynchronizes with a new snapshot when reconnecting
+                snapshot.clear();
+                changes.clear();
+                heartbeats.clear();
+                emitter.error(Exceptions.failWithOverflow(
+                    "More than " + bufferSize + " agent status changes pending for a slow subscriber"));
+                return;
+            }
+            drain();
+        }
+
+        private synchronized void drain() {
+            // Reentrant when the subscriber requests more while receiving an event
+            if (draining || !started) {
+                return;
+            }
+            draining = true;
+            try {
+                while (emitter.requestedFromDownstream() > 0 && !emitter.isCancelled()) {
+                    AgentStatusEvent next = snapshot.isEmpty() ? changes.poll() : snapshot.poll();
+                    if (next == null) {
+                        Iterator<AgentStatusEvent> pending = heartbeats.values().iterator();
+                        if (!pending.hasNext()) {
+                            break;
+                        }
+                        next = pending.next();
+                        pending.remove();
+                    }
+                    emitter.next(next);
+                }
+            } finally {
+                draining = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.rapidobackup.console.agent.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel of keys expiring at a deadline, with tick granularity.
+ *
+ * Every tracked key sits in the bucket of its deadline tick. Extending a deadline only
+ * updates the key's entry in the deadline map, which is O(1) and lock-free: the key is
+ * moved to its new bucket lazily, when its old bucket comes round. Each key is therefore
+ * queued once whatever the number of extensions, and a tick only visits the keys of its
+ * own bucket. Deadlines more than one rotation away simply stay queued for the extra
+ * rotations.
+ *
+ * Keys leave the wheel only when they expire, so a tracked key is queued exactly once.
+ * {@link #schedule} may be called from any thread; {@link #advance} must be called from a
+ * single thread.
+ */
+final class HashedTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final Queue<K>[] buckets;
+    private final Map<K, Long> deadlines = new ConcurrentHashMap<>();
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    HashedTimingWheel(Duration tickDuration, int wheelSize, long startMillis) {
+        if (tickDuration.toMillis() <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Tick must be at least 1 ms and wheel size a power of two");
+        }
+        this.tickMillis = tickDuration.toMillis();
+        this.mask = wheelSize - 1;
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Track a key until the given deadline. The deadline of a tracked key is only ever
+     * extended, never brought forward.
+     */
+    void schedule(K key, long deadlineMillis) {
+        long deadlineTick = Math.ceilDiv(deadlineMillis, tickMillis);
+        boolean[] added = new boolean[1];
+        deadlines.compute(key, (k, current) -> {
+            if (current == null) {
+                added[0] = true;
+                return deadlineTick;
+            }
+            return Math.max(current, deadlineTick);
+        });
+        if (added[0]) {
+            enqueue(key, deadlineTick);
+        }
+    }
+
+    int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Move the wheel to the given time.
+     *
+     * @return the keys whose deadline has passed; they are no longer tracked
+     */
+    List<K> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        long fromTick = currentTick + 1;
+        if (nowTick < fromTick) {
+            return List.of();
+        }
+        // After a long pause, visiting each bucket once is enough
+        fromTick = Math.max(fromTick, nowTick - mask);
+        currentTick = nowTick;
+
+        List<K> expired = new ArrayList<>();
+        for (long tick = fromTick; tick <= nowTick; tick++) {
+            for (K key : drain(buckets[(int) (tick & mask)])) {
+                expireOrRequeue(key, nowTick, expired);
+            }
+        }
+        return expired;
+    }
+
+    // === Private Methods ===
+
+    private void expireOrRequeue(K key, long nowTick, List<K> expired) {
+        Long deadline = deadlines.get(key);
+        while (deadline != null) {
+            if (deadline > nowTick) {
+                enqueue(key, deadline);
+                return;
+            }
+            if (deadlines.remove(key, deadline)) {
+                expired.add(key);
+                return;
+            }
+            // Extended concurrently
+            deadline = deadlines.get(key);
+        }
+    }
+
+    /**
+     * Keys already due are queued for the next tick.
+     */
+    private void enqueue(K key, long deadlineTick) {
+        long tick = Math.max(deadlineTick, currentTick + 1);
+        buckets[(int) (tick & mask)].add(key);
+    }
+
+    private static <K> List<K> drain(Queue<K> bucket) {
+        List<K> keys = new ArrayList<>();
+        for (K key = bucket.poll(); key != null; key = bucket.poll()) {
+            keys.add(key);
+        }
+        return keys;
+    }
+}
@@ -4,16 +4,25 @@ import java.security.SecureRandom;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.rapidobackup.console.agent.dto.AgentPrincipal;
+import com.rapidobackup.console.agent.dto.AgentStatusEvent;
 import com.rapidobackup.console.agent.entity.Agent;
+import com.rapidobackup.console.agent.event.AgentApiKeyRotatedEvent;
+import com.rapidobackup.console.agent.event.AgentAssignmentChangedEvent;
 import com.rapidobackup.console.agent.repository.AgentRepository;
+import com.rapidobackup.console.tenant.service.TenantQuotaService;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
 
 /**
@@ -28,10 +37,25 @@ import reactor.util.retry.Retry;
 public class ReactiveAgentService {
 
     private final AgentRepository agentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TenantQuotaService quotaService;
+    private final AgentHeartbeatBuffer heartbeatBuffer;
+    private final AgentApiKeyCache apiKeyCache;
+    private final AgentLivenessMonitor livenessMonitor;
+    private final AgentStatusHub statusHub;
     private final SecureRandom secureRandom = new SecureRandom();
 
-    public ReactiveAgentService(AgentRepository agentRepository) {
+    public ReactiveAgentService(AgentRepository agentRepository, ApplicationEventPublisher eventPublisher,
+                                TenantQuotaService quotaService, AgentHeartbeatBuffer heartbeatBuffer,
+                                AgentApiKeyCache apiKeyCache, AgentLivenessMonitor livenessMonitor,
+                                AgentStatusHub statusHub) {
         this.agentRepository = agentRepository;
+        this.eventPublisher = eventPublisher;
+        this.quotaService = quotaService;
+        this.heartbeatBuffer = heartbeatBuffer;
+        this.apiKeyCache = apiKeyCache;
+        this.livenessMonitor = livenessMonitor;
+        this.statusHub = statusHub;
     }
 
     // Basic CRUD operations with reactive patterns
@@ -39,11 +63,55 @@ public class ReactiveAgentService {
         agent.setApiKey(generateSecureApiKey());
         agent.setApiKeyCreatedDate(Instant.now());
         agent.setCreatedDate(Instant.now());
-        
+
+        if (agent.getAssignedUserId() == null) {
+            return saveNewAgent(agent);
+        }
+        // Reserve the agent quota of the owning tenant first, keep it once saved, give it back if not
+        return Mono.fromCallable(() -> quotaService.reserveAgentFor(agent.getAssignedUserId()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(reservation -> {
+                    AtomicBoolean saved = new AtomicBoolean();
+                    AtomicBoolean settled = new AtomicBoolean();
+                    return saveNewAgent(agent)
+                        .doOnNext(savedAgent -> saved.set(true))
+                        .onErrorResume(error -> settleQuota(settled, () -> quotaService.release(reservation))
+                            .then(Mono.<Agent>error(error)))
+                        .flatMap(savedAgent -> settleQuota(settled, () -> quotaService.confirm(reservation))
+                            .thenReturn(savedAgent))
+                        // A cancelled save may still commit: the reconciliation then counts it
+                        .doOnCancel(() -> settleQuota(settled, saved.get()
+                            ? () -> quotaService.confirm(reservation)
+                            : () -> quotaService.release(reservation)).subscribe());
+                });
+    }
+
+    /**
+     * Confirm or release a quota reservation, only once, off the event loop: quota counters
+     * are blocking calls.
+     */
+    private static Mono<Void> settleQuota(AtomicBoolean settled, Runnable action) {
+        return Mono.<Void>fromRunnable(() -> {
+                    if (settled.compareAndSet(false, true)) {
+                        action.run();
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Agent> saveNewAgent(Agent agent) {
         return agentRepository.save(agent)
                 .doOnSuccess(savedAgent -> 
                     System.out.println("Agent created reactively: " + savedAgent.getName()))
-                .retryWhen(Retry.backoff(3, Duration.ofMillis(500)));
+                .retryWhen(Retry.backoff(3, Duration.ofMillis(500)))
+                .doOnSuccess(savedAgent -> {
+                    statusHub.update(savedAgent);
+                    if (savedAgent.getAssignedUserId() != null) {
+                        // Tenant agent rollups are updated asynchronously by the tenant module
+                        eventPublisher.publishEvent(
+                            new AgentAssignmentChangedEvent(savedAgent.getId(), null, savedAgent.getAssignedUserId()));
+                    }
+                });
     }
 
     public Mono<Agent> findById(UUID agentId) {
@@ -57,50 +125,88 @@ public class ReactiveAgentService {
                 .switchIfEmpty(Mono.error(new SecurityException("Invalid or expired API key")));
     }
 
-    // Reactive streaming for real-time monitoring
-    public Flux<Agent> streamOnlineAgents() {
-        return agentRepository.findByStatus(Agent.AgentStatus.ONLINE)
-                .delayElements(Duration.ofMillis(100)) // Simulate real-time streaming
-                .filter(agent -> agent.hasRecentHeartbeat(60)); // Only agents with recent heartbeat
+    /**
+     * Authenticate an agent by API key, served from the {@link AgentApiKeyCache} in steady state.
+     */
+    public Mono<AgentPrincipal> authenticate(String apiKey) {
+        return apiKeyCache.authenticate(apiKey, agentRepository::findByApiKey)
+                .switchIfEmpty(Mono.error(new SecurityException("Invalid or expired API key")));
+    }
+
+    // Reactive streaming for real-time monitoring, pushed by the AgentStatusHub without database access
+
+    public Flux<AgentStatusEvent> streamOnlineAgents(AgentStatusHub.Overflow overflow) {
+        return statusHub.subscribe(null, Set.of(Agent.AgentStatus.ONLINE), overflow);
+    }
+
+    public Flux<AgentStatusEvent> streamAgentsByUser(UUID userId, AgentStatusHub.Overflow overflow) {
+        return statusHub.subscribe(userId, Set.of(Agent.AgentStatus.ONLINE, Agent.AgentStatus.CONNECTING), overflow);
     }
 
-    public Flux<Agent> streamAgentsByUser(UUID userId) {
-        return agentRepository.findOnlineAgentsByUser(userId)
-                .take(Duration.ofMinutes(5)); // Stream for 5 minutes
+    /**
+     * Stream the status of agents: a snapshot, then every change.
+     *
+     * @param userId only agents assigned to this user, or all agents when null
+     * @param statuses only agents with one of these statuses, or all agents when empty
+     */
+    public Flux<AgentStatusEvent> streamAgentStatus(UUID userId, Set<Agent.AgentStatus> statuses,
+                                                    AgentStatusHub.Overflow overflow) {
+        return statusHub.subscribe(userId, statuses, overflow);
     }
 
     // High-performance bulk operations
+
+    /**
+     * Record a batch of heartbeats. They are written behind by the {@link AgentHeartbeatBuffer},
+     * coalesced with other heartbeats of the same agents, extend the agents' deadlines in the
+     * {@link AgentLivenessMonitor} and are pushed to status streams by the {@link AgentStatusHub}.
+     *
+     * @return the number of accepted heartbeats, excluding those of unknown or expired keys
+     */
     public Mono<Long> processHeartbeatBatch(Flux<String> apiKeyStream) {
         Instant now = Instant.now();
-        
+
         return apiKeyStream
-                .flatMap(apiKey -> 
-                    agentRepository.updateHeartbeat(apiKey, now)
-                        .onErrorResume(error -> {
-                            System.err.println("Failed to update heartbeat for " + apiKey + ": " + error.getMessage());
-                            return Mono.just(0);
-                        })
-                )
-                .reduce(0, Integer::sum)
-                .map(Integer::longValue);
+                .flatMap(apiKey -> recordHeartbeat(apiKey, now))
+                .filter(Boolean::booleanValue)
+                .count();
+    }
+
+    /**
+     * Record one heartbeat, as {@link #processHeartbeatBatch} does for each of its keys. The key
+     * is authenticated through the {@link AgentApiKeyCache}, without database access in steady
+     * state; heartbeats of unknown or expired keys are dropped, so that only agents are buffered
+     * and tracked.
+     *
+     * @return whether the heartbeat was accepted
+     */
+    public Mono<Boolean> recordHeartbeat(String apiKey, Instant timestamp) {
+        if (apiKey == null || apiKey.isBlank()) {
+            return Mono.just(false);
+        }
+        return apiKeyCache.authenticate(apiKey, agentRepository::findByApiKey)
+                .map(principal -> {
+                    heartbeatBuffer.record(apiKey, timestamp);
+                    livenessMonitor.heartbeat(apiKey, timestamp);
+                    statusHub.heartbeat(apiKey, timestamp);
+                    return true;
+                })
+                .defaultIfEmpty(false);
     }
 
     // Reactive monitoring and health checks
+
+    /**
+     * Mark offline, in one statement, the agents without a heartbeat for the given threshold.
+     * Stale agents are normally detected by the {@link AgentLivenessMonitor}; this sweep is an
+     * on-demand recovery path.
+     */
     public Flux<Agent> monitorStaleAgents(Duration staleThreshold) {
-        Instant threshold = Instant.now().minus(staleThreshold);
-        
-        return agentRepository.findStaleAgents(threshold)
+        return livenessMonitor.sweep(staleThreshold)
                 .doOnNext(agent -> {
                     System.out.println("Stale agent detected: " + agent.getName() + 
                                      " (last seen: " + agent.getLastSeen() + ")");
-                })
-                .flatMap(this::markAgentAsOffline);
-    }
-
-    private Mono<Agent> markAgentAsOffline(Agent agent) {
-        agent.setStatus(Agent.AgentStatus.OFFLINE);
-        agent.setLastModifiedDate(Instant.now());
-        return agentRepository.save(agent);
+                });
     }
 
     // Advanced search with reactive filtering
@@ -160,12 +266,20 @@ public class ReactiveAgentService {
     public Mono<Agent> rotateApiKey(UUID agentId) {
         return agentRepository.findById(agentId)
                 .flatMap(agent -> {
+                    apiKeyCache.invalidate(agent.getApiKey());
                     agent.setApiKey(generateSecureApiKey());
                     agent.setApiKeyCreatedDate(Instant.now());
                     // Set expiration to 90 days from now
                     agent.setApiKeyExpiresDate(Instant.now().plus(Duration.ofDays(90)));
                     agent.setLastModifiedDate(Instant.now());
                     return agentRepository.save(agent);
+                })
+                .doOnSuccess(agent -> {
+                    if (agent != null) {
+                        statusHub.update(agent);
+                        // Connections authenticated with the previous key are closed
+                        eventPublisher.publishEvent(new AgentApiKeyRotatedEvent(agent.getId()));
+                    }
                 });
     }
 
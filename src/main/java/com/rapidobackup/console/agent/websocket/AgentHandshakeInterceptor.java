@@ -0,0 +1,100 @@
+package com.rapidobackup.console.agent.websocket;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import com.rapidobackup.console.agent.dto.AgentPrincipal;
+import com.rapidobackup.console.agent.service.ReactiveAgentService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Authenticates agents by API key when they upgrade to the {@code /ws/agent} WebSocket.
+ *
+ * The key is read from the {@value #API_KEY_HEADER} header. Lookups go through the API-key
+ * cache of {@link ReactiveAgentService#authenticate}, so reconnection storms do not reach
+ * the database. Unknown or expired keys are refused with {@code 401}, and upgrades beyond
+ * {@code console.agent.max-concurrent-connections} with {@code 503}, before any connection
+ * is opened.
+ */
+@Component
+public class AgentHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String API_KEY_HEADER = "X-Agent-Api-Key";
+
+    private static final Logger log = LoggerFactory.getLogger(AgentHandshakeInterceptor.class);
+    private static final Duration AUTHENTICATION_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ReactiveAgentService agentService;
+    private final AgentWebSocketHandler webSocketHandler;
+    private final Counter rejectedUnauthorized;
+    private final Counter rejectedForCapacity;
+
+    public AgentHandshakeInterceptor(ReactiveAgentService agentService, AgentWebSocketHandler webSocketHandler,
+                                     MeterRegistry meterRegistry) {
+        this.agentService = agentService;
+        this.webSocketHandler = webSocketHandler;
+        this.rejectedUnauthorized = Counter.builder("agent.websocket.rejected")
+            .description("Agent WebSocket connections refused")
+            .tag("reason", "unauthorized")
+            .register(meterRegistry);
+        this.rejectedForCapacity = Counter.builder("agent.websocket.rejected")
+            .description("Agent WebSocket connections refused")
+            .tag("reason", "capacity")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler,
+                                   Map<String, Object> attributes) {
+        if (!webSocketHandler.hasCapacity()) {
+            rejectedForCapacity.increment();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return false;
+        }
+        String apiKey = request.getHeaders().getFirst(API_KEY_HEADER);
+        AgentPrincipal agent = authenticate(apiKey);
+        if (agent == null) {
+            rejectedUnauthorized.increment();
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        attributes.put(AgentWebSocketHandler.AGENT_ID_ATTRIBUTE, agent.getAgentId());
+        attributes.put(AgentWebSocketHandler.API_KEY_ATTRIBUTE, apiKey);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler,
+                               Exception exception) {
+        // Nothing to release: connections are counted once established
+    }
+
+    // === Private Methods ===
+
+    /**
+     * The upgrade runs on a servlet request thread, which may wait for the lookup; in steady
+     * state it is answered from memory.
+     */
+    private AgentPrincipal authenticate(String apiKey) {
+        if (apiKey == null || apiKey.isBlank()) {
+            return null;
+        }
+        try {
+            return agentService.authenticate(apiKey).block(AUTHENTICATION_TIMEOUT);
+        } catch (RuntimeException e) {
+            log.debug("Agent WebSocket authentication failed: {}", e.getMessage());
+            return null;
+        }
+    }
+}
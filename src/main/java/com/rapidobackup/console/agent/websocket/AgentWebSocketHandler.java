@@ -0,0 +1,298 @@
+package com.rapidobackup.console.agent.websocket;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rapidobackup.console.agent.dto.AgentCommandResult;
+import com.rapidobackup.console.agent.dto.AgentMessage;
+import com.rapidobackup.console.agent.event.AgentApiKeyRotatedEvent;
+import com.rapidobackup.console.agent.service.ReactiveAgentService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * WebSocket gateway of agents on {@code /ws/agent}.
+ *
+ * Agents are authenticated by API key during the upgrade ({@link AgentHandshakeInterceptor}),
+ * then one connection per agent multiplexes its heartbeats, the commands sent to it and its
+ * acknowledgements ({@link AgentMessage}). A newer connection of the same agent replaces the
+ * older one. Connections are held by the servlet container's non-blocking I/O: an idle
+ * connection costs its buffers, never a thread.
+ *
+ * At most {@code console.agent.max-concurrent-connections} connections are accepted; the
+ * upgrade is refused beyond that, and a connection established concurrently past the limit
+ * is closed with {@code 1013 Try Again Later}. Sends go through a
+ * {@link ConcurrentWebSocketSessionDecorator}, so an agent that stops reading is
+ * disconnected instead of holding senders.
+ *
+ * The API key is checked again on every heartbeat, through the API-key cache: a connection
+ * whose key was rotated or expired is closed with {@code 1008 Policy Violation}, right away
+ * when the key is rotated on this node. The agent reconnects with its new key.
+ *
+ * A command completes when the agent acknowledges it, or as timed out after
+ * {@code console.agent.command-timeout}, or as disconnected when the agent goes away first.
+ *
+ * Metrics: {@code agent.websocket.connections}, {@code agent.websocket.rejected}.
+ */
+@Component
+public class AgentWebSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(AgentWebSocketHandler.class);
+    static final String AGENT_ID_ATTRIBUTE = "agentId";
+    static final String API_KEY_ATTRIBUTE = "apiKey";
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int SEND_BUFFER_LIMIT_BYTES = 64 * 1024;
+    private static final CloseStatus REPLACED = CloseStatus.NORMAL.withReason("Replaced by a newer connection");
+    private static final CloseStatus KEY_REVOKED = CloseStatus.POLICY_VIOLATION.withReason("API key no longer valid");
+
+    private final Map<UUID, WebSocketSession> connections = new ConcurrentHashMap<>();
+    private final Map<UUID, PendingCommand> pendingCommands = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ReactiveAgentService agentService;
+    private final ObjectMapper objectMapper;
+    private final int maxConnections;
+    private final Duration commandTimeout;
+    private final Counter rejectedForCapacity;
+
+    public AgentWebSocketHandler(ReactiveAgentService agentService, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 @Value("${console.agent.max-concurrent-connections:1000}") int maxConnections,
+                                 @Value("${console.agent.command-timeout:5m}") Duration commandTimeout) {
+        this.agentService = agentService;
+        this.objectMapper = objectMapper;
+        this.maxConnections = maxConnections;
+        this.commandTimeout = commandTimeout;
+        Gauge.builder("agent.websocket.connections", connectionCount, AtomicInteger::get)
+            .description("Open agent WebSocket connections")
+            .register(meterRegistry);
+        this.rejectedForCapacity = Counter.builder("agent.websocket.rejected")
+            .description("Agent WebSocket connections refused")
+            .tag("reason", "capacity")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Whether a new connection would currently be accepted.
+     */
+    public boolean hasCapacity() {
+        return connectionCount.get() < maxConnections;
+    }
+
+    public int connectionCount() {
+        return connectionCount.get();
+    }
+
+    public boolean isConnected(UUID agentId) {
+        return connections.containsKey(agentId);
+    }
+
+    /**
+     * Deliver a command to a connected agent.
+     *
+     * @return the outcome, once acknowledged, timed out or disconnected
+     */
+    public Mono<AgentCommandResult> sendCommand(UUID agentId, String command, Map<String, Object> payload) {
+        return Mono.defer(() -> {
+            WebSocketSession session = connections.get(agentId);
+            if (session == null) {
+                return Mono.error(new IllegalArgumentException("Agent not connected: " + agentId));
+            }
+            UUID commandId = UUID.randomUUID();
+            PendingCommand pending = new PendingCommand(agentId, session.getId());
+            pendingCommands.put(commandId, pending);
+
+            // Sends may block up to the send time limit on a slow agent
+            return Mono.fromCallable(() -> send(session, AgentMessage.command(commandId, command, payload)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(sent -> sent
+                    ? pending.result.asMono()
+                    : Mono.just(result(commandId, agentId, AgentCommandResult.Status.DISCONNECTED)))
+                .timeout(commandTimeout, Mono.fromSupplier(
+                    () -> result(commandId, agentId, AgentCommandResult.Status.TIMED_OUT)))
+                .doFinally(signal -> pendingCommands.remove(commandId));
+        });
+    }
+
+    /**
+     * Close the connection of an agent, if it is connected to this node.
+     */
+    public void disconnect(UUID agentId, CloseStatus status) {
+        WebSocketSession session = connections.get(agentId);
+        if (session != null) {
+            close(session, status);
+        }
+    }
+
+    @EventListener
+    public void onApiKeyRotated(AgentApiKeyRotatedEvent event) {
+        disconnect(event.getAgentId(), KEY_REVOKED);
+    }
+
+    // === WebSocket Lifecycle ===
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            rejectedForCapacity.increment();
+            session.close(CloseStatus.SERVICE_OVERLOAD);
+            return;
+        }
+        UUID agentId = agentId(session);
+        WebSocketSession decorated = new ConcurrentWebSocketSessionDecorator(
+            session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT_BYTES);
+        WebSocketSession previous = connections.put(agentId, decorated);
+        if (previous != null) {
+            previous.close(REPLACED);
+        }
+        // Connecting counts as a heartbeat: the agent is online
+        heartbeat(session);
+        log.debug("Agent {} connected over WebSocket", agentId);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage textMessage) {
+        AgentMessage message;
+        try {
+            message = objectMapper.readValue(textMessage.getPayload(), AgentMessage.class);
+        } catch (JsonProcessingException e) {
+            reply(session, AgentMessage.error(null, "Malformed message"));
+            return;
+        }
+        if (message.getType() == AgentMessage.Type.HEARTBEAT) {
+            heartbeat(session);
+        } else if (message.getType() == AgentMessage.Type.ACK) {
+            acknowledge(session, message);
+        } else {
+            reply(session, AgentMessage.error(message.getCommandId(), "Unsupported message type: " + message.getType()));
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("Agent WebSocket transport error: {}", exception.getMessage());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        connectionCount.decrementAndGet();
+        UUID agentId = agentId(session);
+        if (agentId == null) {
+            return;
+        }
+        connections.computeIfPresent(agentId, (id, current) -> current.getId().equals(session.getId()) ? null : current);
+        pendingCommands.forEach((commandId, pending) -> {
+            if (pending.sessionId.equals(session.getId())) {
+                pending.result.tryEmitValue(result(commandId, agentId, AgentCommandResult.Status.DISCONNECTED));
+            }
+        });
+        log.debug("Agent {} disconnected from WebSocket: {}", agentId, status);
+    }
+
+    // === Private Methods ===
+
+    /**
+     * Record a heartbeat of the connected agent, closing the connection once its key is no
+     * longer accepted, e.g. after a rotation on another node.
+     */
+    private void heartbeat(WebSocketSession session) {
+        agentService.recordHeartbeat(apiKey(session), Instant.now())
+            .subscribe(
+                accepted -> {
+                    if (!accepted) {
+                        close(session, KEY_REVOKED);
+                    }
+                },
+                error -> log.debug("Failed to record heartbeat of agent {}: {}", agentId(session), error.getMessage()));
+    }
+
+    private static void close(WebSocketSession session, CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+
+    private void acknowledge(WebSocketSession session, AgentMessage message) {
+        PendingCommand pending = message.getCommandId() != null ? pendingCommands.get(message.getCommandId()) : null;
+        if (pending == null || !pending.sessionId.equals(session.getId())) {
+            reply(session, AgentMessage.error(message.getCommandId(), "Unknown command"));
+            return;
+        }
+        AgentCommandResult.Status status = Boolean.TRUE.equals(message.getSuccess())
+            ? AgentCommandResult.Status.SUCCEEDED : AgentCommandResult.Status.FAILED;
+        pending.result.tryEmitValue(new AgentCommandResult(
+            message.getCommandId(), pending.agentId, status, message.getPayload(), message.getError()));
+    }
+
+    /**
+     * Reply on the connection the message came from, through its thread-safe decorator.
+     */
+    private void reply(WebSocketSession session, AgentMessage message) {
+        UUID agentId = agentId(session);
+        WebSocketSession decorated = agentId != null ? connections.get(agentId) : null;
+        if (decorated != null && decorated.getId().equals(session.getId())) {
+            send(decorated, message);
+        }
+    }
+
+    /**
+     * @return false when the message could not be sent; the connection is then closed
+     */
+    private boolean send(WebSocketSession session, AgentMessage message) {
+        try {
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to send to agent WebSocket {}: {}", session.getId(), e.getMessage());
+            close(session, CloseStatus.SESSION_NOT_RELIABLE);
+            return false;
+        }
+    }
+
+    private static AgentCommandResult result(UUID commandId, UUID agentId, AgentCommandResult.Status status) {
+        return new AgentCommandResult(commandId, agentId, status, null, null);
+    }
+
+    private static UUID agentId(WebSocketSession session) {
+        return (UUID) session.getAttributes().get(AGENT_ID_ATTRIBUTE);
+    }
+
+    private static String apiKey(WebSocketSession session) {
+        return (String) session.getAttributes().get(API_KEY_ATTRIBUTE);
+    }
+
+    private static final class PendingCommand {
+
+        private final UUID agentId;
+        private final String sessionId;
+        private final Sinks.One<AgentCommandResult> result = Sinks.one();
+
+        private PendingCommand(UUID agentId, String sessionId) {
+            this.agentId = agentId;
+            this.sessionId = sessionId;
+        }
+    }
+}
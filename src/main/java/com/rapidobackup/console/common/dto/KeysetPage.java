@@ -0,0 +1,39 @@
+package com.rapidobackup.console.common.dto;
+
+import java.util.List;
+
+/**
+ * One page of a seek-based (keyset) listing.
+ *
+ * Unlike an offset page, it carries no page number and no exact total: the next page is
+ * requested with the opaque {@code nextCursor}, so fetching page N costs the same as page 1.
+ * {@code approximateTotal} is only filled when the caller asked for it and it is cheap to get.
+ */
+public class KeysetPage<T> {
+
+  private final List<T> content;
+  private final String nextCursor;
+  private final Long approximateTotal;
+
+  public KeysetPage(List<T> content, String nextCursor, Long approximateTotal) {
+    this.content = content;
+    this.nextCursor = nextCursor;
+    this.approximateTotal = approximateTotal;
+  }
+
+  public List<T> getContent() {
+    return content;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public boolean isHasNext() {
+    return nextCursor != null;
+  }
+
+  public Long getApproximateTotal() {
+    return approximateTotal;
+  }
+}
@@ -4,8 +4,11 @@ import java.net.URI;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -14,6 +17,7 @@ public class GlobalExceptionHandler {
 
   private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
   private static final String PROBLEM_BASE_URL = "https://rapidobackup.com/problems";
+  private static final String RETRY_AFTER_SECONDS = "1";
 
   @ExceptionHandler(AuthenticationException.class)
   public ProblemDetail handleAuthenticationException(AuthenticationException ex) {
@@ -49,6 +53,31 @@ public class GlobalExceptionHandler {
     return problemDetail;
   }
 
+  @ExceptionHandler(RetryableConflictException.class)
+  public ResponseEntity<ProblemDetail> handleRetryableConflictException(RetryableConflictException ex) {
+    logger.info("Retryable conflict: {}", ex.getMessage());
+    return conflict(ex.getMessage());
+  }
+
+  @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+  public ResponseEntity<ProblemDetail> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+    logger.info("Optimistic locking conflict: {}", ex.getMessage());
+    return conflict("The resource was modified concurrently, retry the operation");
+  }
+
+  @ExceptionHandler(QuotaExceededException.class)
+  public ProblemDetail handleQuotaExceededException(QuotaExceededException ex) {
+    ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+    problemDetail.setType(URI.create(PROBLEM_BASE_URL + "/quota-exceeded"));
+    problemDetail.setTitle("Quota Exceeded");
+    problemDetail.setProperty("tenantId", ex.getTenantId());
+    problemDetail.setProperty("resource", ex.getResource());
+    problemDetail.setProperty("limit", ex.getLimit());
+
+    logger.info("Quota exceeded: {}", ex.getMessage());
+    return problemDetail;
+  }
+
   @ExceptionHandler(Exception.class)
   public ProblemDetail handleGenericException(Exception ex) {
     ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
@@ -59,4 +88,15 @@ public class GlobalExceptionHandler {
     logger.error("Unexpected error: {}", ex.getMessage(), ex);
     return problemDetail;
   }
-}
\ No newline at end of file
+
+  private ResponseEntity<ProblemDetail> conflict(String detail) {
+    ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, detail);
+    problemDetail.setType(URI.create(PROBLEM_BASE_URL + "/concurrent-modification"));
+    problemDetail.setTitle("Concurrent Modification");
+    problemDetail.setProperty("retryable", true);
+
+    return ResponseEntity.status(HttpStatus.CONFLICT)
+        .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+        .body(problemDetail);
+  }
+}
@@ -0,0 +1,32 @@
+package com.rapidobackup.console.common.exception;
+
+import java.util.UUID;
+
+/**
+ * Thrown when registering a user or agent would exceed a tenant quota.
+ */
+public class QuotaExceededException extends RuntimeException {
+
+  private final UUID tenantId;
+  private final String resource;
+  private final long limit;
+
+  public QuotaExceededException(UUID tenantId, String resource, long limit) {
+    super("Tenant " + tenantId + " reached its limit of " + limit + " " + resource);
+    this.tenantId = tenantId;
+    this.resource = resource;
+    this.limit = limit;
+  }
+
+  public UUID getTenantId() {
+    return tenantId;
+  }
+
+  public String getResource() {
+    return resource;
+  }
+
+  public long getLimit() {
+    return limit;
+  }
+}
@@ -0,0 +1,16 @@
+package com.rapidobackup.console.common.exception;
+
+/**
+ * Thrown when an operation collides with a concurrent change of the same data.
+ * Nothing was modified, so the client may safely retry the operation.
+ */
+public class RetryableConflictException extends RuntimeException {
+
+  public RetryableConflictException(String message) {
+    super(message);
+  }
+
+  public RetryableConflictException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -1,6 +1,7 @@
 package com.rapidobackup.console.common.util;
 
 import java.text.Normalizer;
+import java.util.Collection;
 import java.util.Locale;
 import java.util.regex.Pattern;
 
@@ -20,6 +21,7 @@ public final class SlugUtils {
     private static final Pattern WHITESPACE_AND_UNDERSCORES = Pattern.compile("[\\s_]+");
     private static final Pattern MULTIPLE_HYPHENS = Pattern.compile("-+");
     private static final Pattern LEADING_TRAILING_HYPHENS = Pattern.compile("^-+|-+$");
+    private static final Pattern NUMERIC_SUFFIXES = Pattern.compile("(-[0-9]+)+$");
 
     private SlugUtils() {
         // Utility class
@@ -65,16 +67,43 @@ public final class SlugUtils {
      * @return a unique slug
      */
     public static String generateUniqueSlug(String baseText, java.util.function.Predicate<String> existingSlugChecker) {
-        String baseSlug = generateSlug(baseText);
+        String baseSlug = generateBaseSlug(baseText);
 
-        if (baseSlug.isEmpty()) {
-            baseSlug = "untitled";
+        String slug = baseSlug;
+        int counter = 1;
+
+        while (existingSlugChecker.test(slug)) {
+            slug = baseSlug + "-" + counter;
+            counter++;
         }
 
+        return slug;
+    }
+
+    /**
+     * Generates the base slug used for uniqueness resolution, falling back to "untitled".
+     *
+     * @param text the input text to convert to a slug
+     * @return a non-empty base slug
+     */
+    public static String generateBaseSlug(String text) {
+        String baseSlug = generateSlug(text);
+        return baseSlug.isEmpty() ? "untitled" : baseSlug;
+    }
+
+    /**
+     * Resolves the first free slug for a base slug from an already loaded set of taken slugs,
+     * using the same suffix sequence as {@link #generateUniqueSlug} ("base", "base-1", "base-2", ...).
+     *
+     * @param baseSlug the base slug
+     * @param takenSlugs slugs already in use (typically every slug equal to or starting with "base-")
+     * @return a slug not contained in takenSlugs
+     */
+    public static String nextAvailableSlug(String baseSlug, Collection<String> takenSlugs) {
         String slug = baseSlug;
         int counter = 1;
 
-        while (existingSlugChecker.test(slug)) {
+        while (takenSlugs.contains(slug)) {
             slug = baseSlug + "-" + counter;
             counter++;
         }
@@ -82,6 +111,18 @@ public final class SlugUtils {
         return slug;
     }
 
+    /**
+     * Strips every trailing numeric suffix from a slug ("acme-1-2" → "acme"). A base slug and
+     * every slug {@link #nextAvailableSlug} may derive from it share the same root, so slugs
+     * of different bases that could collide ("acme" → "acme-1" and "acme-1") do too.
+     *
+     * @param slug the slug
+     * @return the slug without its numeric suffixes
+     */
+    public static String rootSlug(String slug) {
+        return NUMERIC_SUFFIXES.matcher(slug).replaceAll("");
+    }
+
     /**
      * Validates if a string is a valid slug format.
      *
@@ -1,10 +1,12 @@
 package com.rapidobackup.console.contact.repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -23,4 +25,19 @@ public interface ContactRepository extends JpaRepository<Contact, UUID> {
 
   @Query("SELECT c FROM Contact c WHERE c.tenant.id = :tenantId AND c.isPrimary = true")
   List<Contact> findPrimaryContactsByTenantId(@Param("tenantId") UUID tenantId);
+
+  /**
+   * Soft delete every live contact of the tenants at {@code tenantPath} or below {@code tenantPathPrefix}.
+   */
+  @Modifying
+  @Query(
+      value =
+          "UPDATE contacts SET deleted_at = :deletedAt, updated_at = :deletedAt "
+              + "WHERE deleted_at IS NULL AND tenant_id IN (SELECT id FROM tenants WHERE deleted_at IS NULL "
+              + "AND (path = :tenantPath OR path LIKE :tenantPathPrefix))",
+      nativeQuery = true)
+  int softDeleteByTenantPath(
+      @Param("tenantPath") String tenantPath,
+      @Param("tenantPathPrefix") String tenantPathPrefix,
+      @Param("deletedAt") Instant deletedAt);
 }
\ No newline at end of file
@@ -0,0 +1,241 @@
+package com.rapidobackup.console.tenant.controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.rapidobackup.console.common.dto.KeysetPage;
+import com.rapidobackup.console.tenant.dto.EffectiveTenantSetting;
+import com.rapidobackup.console.tenant.dto.TenantDeletionResult;
+import com.rapidobackup.console.tenant.dto.TenantExportFormat;
+import com.rapidobackup.console.tenant.dto.TenantJsonFilter;
+import com.rapidobackup.console.tenant.dto.TenantSummary;
+import com.rapidobackup.console.tenant.dto.TenantTreeItem;
+import com.rapidobackup.console.tenant.entity.Tenant;
+import com.rapidobackup.console.tenant.entity.TenantAttributes;
+import com.rapidobackup.console.tenant.entity.TenantRollup;
+import com.rapidobackup.console.tenant.entity.TenantStatus;
+import com.rapidobackup.console.tenant.entity.TenantType;
+import com.rapidobackup.console.tenant.service.TenantExportService;
+import com.rapidobackup.console.tenant.service.TenantRollupService;
+import com.rapidobackup.console.tenant.service.TenantService;
+import com.rapidobackup.console.tenant.service.TenantSettingService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+/**
+ * Tenant hierarchy browsing for management users.
+ *
+ * Listings use keyset pagination: pass the {@code nextCursor} of a page as {@code cursor}
+ * to get the following one.
+ */
+@RestController
+@RequestMapping("/api/management/tenants")
+@Tag(name = "Tenants", description = "Tenant hierarchy browsing and search")
+public class TenantController {
+
+    private final TenantService tenantService;
+    private final TenantRollupService rollupService;
+    private final TenantExportService exportService;
+    private final TenantSettingService settingService;
+
+    public TenantController(TenantService tenantService, TenantRollupService rollupService,
+                            TenantExportService exportService, TenantSettingService settingService) {
+        this.tenantService = tenantService;
+        this.rollupService = rollupService;
+        this.exportService = exportService;
+        this.settingService = settingService;
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search tenants", description = "Search by name, display name or slug, optionally within a branch")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "One page of matching tenants"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+    @SecurityRequirement(name = "sessionAuth")
+    public ResponseEntity<KeysetPage<TenantSummary>> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) TenantType type,
+            @RequestParam(required = false) TenantStatus status,
+            @Parameter(description = "Restrict the search to descendants of this tenant")
+            @RequestParam(required = false) UUID parentId,
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "Include an approximate total (only without search term)")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(tenantService.searchTenants(q, type, status, parentId, cursor, size, includeTotal));
+    }
+
+    @GetMapping("/search/fuzzy")
+    @Operation(summary = "Fuzzy tenant search",
+               description = "Typo-tolerant search by name, display name or slug, best matches first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Best matching tenants"),
+        @ApiResponse(responseCode = "400", description = "Missing search term or invalid limit")
+    })
+    @SecurityRequirement(name = "sessionAuth")
+    public ResponseEntity<List<TenantSummary>> fuzzySearch(
+            @RequestParam String q,
+            @RequestParam(required = false) TenantType type,
+            @RequestParam(required = false) TenantStatus status,
+            @Parameter(description = "Restrict the search to descendants of this tenant")
+            @RequestParam(required = false) UUID parentId,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(tenantService.fuzzySearchTenants(q, type, status, parentId, limit));
+    }
+
+    @PostMapping("/search/attributes")
+    @Operation(summary = "Filter tenants on attributes",
+               description = "Containment and key/value filters on custom attributes and settings, optionally within a branch")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "One page of matching tenants"),
+        @ApiResponse(responseCode = "400", description = "Missing criteria, invalid predicate, cursor or page size")
+    })
+    @SecurityRequirement(name = "sessionAuth")
+    public ResponseEntity<KeysetPage<TenantSummary>> filterByAttributes(
+            @Valid @RequestBody TenantJsonFilter filter,
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(tenantService.filterTenants(filter, cursor, size));
+    }
+
+    @DeleteMapping("/{tenantId}")
+    @Operation(summary = "Close a tenant",
+               description = "Soft delete a tenant, its users and contacts; with cascade, the whole branch")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Number of closed tenants, users and contacts"),
+        @ApiResponse(responseCode = "400", description = "Unknown tenant, or children present without cascade")
+    })
+    @SecurityRequirement(name = "sessionAuth")
+    public ResponseEntity<TenantDeletionResult> delete(
+            @PathVariable UUID tenantId,
+            @RequestParam(defaultValue = "false") boolean cascade) {
+        return ResponseEntity.ok(tenantService.deleteTenant(tenantId, cascade));
+    }
+
+    @GetMapping("/{tenantId}/rollup")
+    @Operation(summary = "Subtree totals",
+               description = "Descendant, user and agent counts and used storage of a tenant and its whole subtree")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Subtree totals"),
+        @ApiResponse(responseCode = "404", description = "No rollup for this tenant")
+    })
+    @SecurityRequirement(name = "sessionAuth")
+    public ResponseEntity<TenantRollup> rollup(@PathVariable UUID tenantId) {
+        return ResponseEntity.of(rollupService.getRollup(tenantId));
+    }
+
+    @GetMapping("/{tenantId}/attributes")
+    @Operation(summary = "Tenant attributes",
+               description = "Billing address, settings and custom attributes of a tenant, not included in listings")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "JSON attributes of the tenant"),
+        @ApiResponse(responseCode = "404", description = "Unknown tenant")
+    })
+    @SecurityRequirement(name = "sessionAuth")
+    public ResponseEntity<TenantAttributes> attributes(@PathVariable UUID tenantId) {
+        return ResponseEntity.of(tenantService.findAttributes(tenantId));
+    }
+
+    @GetMapping("/{tenantId}/settings/effective")
+    @Operation(summary = "Effective settings",
+               description = "Own settings of a tenant merged with the settings inherited from its ancestors")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Effective settings keyed by category.key"),
+        @ApiResponse(responseCode = "400", description = "Unknown tenant")
+    })
+    @SecurityRequirement(name = "sessionAuth")
+    public ResponseEntity<Map<String, EffectiveTenantSetting>> effectiveSettings(@PathVariable UUID tenantId) {
+        return ResponseEntity.ok(settingService.getEffectiveSettings(tenantId));
+    }
+
+    @GetMapping("/{tenantId}/descendants")
+    @Operation(summary = "List descendants", description = "All descendants of a tenant, ordered by level then name")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "One page of descendants"),
+        @ApiResponse(responseCode = "400", description = "Unknown tenant, invalid cursor or page size")
+    })
+    @SecurityRequirement(name = "sessionAuth")
+    public ResponseEntity<KeysetPage<TenantSummary>> descendants(
+            @PathVariable UUID tenantId,
+            @Parameter(description = "Continuation token from the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(tenantService.findAllDescendants(tenantId, cursor, size, includeTotal));
+    }
+
+    @GetMapping("/{tenantId}/tree")
+    @Operation(summary = "Nested tenant tree",
+               description = "A tenant and its descendants as a nested tree, optionally limited to a number of levels")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Nested tree with a strong ETag"),
+        @ApiResponse(responseCode = "304", description = "Hierarchy unchanged since the If-None-Match tag"),
+        @ApiResponse(responseCode = "400", description = "Unknown tenant or negative depth")
+    })
+    @SecurityRequirement(name = "sessionAuth")
+    public ResponseEntity<TenantTreeItem> tree(
+            @PathVariable UUID tenantId,
+            @Parameter(description = "Number of levels below the tenant to include (all when omitted)")
+            @RequestParam(required = false) Integer depth,
+            WebRequest request) {
+        // Answered from the shared hierarchy version, without building the tree
+        String etag = tenantService.treeETag(tenantId, depth);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .body(tenantService.findTree(tenantId, depth));
+    }
+
+    @GetMapping("/{tenantId}/export")
+    @Operation(summary = "Export a branch",
+               description = "Stream a tenant and its whole subtree, parents before children, as NDJSON or CSV")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "One line per tenant, written incrementally"),
+        @ApiResponse(responseCode = "400", description = "Unknown tenant or format")
+    })
+    @SecurityRequirement(name = "sessionAuth")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable UUID tenantId,
+            @RequestParam(defaultValue = "NDJSON") TenantExportFormat format) {
+        // Resolve the tenant before the response is committed, so an unknown id is still a 400
+        Tenant tenant = tenantService.findById(tenantId)
+            .orElseThrow(() -> new IllegalArgumentException("Tenant not found: " + tenantId));
+
+        StreamingResponseBody body = out -> exportService.exportSubtree(tenantId, format, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("tenants-" + tenant.getSlug() + "." + format.getFileExtension())
+                .build().toString())
+            .body(body);
+    }
+}
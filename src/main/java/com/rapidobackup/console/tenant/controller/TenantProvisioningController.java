@@ -0,0 +1,69 @@
+package com.rapidobackup.console.tenant.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.rapidobackup.console.tenant.dto.TenantProvisioningRequest;
+import com.rapidobackup.console.tenant.dto.TenantProvisioningResult;
+import com.rapidobackup.console.tenant.service.TenantProvisioningService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+/**
+ * Bulk tenant provisioning for onboarding whole partner trees at once.
+ */
+@RestController
+@RequestMapping("/api/management/tenants")
+@Tag(name = "Tenant Provisioning", description = "Bulk creation of tenant hierarchies")
+public class TenantProvisioningController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantProvisioningController.class);
+
+    private final TenantProvisioningService provisioningService;
+
+    public TenantProvisioningController(TenantProvisioningService provisioningService) {
+        this.provisioningService = provisioningService;
+    }
+
+    @PostMapping("/bulk")
+    @Operation(
+        summary = "Provision a tenant tree",
+        description = "Create a nested tree or a flat parent-referenced list of tenants in one transaction. " +
+                      "Invalid nodes and their descendants are skipped and reported per node."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Provisioning report with one result per requested node",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = TenantProvisioningResult.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Validation error",
+            content = @Content(mediaType = "application/problem+json")
+        )
+    })
+    @SecurityRequirement(name = "sessionAuth")
+    public ResponseEntity<TenantProvisioningResult> provision(@Valid @RequestBody TenantProvisioningRequest request) {
+        logger.info("Bulk provisioning requested: {} top-level nodes under parent {}",
+            request.getTenants().size(), request.getParentId());
+
+        TenantProvisioningResult result = provisioningService.provision(request);
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,81 @@
+package com.rapidobackup.console.tenant.controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.rapidobackup.console.tenant.dto.TenantSettingBulkRequest;
+import com.rapidobackup.console.tenant.dto.TenantSettingQuery;
+import com.rapidobackup.console.tenant.dto.TenantSettingValue;
+import com.rapidobackup.console.tenant.service.TenantSettingService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+
+/**
+ * Bulk reads and writes of tenant settings, e.g. to configure a new customer at once.
+ */
+@RestController
+@RequestMapping("/api/management/tenants/settings")
+@Tag(name = "Tenant Settings", description = "Bulk tenant settings reads and writes")
+public class TenantSettingController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantSettingController.class);
+
+    private final TenantSettingService settingService;
+
+    public TenantSettingController(TenantSettingService settingService) {
+        this.settingService = settingService;
+    }
+
+    @PostMapping("/bulk")
+    @Operation(
+        summary = "Write settings in bulk",
+        description = "Create or replace settings of any number of tenants in one transaction. " +
+                      "The value type is derived from each JSON value."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Number of written settings"),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Validation error, unknown tenant or unsupported value",
+            content = @Content(mediaType = "application/problem+json")
+        )
+    })
+    @SecurityRequirement(name = "sessionAuth")
+    public ResponseEntity<Map<String, Integer>> upsert(@Valid @RequestBody TenantSettingBulkRequest request) {
+        logger.info("Bulk settings write requested: {} settings", request.getSettings().size());
+        return ResponseEntity.ok(Map.of("upserted", settingService.upsertSettings(request.getSettings())));
+    }
+
+    @PostMapping("/query")
+    @Operation(
+        summary = "Read settings in bulk",
+        description = "Own settings of a set of tenants, optionally of one category, with typed values"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Settings per requested tenant"),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Validation error",
+            content = @Content(mediaType = "application/problem+json")
+        )
+    })
+    @SecurityRequirement(name = "sessionAuth")
+    public ResponseEntity<Map<UUID, List<TenantSettingValue>>> query(@Valid @RequestBody TenantSettingQuery query) {
+        return ResponseEntity.ok(settingService.findSettings(query.getTenantIds(), query.getCategory()));
+    }
+}
@@ -0,0 +1,63 @@
+package com.rapidobackup.console.tenant.dto;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.rapidobackup.console.tenant.entity.SettingValueType;
+
+/**
+ * One resolved setting of a tenant: its own value, or the value inherited from the
+ * closest ancestor defining it.
+ *
+ * Immutable and serializable, so merged settings maps can be held in the distributed cache.
+ */
+public final class EffectiveTenantSetting implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String category;
+    private final String key;
+    private final SettingValueType valueType;
+    private final Serializable value;
+    private final boolean encrypted;
+    private final UUID sourceTenantId;
+    private final boolean inherited;
+
+    public EffectiveTenantSetting(TenantSettingValue setting, boolean inherited) {
+        this.category = setting.getCategory();
+        this.key = setting.getKey();
+        this.valueType = setting.getValueType();
+        // JSON values are copied: the mapped value is mutable and of unknown type
+        Object raw = setting.getValue();
+        this.value = raw instanceof Map<?, ?> map ? new LinkedHashMap<>(map) : (Serializable) raw;
+        this.encrypted = setting.isEncrypted();
+        this.sourceTenantId = setting.getTenantId();
+        this.inherited = inherited;
+    }
+
+    public String getCategory() { return category; }
+    public String getKey() { return key; }
+    public SettingValueType getValueType() { return valueType; }
+    public Object getValue() { return value; }
+    public boolean isEncrypted() { return encrypted; }
+
+    /**
+     * Tenant whose own setting provides the value.
+     */
+    public UUID getSourceTenantId() {
+        return sourceTenantId;
+    }
+
+    /**
+     * Whether the value comes from an ancestor rather than from the tenant itself.
+     */
+    public boolean isInherited() {
+        return inherited;
+    }
+
+    public String getFullKey() {
+        return category + "." + key;
+    }
+}
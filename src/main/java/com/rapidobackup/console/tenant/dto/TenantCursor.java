@@ -0,0 +1,56 @@
+package com.rapidobackup.console.tenant.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a tenant listing ordered by (level, name, id), exchanged with clients as an
+ * opaque continuation token.
+ */
+public final class TenantCursor {
+
+    /**
+     * Cursor positioned before every tenant (first page).
+     */
+    public static final TenantCursor START = new TenantCursor(-1, "", new UUID(0L, 0L));
+
+    private final int level;
+    private final String name;
+    private final UUID id;
+
+    public TenantCursor(int level, String name, UUID id) {
+        this.level = level;
+        this.name = name;
+        this.id = id;
+    }
+
+    public static TenantCursor after(TenantSummary tenant) {
+        return new TenantCursor(tenant.getLevel(), tenant.getName(), tenant.getId());
+    }
+
+    /**
+     * Decode a continuation token; a null or blank token means the first page.
+     */
+    public static TenantCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":", 3);
+            return new TenantCursor(Integer.parseInt(parts[0]), parts[2], UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = level + ":" + id + ":" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int getLevel() { return level; }
+    public String getName() { return name; }
+    public UUID getId() { return id; }
+}
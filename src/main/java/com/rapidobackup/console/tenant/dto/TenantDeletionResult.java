@@ -0,0 +1,40 @@
+package com.rapidobackup.console.tenant.dto;
+
+import java.util.UUID;
+
+/**
+ * Outcome of a (cascading) tenant soft delete.
+ */
+public class TenantDeletionResult {
+
+    private final UUID tenantId;
+    private final int deletedTenants;
+    private final int deletedUsers;
+    private final int deletedContacts;
+
+    public TenantDeletionResult(UUID tenantId, int deletedTenants, int deletedUsers, int deletedContacts) {
+        this.tenantId = tenantId;
+        this.deletedTenants = deletedTenants;
+        this.deletedUsers = deletedUsers;
+        this.deletedContacts = deletedContacts;
+    }
+
+    public UUID getTenantId() {
+        return tenantId;
+    }
+
+    /**
+     * Number of tenants deleted, including the requested tenant itself.
+     */
+    public int getDeletedTenants() {
+        return deletedTenants;
+    }
+
+    public int getDeletedUsers() {
+        return deletedUsers;
+    }
+
+    public int getDeletedContacts() {
+        return deletedContacts;
+    }
+}
@@ -0,0 +1,64 @@
+package com.rapidobackup.console.tenant.dto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Filter on the JSONB {@code custom_attributes} and {@code settings} columns of tenants.
+ *
+ * {@code customAttributes} and {@code settings} are containment documents: a tenant matches
+ * when its column contains them ({@code @>}), e.g. {@code {"region": "eu"}}. All criteria
+ * must hold; {@code parentId} restricts the filter to the descendants of a tenant.
+ */
+public class TenantJsonFilter {
+
+    private Map<String, Object> customAttributes = new HashMap<>();
+
+    private Map<String, Object> settings = new HashMap<>();
+
+    @Valid
+    @Size(max = 20)
+    private List<TenantJsonPredicate> predicates = new ArrayList<>();
+
+    private UUID parentId;
+
+    public TenantJsonFilter() {}
+
+    public Map<String, Object> getCustomAttributes() {
+        return customAttributes;
+    }
+
+    public void setCustomAttributes(Map<String, Object> customAttributes) {
+        this.customAttributes = customAttributes != null ? customAttributes : new HashMap<>();
+    }
+
+    public Map<String, Object> getSettings() {
+        return settings;
+    }
+
+    public void setSettings(Map<String, Object> settings) {
+        this.settings = settings != null ? settings : new HashMap<>();
+    }
+
+    public List<TenantJsonPredicate> getPredicates() {
+        return predicates;
+    }
+
+    public void setPredicates(List<TenantJsonPredicate> predicates) {
+        this.predicates = predicates != null ? predicates : new ArrayList<>();
+    }
+
+    public UUID getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(UUID parentId) {
+        this.parentId = parentId;
+    }
+}
@@ -0,0 +1,65 @@
+package com.rapidobackup.console.tenant.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Key/value predicate on a JSONB column of tenants.
+ *
+ * {@code path} names a key, nested keys separated by dots ({@code contract.tier}). The
+ * predicate matches when the key holds any of {@code values}, or, when no value is given,
+ * when the key exists. Values are JSON scalars (string, number, boolean).
+ */
+public class TenantJsonPredicate {
+
+    public enum Column {
+        CUSTOM_ATTRIBUTES,
+        SETTINGS
+    }
+
+    @NotNull
+    private Column column;
+
+    @NotBlank
+    @Size(max = 255)
+    private String path;
+
+    @Size(max = 100)
+    private List<Object> values = new ArrayList<>();
+
+    public TenantJsonPredicate() {}
+
+    public TenantJsonPredicate(Column column, String path, List<Object> values) {
+        this.column = column;
+        this.path = path;
+        setValues(values);
+    }
+
+    public Column getColumn() {
+        return column;
+    }
+
+    public void setColumn(Column column) {
+        this.column = column;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public List<Object> getValues() {
+        return values;
+    }
+
+    public void setValues(List<Object> values) {
+        this.values = values != null ? new ArrayList<>(values) : new ArrayList<>();
+    }
+}
@@ -0,0 +1,114 @@
+package com.rapidobackup.console.tenant.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.rapidobackup.console.tenant.entity.TenantType;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+
+/**
+ * One tenant of a bulk provisioning request.
+ *
+ * The parent is resolved in this order: {@code parentRef} (another node of the same request),
+ * {@code parentId} (an existing tenant), the enclosing node when nested, then the request's
+ * {@code parentId}.
+ */
+public class TenantProvisioningNode {
+
+    @Size(max = 100)
+    private String ref;
+
+    @Size(max = 100)
+    private String parentRef;
+
+    private UUID parentId;
+
+    @Size(max = 255)
+    private String name;
+
+    @Size(max = 255)
+    private String displayName;
+
+    private TenantType tenantType;
+
+    @Size(max = 255)
+    private String externalId;
+
+    @Valid
+    private List<TenantProvisioningNode> children = new ArrayList<>();
+
+    public TenantProvisioningNode() {}
+
+    public TenantProvisioningNode(String ref, String name, TenantType tenantType) {
+        this.ref = ref;
+        this.name = name;
+        this.tenantType = tenantType;
+    }
+
+    public String getRef() {
+        return ref;
+    }
+
+    public void setRef(String ref) {
+        this.ref = ref;
+    }
+
+    public String getParentRef() {
+        return parentRef;
+    }
+
+    public void setParentRef(String parentRef) {
+        this.parentRef = parentRef;
+    }
+
+    public UUID getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(UUID parentId) {
+        this.parentId = parentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public TenantType getTenantType() {
+        return tenantType;
+    }
+
+    public void setTenantType(TenantType tenantType) {
+        this.tenantType = tenantType;
+    }
+
+    public String getExternalId() {
+        return externalId;
+    }
+
+    public void setExternalId(String externalId) {
+        this.externalId = externalId;
+    }
+
+    public List<TenantProvisioningNode> getChildren() {
+        return children;
+    }
+
+    public void setChildren(List<TenantProvisioningNode> children) {
+        this.children = children != null ? children : new ArrayList<>();
+    }
+}
@@ -0,0 +1,43 @@
+package com.rapidobackup.console.tenant.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+/**
+ * Bulk provisioning request for a whole tree of tenants.
+ *
+ * Nodes can be given as a nested tree (through {@link TenantProvisioningNode#getChildren()}),
+ * as a flat list referencing each other through {@code ref}/{@code parentRef}, or a mix of both.
+ * Top-level nodes without a parent reference are attached under {@code parentId}, or created
+ * as roots when it is null.
+ */
+public class TenantProvisioningRequest {
+
+    private UUID parentId;
+
+    @NotEmpty
+    @Valid
+    private List<TenantProvisioningNode> tenants = new ArrayList<>();
+
+    public TenantProvisioningRequest() {}
+
+    public UUID getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(UUID parentId) {
+        this.parentId = parentId;
+    }
+
+    public List<TenantProvisioningNode> getTenants() {
+        return tenants;
+    }
+
+    public void setTenants(List<TenantProvisioningNode> tenants) {
+        this.tenants = tenants != null ? tenants : new ArrayList<>();
+    }
+}
@@ -0,0 +1,84 @@
+package com.rapidobackup.console.tenant.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a bulk provisioning request, with one entry per requested node.
+ */
+public class TenantProvisioningResult {
+
+    private int createdCount;
+    private int failedCount;
+    private long durationMs;
+    private List<NodeResult> results = new ArrayList<>();
+
+    public TenantProvisioningResult() {}
+
+    public int getCreatedCount() {
+        return createdCount;
+    }
+
+    public void setCreatedCount(int createdCount) {
+        this.createdCount = createdCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(int failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public List<NodeResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<NodeResult> results) {
+        this.results = results;
+    }
+
+    /**
+     * Result of a single node: the assigned id, slug and path, or the reason it was rejected.
+     */
+    public static class NodeResult {
+        private final String ref;
+        private final UUID id;
+        private final String slug;
+        private final String path;
+        private final String error;
+
+        private NodeResult(String ref, UUID id, String slug, String path, String error) {
+            this.ref = ref;
+            this.id = id;
+            this.slug = slug;
+            this.path = path;
+            this.error = error;
+        }
+
+        public static NodeResult created(String ref, UUID id, String slug, String path) {
+            return new NodeResult(ref, id, slug, path, null);
+        }
+
+        public static NodeResult failed(String ref, String error) {
+            return new NodeResult(ref, null, null, null, error);
+        }
+
+        public String getRef() { return ref; }
+        public UUID getId() { return id; }
+        public String getSlug() { return slug; }
+        public String getPath() { return path; }
+        public String getError() { return error; }
+        public boolean isCreated() { return error == null; }
+    }
+}
@@ -0,0 +1,29 @@
+package com.rapidobackup.console.tenant.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Bulk settings write: settings of any number of tenants, created or replaced in one transaction.
+ */
+public class TenantSettingBulkRequest {
+
+    @NotEmpty
+    @Size(max = 50_000)
+    @Valid
+    private List<TenantSettingUpsert> settings = new ArrayList<>();
+
+    public TenantSettingBulkRequest() {}
+
+    public List<TenantSettingUpsert> getSettings() {
+        return settings;
+    }
+
+    public void setSettings(List<TenantSettingUpsert> settings) {
+        this.settings = settings != null ? settings : new ArrayList<>();
+    }
+}
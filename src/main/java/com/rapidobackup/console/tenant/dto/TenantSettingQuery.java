@@ -0,0 +1,39 @@
+package com.rapidobackup.console.tenant.dto;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Bulk settings read: the own settings of a set of tenants, optionally restricted to one category.
+ */
+public class TenantSettingQuery {
+
+    @NotEmpty
+    @Size(max = 10_000)
+    private Set<UUID> tenantIds = new LinkedHashSet<>();
+
+    @Size(max = 50)
+    private String category;
+
+    public TenantSettingQuery() {}
+
+    public Set<UUID> getTenantIds() {
+        return tenantIds;
+    }
+
+    public void setTenantIds(Set<UUID> tenantIds) {
+        this.tenantIds = tenantIds != null ? tenantIds : new LinkedHashSet<>();
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+}
@@ -0,0 +1,83 @@
+package com.rapidobackup.console.tenant.dto;
+
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * One setting of a bulk settings write.
+ *
+ * The value type is derived from the value: String, number, boolean or JSON object.
+ */
+public class TenantSettingUpsert {
+
+    @NotNull
+    private UUID tenantId;
+
+    @NotBlank
+    @Size(max = 50)
+    private String category;
+
+    @NotBlank
+    @Size(max = 100)
+    private String key;
+
+    private Object value;
+
+    private boolean inherited;
+
+    public TenantSettingUpsert() {}
+
+    public TenantSettingUpsert(UUID tenantId, String category, String key, Object value, boolean inherited) {
+        this.tenantId = tenantId;
+        this.category = category;
+        this.key = key;
+        this.value = value;
+        this.inherited = inherited;
+    }
+
+    public UUID getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(UUID tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public void setValue(Object value) {
+        this.value = value;
+    }
+
+    /**
+     * Whether descendants inherit the setting unless they override it.
+     */
+    public boolean isInherited() {
+        return inherited;
+    }
+
+    public void setInherited(boolean inherited) {
+        this.inherited = inherited;
+    }
+}
@@ -0,0 +1,78 @@
+package com.rapidobackup.console.tenant.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import com.rapidobackup.console.tenant.entity.SettingValueType;
+
+/**
+ * Read-only, typed view of one stored tenant setting.
+ *
+ * Exposes the polymorphic value columns through {@link #getValue()} and typed accessors
+ * that return null unless the setting has the matching {@link SettingValueType}.
+ */
+public final class TenantSettingValue {
+
+    private final UUID tenantId;
+    private final String category;
+    private final String key;
+    private final SettingValueType valueType;
+    private final String stringValue;
+    private final BigDecimal numberValue;
+    private final Boolean booleanValue;
+    private final Map<String, Object> jsonValue;
+    private final boolean inherited;
+    private final boolean encrypted;
+
+    public TenantSettingValue(UUID tenantId, String category, String key, SettingValueType valueType,
+                              String stringValue, BigDecimal numberValue, Boolean booleanValue,
+                              Map<String, Object> jsonValue, Boolean inherited, Boolean encrypted) {
+        this.tenantId = tenantId;
+        this.category = category;
+        this.key = key;
+        this.valueType = valueType;
+        this.stringValue = stringValue;
+        this.numberValue = numberValue;
+        this.booleanValue = booleanValue;
+        this.jsonValue = jsonValue;
+        this.inherited = Boolean.TRUE.equals(inherited);
+        this.encrypted = Boolean.TRUE.equals(encrypted);
+    }
+
+    public UUID getTenantId() { return tenantId; }
+    public String getCategory() { return category; }
+    public String getKey() { return key; }
+    public SettingValueType getValueType() { return valueType; }
+    public boolean isInherited() { return inherited; }
+    public boolean isEncrypted() { return encrypted; }
+
+    public Object getValue() {
+        return switch (valueType) {
+            case STRING -> stringValue;
+            case NUMBER -> numberValue;
+            case BOOLEAN -> booleanValue;
+            case JSON -> jsonValue;
+        };
+    }
+
+    public String getStringValue() {
+        return valueType == SettingValueType.STRING ? stringValue : null;
+    }
+
+    public BigDecimal getNumberValue() {
+        return valueType == SettingValueType.NUMBER ? numberValue : null;
+    }
+
+    public Boolean getBooleanValue() {
+        return valueType == SettingValueType.BOOLEAN ? booleanValue : null;
+    }
+
+    public Map<String, Object> getJsonValue() {
+        return valueType == SettingValueType.JSON ? jsonValue : null;
+    }
+
+    public String getFullKey() {
+        return category + "." + key;
+    }
+}
@@ -0,0 +1,55 @@
+package com.rapidobackup.console.tenant.dto;
+
+import java.util.UUID;
+
+import com.rapidobackup.console.tenant.entity.TenantStatus;
+import com.rapidobackup.console.tenant.entity.TenantType;
+
+/**
+ * Lightweight, read-only row of a tenant listing or search.
+ *
+ * Selected column by column with JPQL constructor expressions, so listings never load
+ * {@code Tenant} entities into the persistence context; the full entity is reserved for
+ * edit screens. {@code childCount} comes from the in-memory tree index.
+ */
+public class TenantSummary {
+
+    private final UUID id;
+    private final UUID parentId;
+    private final String name;
+    private final String displayName;
+    private final String slug;
+    private final TenantType tenantType;
+    private final TenantStatus status;
+    private final int level;
+    private int childCount;
+
+    public TenantSummary(UUID id, UUID parentId, String name, String displayName, String slug,
+                         TenantType tenantType, TenantStatus status, Integer level) {
+        this.id = id;
+        this.parentId = parentId;
+        this.name = name;
+        this.displayName = displayName;
+        this.slug = slug;
+        this.tenantType = tenantType;
+        this.status = status;
+        this.level = level != null ? level : 0;
+    }
+
+    public UUID getId() { return id; }
+    public UUID getParentId() { return parentId; }
+    public String getName() { return name; }
+    public String getDisplayName() { return displayName; }
+    public String getSlug() { return slug; }
+    public TenantType getTenantType() { return tenantType; }
+    public TenantStatus getStatus() { return status; }
+    public int getLevel() { return level; }
+
+    public int getChildCount() {
+        return childCount;
+    }
+
+    public void setChildCount(int childCount) {
+        this.childCount = childCount;
+    }
+}
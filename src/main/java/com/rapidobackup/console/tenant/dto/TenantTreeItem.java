@@ -0,0 +1,58 @@
+package com.rapidobackup.console.tenant.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.rapidobackup.console.tenant.entity.TenantStatus;
+import com.rapidobackup.console.tenant.entity.TenantType;
+
+/**
+ * One tenant of a nested tree response, with its children.
+ *
+ * In a depth-limited tree, tenants at the last included level have no {@code children}
+ * but still report their {@code childCount}, so clients know whether they can be expanded.
+ */
+public class TenantTreeItem {
+
+    private final UUID id;
+    private final UUID parentId;
+    private final String name;
+    private final String displayName;
+    private final String slug;
+    private final int level;
+    private final TenantType tenantType;
+    private final TenantStatus status;
+    private final List<TenantTreeItem> children = new ArrayList<>();
+    private int childCount;
+
+    public TenantTreeItem(UUID id, UUID parentId, String name, String displayName, String slug, Integer level,
+                          TenantType tenantType, TenantStatus status) {
+        this.id = id;
+        this.parentId = parentId;
+        this.name = name;
+        this.displayName = displayName;
+        this.slug = slug;
+        this.level = level != null ? level : 0;
+        this.tenantType = tenantType;
+        this.status = status;
+    }
+
+    public UUID getId() { return id; }
+    public UUID getParentId() { return parentId; }
+    public String getName() { return name; }
+    public String getDisplayName() { return displayName; }
+    public String getSlug() { return slug; }
+    public int getLevel() { return level; }
+    public TenantType getTenantType() { return tenantType; }
+    public TenantStatus getStatus() { return status; }
+    public List<TenantTreeItem> getChildren() { return children; }
+
+    public int getChildCount() {
+        return childCount;
+    }
+
+    public void setChildCount(int childCount) {
+        this.childCount = childCount;
+    }
+}
@@ -0,0 +1,72 @@
+package com.rapidobackup.console.tenant.dto;
+
+import java.util.UUID;
+
+import com.rapidobackup.console.tenant.entity.Tenant;
+import com.rapidobackup.console.tenant.entity.TenantStatus;
+import com.rapidobackup.console.tenant.entity.TenantType;
+
+/**
+ * Compact, immutable view of a tenant's position in the hierarchy.
+ *
+ * Holds only the columns needed to navigate the tree (id, parent, level, path,
+ * status and type) plus the slug, which scoped cache invalidation uses as a key,
+ * so that the whole hierarchy can be kept in memory without loading full
+ * {@link Tenant} entities.
+ */
+public final class TenantTreeNode {
+
+    private final UUID id;
+    private final UUID parentId;
+    private final int level;
+    private final String path;
+    private final String slug;
+    private final TenantStatus status;
+    private final TenantType tenantType;
+
+    public TenantTreeNode(UUID id, UUID parentId, Integer level, String path, String slug,
+                          TenantStatus status, TenantType tenantType) {
+        this.id = id;
+        this.parentId = parentId;
+        this.level = level != null ? level : 0;
+        this.path = path;
+        this.slug = slug;
+        this.status = status;
+        this.tenantType = tenantType;
+    }
+
+    public UUID getId() { return id; }
+    public UUID getParentId() { return parentId; }
+    public int getLevel() { return level; }
+    public String getPath() { return path; }
+    public String getSlug() { return slug; }
+    public TenantStatus getStatus() { return status; }
+    public TenantType getTenantType() { return tenantType; }
+
+    public boolean isRoot() {
+        return parentId == null;
+    }
+
+    /**
+     * Last segment of the materialized path (the tenant's own immutable path key).
+     */
+    public String getPathKey() {
+        int separator = path.lastIndexOf(Tenant.PATH_SEPARATOR);
+        return separator >= 0 ? path.substring(separator + 1) : path;
+    }
+
+    public TenantTreeNode withPosition(UUID newParentId, int newLevel, String newPath) {
+        return new TenantTreeNode(id, newParentId, newLevel, newPath, slug, status, tenantType);
+    }
+
+    @Override
+    public String toString() {
+        return "TenantTreeNode{" +
+            "id=" + id +
+            ", parentId=" + parentId +
+            ", level=" + level +
+            ", path='" + path + '\'' +
+            ", status=" + status +
+            '}';
+    }
+}
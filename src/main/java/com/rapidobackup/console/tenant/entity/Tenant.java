@@ -2,16 +2,14 @@ package com.rapidobackup.console.tenant.entity;
 
 import java.math.BigInteger;
 import java.time.Instant;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
-import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
-import org.hibernate.type.SqlTypes;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.rapidobackup.console.contact.entity.Contact;
@@ -30,6 +28,7 @@ import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -39,9 +38,10 @@ import jakarta.validation.constraints.Size;
 @Entity
 @Table(name = "tenants", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"slug"}),
+    @UniqueConstraint(columnNames = {"path_key"}),
     @UniqueConstraint(columnNames = {"external_id"})
 })
-@SQLDelete(sql = "UPDATE tenants SET deleted_at = CURRENT_TIMESTAMP WHERE id = ?")
+@SQLDelete(sql = "UPDATE tenants SET deleted_at = CURRENT_TIMESTAMP, version = version + 1 WHERE id = ? AND version = ?")
 @SQLRestriction("deleted_at IS NULL")
 public class Tenant {
 
@@ -93,6 +93,11 @@ public class Tenant {
     @Column(name = "path")
     private String path;
 
+    // Immutable key of this tenant in materialized paths, allocated from tenant_path_key_seq
+    @Size(max = 32)
+    @Column(name = "path_key", unique = true, nullable = false, updatable = false)
+    private String pathKey;
+
     // Classification
     @NotNull
     @Enumerated(EnumType.STRING)
@@ -144,10 +149,6 @@ public class Tenant {
     @Column(name = "billing_contact_email")
     private String billingContactEmail;
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "billing_address", columnDefinition = "jsonb")
-    private Map<String, Object> billingAddress = new HashMap<>();
-
     @Size(max = 100)
     @Column(name = "contract_number")
     private String contractNumber;
@@ -168,14 +169,8 @@ public class Tenant {
     @Column(name = "suspension_reason", columnDefinition = "text")
     private String suspensionReason;
 
-    // Metadata
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "settings", columnDefinition = "jsonb")
-    private Map<String, Object> settings = new HashMap<>();
-
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "custom_attributes", columnDefinition = "jsonb")
-    private Map<String, Object> customAttributes = new HashMap<>();
+    // The JSONB columns (billing_address, settings, custom_attributes) are mapped by
+    // TenantAttributes and only fetched on demand, so listings and cached tenants skip them
 
     // Timestamps
     @Column(name = "created_at", nullable = false)
@@ -193,6 +188,11 @@ public class Tenant {
     @Column(name = "deleted_at")
     private Instant deletedAt;
 
+    // Optimistic locking: concurrent writers of the same tenant fail instead of overwriting each other
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public Tenant() {}
     public Tenant(String name, String slug, TenantType tenantType) {
         this.name = name;
@@ -223,12 +223,16 @@ public class Tenant {
         updatePath();
     }
 
+    /**
+     * Paths are built from path keys, never from slugs, so renaming a tenant leaves
+     * every path in its subtree untouched.
+     */
     private void updatePath() {
         if (parent == null) {
-            this.path = slug;
+            this.path = pathKey;
             this.level = 0;
         } else {
-            this.path = parent.getPath() + PATH_SEPARATOR + slug;
+            this.path = parent.getPath() + PATH_SEPARATOR + pathKey;
             this.level = parent.getLevel() + 1;
         }
     }
@@ -242,6 +246,20 @@ public class Tenant {
         return parent != null;
     }
 
+    /**
+     * Paths of every ancestor encoded in a materialized path, root first.
+     * For "000001/00000a/00000b" this returns ["000001", "000001/00000a"].
+     */
+    public static List<String> ancestorPaths(String path) {
+        List<String> paths = new ArrayList<>();
+        int end = path.indexOf(PATH_SEPARATOR);
+        while (end >= 0) {
+            paths.add(path.substring(0, end));
+            end = path.indexOf(PATH_SEPARATOR, end + PATH_SEPARATOR.length());
+        }
+        return paths;
+    }
+
     public String getFullName() {
         if (displayName != null && !displayName.equals(name)) {
             return displayName;
@@ -342,6 +360,14 @@ public class Tenant {
         this.path = path;
     }
 
+    public String getPathKey() {
+        return pathKey;
+    }
+
+    public void setPathKey(String pathKey) {
+        this.pathKey = pathKey;
+    }
+
     public TenantType getTenantType() {
         return tenantType;
     }
@@ -438,14 +464,6 @@ public class Tenant {
         this.billingContactEmail = billingContactEmail;
     }
 
-    public Map<String, Object> getBillingAddress() {
-        return billingAddress;
-    }
-
-    public void setBillingAddress(Map<String, Object> billingAddress) {
-        this.billingAddress = billingAddress;
-    }
-
     public String getContractNumber() {
         return contractNumber;
     }
@@ -486,22 +504,6 @@ public class Tenant {
         this.suspensionReason = suspensionReason;
     }
 
-    public Map<String, Object> getSettings() {
-        return settings;
-    }
-
-    public void setSettings(Map<String, Object> settings) {
-        this.settings = settings;
-    }
-
-    public Map<String, Object> getCustomAttributes() {
-        return customAttributes;
-    }
-
-    public void setCustomAttributes(Map<String, Object> customAttributes) {
-        this.customAttributes = customAttributes;
-    }
-
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -542,6 +544,10 @@ public class Tenant {
         this.deletedAt = deletedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
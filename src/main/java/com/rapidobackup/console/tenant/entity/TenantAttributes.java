@@ -0,0 +1,109 @@
+package com.rapidobackup.console.tenant.entity;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+/**
+ * JSONB attributes of a tenant (billing address, settings, custom attributes).
+ *
+ * Mapped on the {@code tenants} row, next to {@link Tenant}, which does not map these
+ * columns: hierarchy listings, searches and cached tenants never deserialize them, and
+ * edit screens fetch them separately. Rows are only ever created through {@link Tenant};
+ * this entity is read and updated, never inserted. It shares the tenant's optimistic
+ * version, so attribute and tenant edits cannot overwrite each other.
+ */
+@Entity
+@Table(name = "tenants")
+@SQLRestriction("deleted_at IS NULL")
+public class TenantAttributes {
+
+    @Id
+    private UUID id;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "billing_address", columnDefinition = "jsonb")
+    private Map<String, Object> billingAddress = new HashMap<>();
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "settings", columnDefinition = "jsonb")
+    private Map<String, Object> settings = new HashMap<>();
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "custom_attributes", columnDefinition = "jsonb")
+    private Map<String, Object> customAttributes = new HashMap<>();
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    protected TenantAttributes() {}
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Map<String, Object> getBillingAddress() {
+        return billingAddress != null ? billingAddress : new HashMap<>();
+    }
+
+    public void setBillingAddress(Map<String, Object> billingAddress) {
+        this.billingAddress = billingAddress != null ? billingAddress : new HashMap<>();
+    }
+
+    public Map<String, Object> getSettings() {
+        return settings != null ? settings : new HashMap<>();
+    }
+
+    public void setSettings(Map<String, Object> settings) {
+        this.settings = settings != null ? settings : new HashMap<>();
+    }
+
+    public Map<String, Object> getCustomAttributes() {
+        return customAttributes != null ? customAttributes : new HashMap<>();
+    }
+
+    public void setCustomAttributes(Map<String, Object> customAttributes) {
+        this.customAttributes = customAttributes != null ? customAttributes : new HashMap<>();
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TenantAttributes)) return false;
+        return id != null && id.equals(((TenantAttributes) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,86 @@
+package com.rapidobackup.console.tenant.entity;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Subtree totals of a tenant: the tenant itself plus all of its descendants.
+ *
+ * Rows are maintained incrementally with atomic {@code col = col + delta} updates on the
+ * tenant and its ancestors, and repaired by {@code TenantRollupReconciler}. They are never
+ * written through this entity.
+ */
+@Entity
+@Table(name = "tenant_rollups")
+public class TenantRollup {
+
+    @Id
+    @Column(name = "tenant_id")
+    private UUID tenantId;
+
+    @Column(name = "descendant_count", nullable = false)
+    private long descendantCount;
+
+    @Column(name = "user_count", nullable = false)
+    private long userCount;
+
+    @Column(name = "agent_count", nullable = false)
+    private long agentCount;
+
+    @Column(name = "used_storage_gb", nullable = false)
+    private long usedStorageGb;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public TenantRollup() {
+    }
+
+    public TenantRollup(UUID tenantId, long descendantCount, long userCount, long agentCount, long usedStorageGb) {
+        this.tenantId = tenantId;
+        this.descendantCount = descendantCount;
+        this.userCount = userCount;
+        this.agentCount = agentCount;
+        this.usedStorageGb = usedStorageGb;
+    }
+
+    public UUID getTenantId() {
+        return tenantId;
+    }
+
+    public long getDescendantCount() {
+        return descendantCount;
+    }
+
+    public long getUserCount() {
+        return userCount;
+    }
+
+    public long getAgentCount() {
+        return agentCount;
+    }
+
+    public long getUsedStorageGb() {
+        return usedStorageGb;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "TenantRollup{" +
+            "tenantId=" + tenantId +
+            ", descendantCount=" + descendantCount +
+            ", userCount=" + userCount +
+            ", agentCount=" + agentCount +
+            ", usedStorageGb=" + usedStorageGb +
+            '}';
+    }
+}
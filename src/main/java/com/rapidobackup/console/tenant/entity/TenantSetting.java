@@ -28,7 +28,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "tenant_settings", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"tenant_id", "category", "key"})
+    @UniqueConstraint(columnNames = {"tenant_id", "category", "setting_key"})
 })
 public class TenantSetting {
 
@@ -50,7 +50,7 @@ public class TenantSetting {
 
     @NotBlank
     @Size(max = 100)
-    @Column(name = "key", nullable = false)
+    @Column(name = "setting_key", nullable = false)
     private String key;
 
     // Valeur polymorphe
@@ -79,6 +79,7 @@ public class TenantSetting {
     @Column(name = "is_encrypted")
     private Boolean isEncrypted = false;
 
+    // Inherited by descendants that do not define the same (category, key)
     @Column(name = "is_inherited")
     private Boolean isInherited = false;
 
@@ -154,6 +155,26 @@ public class TenantSetting {
         this.booleanValue = null;
     }
 
+    /**
+     * Set a value of any supported type: String, Number, Boolean or Map (JSON).
+     */
+    @SuppressWarnings("unchecked")
+    public void setValue(Object value) {
+        if (value == null || value instanceof String) {
+            setStringValue((String) value);
+        } else if (value instanceof BigDecimal number) {
+            setNumberValue(number);
+        } else if (value instanceof Number number) {
+            setNumberValue(new BigDecimal(number.toString()));
+        } else if (value instanceof Boolean bool) {
+            setBooleanValue(bool);
+        } else if (value instanceof Map<?, ?> map) {
+            setJsonValue((Map<String, Object>) map);
+        } else {
+            throw new IllegalArgumentException("Unsupported setting value type: " + value.getClass().getSimpleName());
+        }
+    }
+
     // Helper methods for type-safe value getting
     public Object getValue() {
         return switch (valueType) {
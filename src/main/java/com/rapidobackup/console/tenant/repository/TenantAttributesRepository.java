@@ -0,0 +1,14 @@
+package com.rapidobackup.console.tenant.repository;
+
+import com.rapidobackup.console.tenant.entity.TenantAttributes;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Repository for the JSONB attributes of tenants, fetched separately from {@code Tenant}.
+ */
+@Repository
+public interface TenantAttributesRepository extends JpaRepository<TenantAttributes, UUID> {
+}
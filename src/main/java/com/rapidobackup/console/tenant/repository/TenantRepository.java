@@ -1,18 +1,28 @@
 package com.rapidobackup.console.tenant.repository;
 
+import com.rapidobackup.console.tenant.dto.TenantSummary;
+import com.rapidobackup.console.tenant.dto.TenantTreeItem;
+import com.rapidobackup.console.tenant.dto.TenantTreeNode;
 import com.rapidobackup.console.tenant.entity.Tenant;
 import com.rapidobackup.console.tenant.entity.TenantStatus;
 import com.rapidobackup.console.tenant.entity.TenantType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository for managing tenant hierarchy using the Materialized Path pattern.
@@ -23,12 +33,28 @@ import java.util.UUID;
  * Key design decisions:
  * - Uses "/" as path separator for better readability and conflict avoidance
  * - Leverages varchar_pattern_ops indexes for efficient LIKE queries
- * - Supports up to 5 levels of hierarchy for reasonable performance
+ * - Builds paths from immutable, fixed-width path keys, keeping prefixes short
+ * - Supports a configurable hierarchy depth (5 levels by default)
  * - Includes parent_id for direct parent-child navigation
  */
 @Repository
 public interface TenantRepository extends JpaRepository<Tenant, UUID> {
 
+    /**
+     * Seek predicate for listings ordered by (level, name, id): only rows strictly after the
+     * cursor are returned, so every page is an index range scan instead of an OFFSET skip.
+     * The row-value comparison is what lets PostgreSQL seek on the (level, name, id) index;
+     * the equivalent OR expansion is only applied as a filter.
+     */
+    String KEYSET_AFTER = "(t.level, t.name, t.id) > (:cursorLevel, :cursorName, :cursorId)";
+
+    /**
+     * Listing projection: only the columns shown in listings, no managed entities.
+     */
+    String SUMMARY_SELECT = "SELECT new com.rapidobackup.console.tenant.dto.TenantSummary(t.id, p.id, t.name, " +
+                            "t.displayName, t.slug, t.tenantType, t.status, t.level) FROM Tenant t LEFT JOIN t.parent p ";
+
+
     // === Basic finders ===
 
     /**
@@ -52,6 +78,53 @@ public interface TenantRepository extends JpaRepository<Tenant, UUID> {
     @Query("SELECT COUNT(t) > 0 FROM Tenant t WHERE t.slug = :slug AND t.id != :excludeId")
     boolean existsBySlugAndIdNot(@Param("slug") String slug, @Param("excludeId") UUID excludeId);
 
+    /**
+     * Find every slug (including soft-deleted tenants, which still hold the unique constraint)
+     * that equals one of the base slugs or starts with one of the "base-" patterns.
+     */
+    @Query(value = "SELECT slug FROM tenants WHERE slug IN (:baseSlugs) OR slug LIKE ANY (ARRAY[:slugPatterns])",
+           nativeQuery = true)
+    List<String> findSlugsMatchingBases(@Param("baseSlugs") Collection<String> baseSlugs,
+                                        @Param("slugPatterns") Collection<String> slugPatterns);
+
+    /**
+     * Find which of the given external ids are already used (including soft-deleted tenants).
+     */
+    @Query(value = "SELECT external_id FROM tenants WHERE external_id IN (:externalIds)", nativeQuery = true)
+    List<String> findExistingExternalIds(@Param("externalIds") Collection<String> externalIds);
+
+    /**
+     * Take transaction-scoped advisory locks on the given root slugs, serializing concurrent
+     * creators of slugs sharing a root until commit. Roots should be passed in a stable order.
+     */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(hashtext('tenant-slug'), hashtext(b)) FROM unnest(ARRAY[:baseSlugs]) AS b) AS locks",
+           nativeQuery = true)
+    long lockSlugBases(@Param("baseSlugs") Collection<String> baseSlugs);
+
+    /**
+     * Try to take transaction-scoped exclusive advisory locks on the given branches (path keys),
+     * without waiting. Every lock is attempted.
+     *
+     * @return the number of locks that are held by another transaction
+     */
+    @Query(value = "SELECT COUNT(*) FROM unnest(ARRAY[:pathKeys]) AS k WHERE NOT pg_try_advisory_xact_lock(hashtext('tenant-branch'), hashtext(k))",
+           nativeQuery = true)
+    long tryLockBranches(@Param("pathKeys") Collection<String> pathKeys);
+
+    /**
+     * Shared counterpart of {@link #tryLockBranches}: shared locks are compatible with each other.
+     */
+    @Query(value = "SELECT COUNT(*) FROM unnest(ARRAY[:pathKeys]) AS k WHERE NOT pg_try_advisory_xact_lock_shared(hashtext('tenant-branch'), hashtext(k))",
+           nativeQuery = true)
+    long tryLockBranchesShared(@Param("pathKeys") Collection<String> pathKeys);
+
+    /**
+     * Allocate immutable path keys (fixed-width base-36 values from {@code tenant_path_key_seq}).
+     */
+    @Query(value = "SELECT tenant_path_key(nextval('tenant_path_key_seq')) FROM generate_series(1, :count)",
+           nativeQuery = true)
+    List<String> allocatePathKeys(@Param("count") int count);
+
     // === Hierarchy navigation ===
 
     /**
@@ -79,10 +152,17 @@ public interface TenantRepository extends JpaRepository<Tenant, UUID> {
     List<Tenant> findAllDescendants(@Param("pathPrefix") String pathPrefix);
 
     /**
-     * Find all descendants with pagination.
+     * Find the next page of descendant summaries after a keyset cursor (see {@link #KEYSET_AFTER}).
+     * The pageable only carries the page size; it must always request page 0.
      */
-    @Query("SELECT t FROM Tenant t WHERE t.path LIKE :pathPrefix ORDER BY t.level, t.name")
-    Page<Tenant> findAllDescendants(@Param("pathPrefix") String pathPrefix, Pageable pageable);
+    @Query(SUMMARY_SELECT + "WHERE t.path LIKE :pathPrefix AND " + KEYSET_AFTER + " ORDER BY t.level, t.name, t.id")
+    List<TenantSummary> findDescendantsAfter(
+        @Param("pathPrefix") String pathPrefix,
+        @Param("cursorLevel") int cursorLevel,
+        @Param("cursorName") String cursorName,
+        @Param("cursorId") UUID cursorId,
+        Pageable pageable
+    );
 
     /**
      * Find all active descendants.
@@ -92,10 +172,36 @@ public interface TenantRepository extends JpaRepository<Tenant, UUID> {
 
     /**
      * Find all ancestors (parent, grandparent, etc.) of a tenant.
-     * Uses reverse LIKE to find all paths that the current path starts with.
+     * The ancestor paths are the prefixes of the tenant's own path (see {@link Tenant#ancestorPaths}),
+     * so this is one exact-match probe of idx_tenants_path per level.
+     */
+    @Query("SELECT t FROM Tenant t WHERE t.path IN :ancestorPaths ORDER BY t.level")
+    List<Tenant> findAllAncestors(@Param("ancestorPaths") Collection<String> ancestorPaths);
+
+    /**
+     * Load the lightweight hierarchy projection of every tenant (used by the in-memory tree index).
      */
-    @Query("SELECT t FROM Tenant t WHERE :childPath LIKE CONCAT(t.path, '/%') OR t.path = :rootPath ORDER BY t.level")
-    List<Tenant> findAllAncestors(@Param("childPath") String childPath, @Param("rootPath") String rootPath);
+    @Query("SELECT new com.rapidobackup.console.tenant.dto.TenantTreeNode(t.id, p.id, t.level, t.path, t.slug, t.status, t.tenantType) " +
+           "FROM Tenant t LEFT JOIN t.parent p")
+    List<TenantTreeNode> findAllTreeNodes();
+
+    /**
+     * Load the hierarchy projection of a single tenant from its current row.
+     */
+    @Query("SELECT new com.rapidobackup.console.tenant.dto.TenantTreeNode(t.id, p.id, t.level, t.path, t.slug, t.status, t.tenantType) " +
+           "FROM Tenant t LEFT JOIN t.parent p WHERE t.id = :tenantId")
+    Optional<TenantTreeNode> findTreeNode(@Param("tenantId") UUID tenantId);
+
+    /**
+     * Tree items of a tenant and its descendants down to {@code maxLevel}, ordered by path
+     * so that every parent precedes its children.
+     */
+    @Query("SELECT new com.rapidobackup.console.tenant.dto.TenantTreeItem(t.id, p.id, t.name, t.displayName, t.slug, " +
+           "t.level, t.tenantType, t.status) " +
+           "FROM Tenant t LEFT JOIN t.parent p " +
+           "WHERE (t.path = :path OR t.path LIKE :pathPrefix) AND t.level <= :maxLevel ORDER BY t.path")
+    List<TenantTreeItem> findTreeItems(@Param("path") String path, @Param("pathPrefix") String pathPrefix,
+                                       @Param("maxLevel") int maxLevel);
 
     /**
      * Find root tenants (tenants without parent).
@@ -109,6 +215,18 @@ public interface TenantRepository extends JpaRepository<Tenant, UUID> {
     @Query("SELECT t FROM Tenant t WHERE t.parent IS NULL ORDER BY t.name")
     Page<Tenant> findRootTenants(Pageable pageable);
 
+    /**
+     * Stream a tenant and its whole subtree, parents before children, through a forward-only
+     * database cursor fetching 500 rows at a time. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Tenant t WHERE t.path = :path OR t.path LIKE :pathPrefix ORDER BY t.path")
+    Stream<Tenant> streamSubtree(@Param("path") String path, @Param("pathPrefix") String pathPrefix);
+
     /**
      * Find tenants at a specific level in the hierarchy.
      */
@@ -141,27 +259,105 @@ public interface TenantRepository extends JpaRepository<Tenant, UUID> {
     @Query("SELECT MAX(t.level) FROM Tenant t")
     Integer findMaxLevel();
 
+    /**
+     * Get the maximum level among the descendants matching a path prefix, null when there are none.
+     */
+    @Query("SELECT MAX(t.level) FROM Tenant t WHERE t.path LIKE :pathPrefix")
+    Integer findMaxLevelUnder(@Param("pathPrefix") String pathPrefix);
+
     // === Search and filtering ===
 
     /**
-     * Search tenants by name or slug with hierarchy context.
+     * Search tenant summaries by name or slug with hierarchy context, after a keyset cursor
+     * (see {@link #KEYSET_AFTER}). The pageable only carries the page size.
      */
-    @Query("SELECT t FROM Tenant t WHERE " +
+    @Query(SUMMARY_SELECT + "WHERE " +
            "(:searchTerm IS NULL OR " +
            " LOWER(t.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            " LOWER(t.displayName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            " LOWER(t.slug) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND " +
            "(:tenantType IS NULL OR t.tenantType = :tenantType) AND " +
            "(:status IS NULL OR t.status = :status) AND " +
-           "(:parentPath IS NULL OR t.path LIKE :parentPath)")
-    Page<Tenant> searchTenants(
+           "(:parentPath IS NULL OR t.path LIKE :parentPath) AND " +
+           KEYSET_AFTER + " ORDER BY t.level, t.name, t.id")
+    List<TenantSummary> searchTenants(
         @Param("searchTerm") String searchTerm,
         @Param("tenantType") TenantType tenantType,
         @Param("status") TenantStatus status,
         @Param("parentPath") String parentPath,
+        @Param("cursorLevel") int cursorLevel,
+        @Param("cursorName") String cursorName,
+        @Param("cursorId") UUID cursorId,
         Pageable pageable
     );
 
+    /**
+     * Fuzzy search backed by the pg_trgm GIN indexes on name, display name and slug.
+     * Matches substrings ({@code pattern}, already lower-cased and escaped) as well as
+     * similar spellings of {@code term}, best matches first. Only ids are returned; load
+     * the rows with {@link #findSummariesByIds}.
+     */
+    @Query(value = """
+        SELECT t.id FROM tenants t
+        WHERE t.deleted_at IS NULL
+          AND (lower(t.name) LIKE :pattern OR lower(t.display_name) LIKE :pattern OR t.slug LIKE :pattern
+               OR lower(t.name) % :term OR lower(t.display_name) % :term OR t.slug % :term)
+          AND (CAST(:tenantType AS varchar) IS NULL OR t.tenant_type = CAST(:tenantType AS varchar))
+          AND (CAST(:status AS varchar) IS NULL OR t.status = CAST(:status AS varchar))
+          AND (CAST(:parentPath AS varchar) IS NULL OR t.path LIKE CAST(:parentPath AS varchar))
+        ORDER BY GREATEST(similarity(lower(t.name), :term),
+                          similarity(lower(coalesce(t.display_name, '')), :term),
+                          similarity(t.slug, :term)) DESC,
+                 t.level, t.name, t.id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<UUID> fuzzySearchTenantIds(
+        @Param("term") String term,
+        @Param("pattern") String pattern,
+        @Param("tenantType") String tenantType,
+        @Param("status") String status,
+        @Param("parentPath") String parentPath,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Filter on the JSONB columns, backed by the jsonb_path_ops GIN indexes, after a keyset
+     * cursor (see {@link #KEYSET_AFTER}). {@code customAttributes} and {@code settings} are
+     * containment documents ({@code @>}), the {@code ...Predicate} parameters JSON path
+     * predicates ({@code @@}); null skips a criterion. Only ids are returned, in
+     * (level, name, id) order; load the rows with {@link #findSummariesByIds}.
+     */
+    @Query(value = """
+        SELECT t.id FROM tenants t
+        WHERE t.deleted_at IS NULL
+          AND (CAST(:customAttributes AS varchar) IS NULL
+               OR t.custom_attributes @> CAST(CAST(:customAttributes AS varchar) AS jsonb))
+          AND (CAST(:customAttributesPredicate AS varchar) IS NULL
+               OR t.custom_attributes @@ CAST(CAST(:customAttributesPredicate AS varchar) AS jsonpath))
+          AND (CAST(:settings AS varchar) IS NULL
+               OR t.settings @> CAST(CAST(:settings AS varchar) AS jsonb))
+          AND (CAST(:settingsPredicate AS varchar) IS NULL
+               OR t.settings @@ CAST(CAST(:settingsPredicate AS varchar) AS jsonpath))
+          AND (CAST(:parentPath AS varchar) IS NULL OR t.path LIKE CAST(:parentPath AS varchar))
+          AND """ + KEYSET_AFTER + " ORDER BY t.level, t.name, t.id LIMIT :limit", nativeQuery = true)
+    List<UUID> filterTenantIdsByJson(
+        @Param("customAttributes") String customAttributes,
+        @Param("customAttributesPredicate") String customAttributesPredicate,
+        @Param("settings") String settings,
+        @Param("settingsPredicate") String settingsPredicate,
+        @Param("parentPath") String parentPath,
+        @Param("cursorLevel") int cursorLevel,
+        @Param("cursorName") String cursorName,
+        @Param("cursorId") UUID cursorId,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Summaries of the given tenants, in no particular order.
+     */
+    @Query(SUMMARY_SELECT + "WHERE t.id IN :ids")
+    List<TenantSummary> findSummariesByIds(@Param("ids") Collection<UUID> ids);
+
     /**
      * Find tenants by type within a specific branch of the hierarchy.
      */
@@ -183,4 +379,48 @@ public interface TenantRepository extends JpaRepository<Tenant, UUID> {
      */
     @Query("SELECT t FROM Tenant t WHERE t.path LIKE :oldPathPrefix ORDER BY t.level")
     List<Tenant> findTenantsToUpdatePath(@Param("oldPathPrefix") String oldPathPrefix);
+
+    /**
+     * Rewrite the path prefix and shift the level of every descendant of a moved tenant
+     * in a single set-based statement. Served by the varchar_pattern_ops path index.
+     *
+     * @param oldPathPrefix  old path of the moved tenant followed by "/%"
+     * @param oldPathLength  length of the old path of the moved tenant
+     * @param newPath        new path of the moved tenant
+     * @param levelDelta     difference between the new and the old level of the moved tenant
+     * @return number of descendants updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        UPDATE tenants
+        SET path = :newPath || substring(path from :oldPathLength + 1),
+            level = level + :levelDelta,
+            updated_at = CURRENT_TIMESTAMP,
+            version = version + 1
+        WHERE path LIKE :oldPathPrefix
+        """, nativeQuery = true)
+    int moveSubtree(@Param("oldPathPrefix") String oldPathPrefix,
+                    @Param("oldPathLength") int oldPathLength,
+                    @Param("newPath") String newPath,
+                    @Param("levelDelta") int levelDelta);
+
+    /**
+     * Close and soft delete a tenant and all its live descendants in a single statement.
+     *
+     * @param path       path of the deleted tenant
+     * @param pathPrefix LIKE pattern matching its descendants (path + "/%")
+     * @return number of tenants deleted, including the tenant itself
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        UPDATE tenants
+        SET status = 'CLOSED',
+            deleted_at = :deletedAt,
+            updated_at = :deletedAt,
+            version = version + 1
+        WHERE deleted_at IS NULL AND (path = :path OR path LIKE :pathPrefix)
+        """, nativeQuery = true)
+    int softDeleteSubtree(@Param("path") String path,
+                          @Param("pathPrefix") String pathPrefix,
+                          @Param("deletedAt") Instant deletedAt);
 }
\ No newline at end of file
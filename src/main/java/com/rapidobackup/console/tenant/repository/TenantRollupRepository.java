@@ -0,0 +1,53 @@
+package com.rapidobackup.console.tenant.repository;
+
+import com.rapidobackup.console.tenant.entity.TenantRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for per-tenant subtree rollups.
+ *
+ * Writes are atomic native increments so that concurrent changes under the same ancestor
+ * never lose updates; entities are only used for reads.
+ */
+@Repository
+public interface TenantRollupRepository extends JpaRepository<TenantRollup, UUID> {
+
+    List<TenantRollup> findByTenantIdIn(Collection<UUID> tenantIds);
+
+    /**
+     * Create the zeroed rollup row of a new tenant.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tenant_rollups (tenant_id) VALUES (:tenantId) ON CONFLICT (tenant_id) DO NOTHING",
+           nativeQuery = true)
+    void insertEmpty(@Param("tenantId") UUID tenantId);
+
+    /**
+     * Add the given deltas to the rollups of several tenants (typically a tenant and its ancestors).
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE tenant_rollups
+        SET descendant_count = descendant_count + :descendants,
+            user_count = user_count + :users,
+            agent_count = agent_count + :agents,
+            used_storage_gb = used_storage_gb + :storageGb,
+            updated_at = CURRENT_TIMESTAMP
+        WHERE tenant_id IN (:tenantIds)
+        """, nativeQuery = true)
+    int applyDelta(
+        @Param("tenantIds") Collection<UUID> tenantIds,
+        @Param("descendants") long descendants,
+        @Param("users") long users,
+        @Param("agents") long agents,
+        @Param("storageGb") long storageGb
+    );
+}
@@ -0,0 +1,46 @@
+package com.rapidobackup.console.tenant.repository;
+
+import com.rapidobackup.console.tenant.dto.TenantSettingValue;
+import com.rapidobackup.console.tenant.entity.TenantSetting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for per-tenant settings.
+ */
+@Repository
+public interface TenantSettingRepository extends JpaRepository<TenantSetting, UUID> {
+
+    @Query("SELECT s FROM TenantSetting s WHERE s.tenant.id = :tenantId AND s.category = :category AND s.key = :key")
+    Optional<TenantSetting> findSetting(
+        @Param("tenantId") UUID tenantId,
+        @Param("category") String category,
+        @Param("key") String key
+    );
+
+    /**
+     * Typed, read-only views of the settings of several tenants (e.g. a tenant and its
+     * ancestors), optionally of one category only.
+     * No entities are created, so large reads skip the persistence context.
+     */
+    @Query("""
+        SELECT new com.rapidobackup.console.tenant.dto.TenantSettingValue(
+            s.tenant.id, s.category, s.key, s.valueType, s.stringValue, s.numberValue, s.booleanValue,
+            s.jsonValue, s.isInherited, s.isEncrypted)
+        FROM TenantSetting s
+        WHERE s.tenant.id IN :tenantIds
+          AND (:category IS NULL OR s.category = :category)
+        ORDER BY s.category, s.key
+        """)
+    List<TenantSettingValue> findValues(
+        @Param("tenantIds") Collection<UUID> tenantIds,
+        @Param("category") String category
+    );
+}
@@ -0,0 +1,110 @@
+package com.rapidobackup.console.tenant.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Usage counters local to this node, for development and tests without Redis.
+ * Quotas are only enforced correctly when a single node registers users and agents.
+ */
+@Component
+@ConditionalOnProperty(name = "console.tenant.quota.counter-store", havingValue = "memory")
+public class InMemoryTenantUsageCounters implements TenantUsageCounters {
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public long tryReserve(String key, String reservationId, long limit) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            return NOT_LOADED;
+        }
+        synchronized (counter) {
+            if (limit >= 0 && counter.usage >= limit) {
+                return LIMIT_REACHED;
+            }
+            counter.pending.put(reservationId, System.currentTimeMillis());
+            return ++counter.usage;
+        }
+    }
+
+    @Override
+    public void confirm(String key, String reservationId) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            return;
+        }
+        synchronized (counter) {
+            if (counter.pending.remove(reservationId) == null) {
+                // Dropped as abandoned by a reconciliation that did not count it
+                counter.usage++;
+            }
+            counter.confirmed++;
+        }
+    }
+
+    @Override
+    public void cancel(String key, String reservationId) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            return;
+        }
+        synchronized (counter) {
+            if (counter.pending.remove(reservationId) != null && counter.usage > 0) {
+                counter.usage--;
+            }
+        }
+    }
+
+    @Override
+    public void load(String key, long value) {
+        counters.putIfAbsent(key, new Counter(value));
+    }
+
+    @Override
+    public Map<String, Long> confirmedCounts(Collection<String> keys) {
+        Map<String, Long> confirmed = new HashMap<>();
+        for (String key : keys) {
+            Counter counter = counters.get(key);
+            if (counter == null) {
+                confirmed.put(key, 0L);
+                continue;
+            }
+            synchronized (counter) {
+                confirmed.put(key, counter.confirmed);
+            }
+        }
+        return confirmed;
+    }
+
+    @Override
+    public void reconcile(Map<String, Long> usage, Map<String, Long> confirmedBefore, Duration pendingTimeout) {
+        long abandonedBefore = System.currentTimeMillis() - pendingTimeout.toMillis();
+        usage.forEach((key, value) -> {
+            Counter counter = counters.computeIfAbsent(key, k -> new Counter(0));
+            synchronized (counter) {
+                counter.pending.values().removeIf(reservedAt -> reservedAt <= abandonedBefore);
+                long confirmedSince = Math.max(0, counter.confirmed - confirmedBefore.getOrDefault(key, 0L));
+                counter.usage = value + counter.pending.size() + confirmedSince;
+            }
+        });
+    }
+
+    private static final class Counter {
+
+        private long usage;
+        private long confirmed;
+        // Reservation id → reservation time
+        private final Map<String, Long> pending = new HashMap<>();
+
+        Counter(long usage) {
+            this.usage = usage;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.rapidobackup.console.tenant.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Usage counters shared by all nodes in Redis.
+ *
+ * Each counter is a hash ({@code usage} and {@code confirmed} fields) next to a sorted set
+ * of its pending reservations, scored by reservation time; both keys share a hash tag, so
+ * every operation runs as a single atomic Lua script, also on Redis Cluster. Counters expire
+ * after {@code console.tenant.quota.counter-ttl} without activity and are then loaded again
+ * from the database on next use.
+ */
+@Component
+@ConditionalOnProperty(name = "console.tenant.quota.counter-store", havingValue = "redis", matchIfMissing = true)
+public class RedisTenantUsageCounters implements TenantUsageCounters {
+
+    private static final DefaultRedisScript<Long> TRY_RESERVE = new DefaultRedisScript<>("""
+        local usage = redis.call('HGET', KEYS[1], 'usage')
+        if not usage then
+            return -2
+        end
+        local limit = tonumber(ARGV[1])
+        if limit >= 0 and tonumber(usage) >= limit then
+            return -1
+        end
+        local now = redis.call('TIME')
+        redis.call('ZADD', KEYS[2], tonumber(now[1]) * 1000 + math.floor(tonumber(now[2]) / 1000), ARGV[3])
+        redis.call('PEXPIRE', KEYS[1], ARGV[2])
+        redis.call('PEXPIRE', KEYS[2], ARGV[2])
+        return redis.call('HINCRBY', KEYS[1], 'usage', 1)
+        """, Long.class);
+
+    private static final DefaultRedisScript<Long> CONFIRM = new DefaultRedisScript<>("""
+        if redis.call('HEXISTS', KEYS[1], 'usage') == 0 then
+            return 0
+        end
+        if redis.call('ZREM', KEYS[2], ARGV[1]) == 0 then
+            -- Dropped as abandoned by a reconciliation that did not count it
+            redis.call('HINCRBY', KEYS[1], 'usage', 1)
+        end
+        return redis.call('HINCRBY', KEYS[1], 'confirmed', 1)
+        """, Long.class);
+
+    private static final DefaultRedisScript<Long> CANCEL = new DefaultRedisScript<>("""
+        if redis.call('ZREM', KEYS[2], ARGV[1]) == 0 then
+            return 0
+        end
+        local usage = redis.call('HGET', KEYS[1], 'usage')
+        if not usage or tonumber(usage) <= 0 then
+            return 0
+        end
+        return redis.call('HINCRBY', KEYS[1], 'usage', -1)
+        """, Long.class);
+
+    private static final DefaultRedisScript<Long> LOAD = new DefaultRedisScript<>("""
+        if redis.call('HSETNX', KEYS[1], 'usage', ARGV[1]) == 1 then
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+        end
+        return 0
+        """, Long.class);
+
+    private static final String RECONCILE = """
+        local now = redis.call('TIME')
+        local nowMillis = tonumber(now[1]) * 1000 + math.floor(tonumber(now[2]) / 1000)
+        redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', nowMillis - tonumber(ARGV[3]))
+        local confirmed = tonumber(redis.call('HGET', KEYS[1], 'confirmed') or '0')
+        local usage = tonumber(ARGV[1]) + redis.call('ZCARD', KEYS[2]) + math.max(0, confirmed - tonumber(ARGV[2]))
+        redis.call('HSET', KEYS[1], 'usage', usage)
+        redis.call('PEXPIRE', KEYS[1], ARGV[4])
+        redis.call('PEXPIRE', KEYS[2], ARGV[4])
+        return usage
+        """;
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public RedisTenantUsageCounters(StringRedisTemplate redisTemplate,
+                                    @Value("${console.tenant.quota.counter-ttl:PT25H}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public long tryReserve(String key, String reservationId, long limit) {
+        Long result = redisTemplate.execute(TRY_RESERVE, keys(key),
+            Long.toString(limit), Long.toString(ttl.toMillis()), reservationId);
+        return result != null ? result : NOT_LOADED;
+    }
+
+    @Override
+    public void confirm(String key, String reservationId) {
+        redisTemplate.execute(CONFIRM, keys(key), reservationId);
+    }
+
+    @Override
+    public void cancel(String key, String reservationId) {
+        redisTemplate.execute(CANCEL, keys(key), reservationId);
+    }
+
+    @Override
+    public void load(String key, long value) {
+        redisTemplate.execute(LOAD, List.of(key), Long.toString(value), Long.toString(ttl.toMillis()));
+    }
+
+    @Override
+    public Map<String, Long> confirmedCounts(Collection<String> keys) {
+        List<String> orderedKeys = new ArrayList<>(keys);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            orderedKeys.forEach(key -> stringConnection.hGet(key, "confirmed"));
+            return null;
+        });
+        Map<String, Long> confirmed = new HashMap<>();
+        for (int i = 0; i < orderedKeys.size(); i++) {
+            Object value = results.get(i);
+            confirmed.put(orderedKeys.get(i), value != null ? Long.parseLong(value.toString()) : 0L);
+        }
+        return confirmed;
+    }
+
+    @Override
+    public void reconcile(Map<String, Long> usage, Map<String, Long> confirmedBefore, Duration pendingTimeout) {
+        if (usage.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            usage.forEach((key, value) -> stringConnection.eval(RECONCILE, ReturnType.INTEGER, 2,
+                key, pendingKey(key), Long.toString(value), Long.toString(confirmedBefore.getOrDefault(key, 0L)),
+                Long.toString(pendingTimeout.toMillis()), Long.toString(ttl.toMillis())));
+            return null;
+        });
+    }
+
+    private static List<String> keys(String key) {
+        return List.of(key, pendingKey(key));
+    }
+
+    private static String pendingKey(String key) {
+        return key + ":pending";
+    }
+}
@@ -0,0 +1,240 @@
+package com.rapidobackup.console.tenant.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.rapidobackup.console.tenant.dto.TenantTreeNode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Scoped invalidation of the {@code tenants}, {@code tenantHierarchy} and {@code tenantSettings} caches.
+ *
+ * Instead of wiping both caches on every tenant write, only the entries that can contain
+ * the changed branch are evicted:
+ * - upwards: {@code descendants:} of every ancestor, {@code children:} of the parent, {@code roots}
+ * - downwards: {@code tenants}, {@code ancestors:}, {@code descendants:} and {@code children:}
+ *   entries and the effective settings of every tenant in the branch
+ *
+ * A settings change only evicts the effective settings of the tenant, and of its
+ * descendants when the change can be inherited ({@link #evictSettings}).
+ *
+ * Affected ids are resolved from the {@link TenantTreeIndex}, so computing the scope costs
+ * no database round trip. Evictions are applied immediately (so the writing transaction
+ * reads its own writes) and again after commit, so concurrent readers cannot re-populate
+ * an entry with pre-commit data. Very large branches fall back to clearing the caches.
+ *
+ * Eviction counts are exported as {@code tenant.cache.evictions}; hit and miss counts
+ * come from the cache provider statistics ({@code cache.gets}).
+ */
+@Component
+public class TenantCacheInvalidator {
+
+    public static final String TENANTS_CACHE = "tenants";
+    public static final String HIERARCHY_CACHE = "tenantHierarchy";
+    public static final String SETTINGS_CACHE = "tenantSettings";
+
+    private static final Logger log = LoggerFactory.getLogger(TenantCacheInvalidator.class);
+    private static final int MAX_SCOPED_EVICTIONS = 5000;
+
+    private final CacheManager cacheManager;
+    private final TenantTreeIndex tenantTreeIndex;
+    private final Counter tenantEvictions;
+    private final Counter hierarchyEvictions;
+    private final Counter settingsEvictions;
+    private final Counter fullClears;
+
+    public TenantCacheInvalidator(CacheManager cacheManager, TenantTreeIndex tenantTreeIndex, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.tenantTreeIndex = tenantTreeIndex;
+        this.tenantEvictions = Counter.builder("tenant.cache.evictions")
+            .description("Entries evicted by scoped tenant cache invalidation")
+            .tag("cache", TENANTS_CACHE)
+            .register(meterRegistry);
+        this.hierarchyEvictions = Counter.builder("tenant.cache.evictions")
+            .description("Entries evicted by scoped tenant cache invalidation")
+            .tag("cache", HIERARCHY_CACHE)
+            .register(meterRegistry);
+        this.settingsEvictions = Counter.builder("tenant.cache.evictions")
+            .description("Entries evicted by scoped tenant cache invalidation")
+            .tag("cache", SETTINGS_CACHE)
+            .register(meterRegistry);
+        this.fullClears = Counter.builder("tenant.cache.clears")
+            .description("Full tenant cache clears triggered by oversized branches")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Evict every entry that can contain the given tenant or one of its descendants,
+     * based on the tenant's current position in the index.
+     *
+     * @param tenantId the changed tenant
+     * @param extraSlugs additional slug keys to evict (e.g. the slug before a rename)
+     */
+    public void evictBranch(UUID tenantId, String... extraSlugs) {
+        Set<Object> tenantKeys = new LinkedHashSet<>();
+        Set<Object> hierarchyKeys = new LinkedHashSet<>();
+        Set<Object> settingsKeys = new LinkedHashSet<>();
+
+        tenantKeys.add(tenantId);
+        for (String slug : extraSlugs) {
+            if (slug != null) {
+                tenantKeys.add(slug);
+            }
+        }
+        collectUpwardKeys(tenantId, hierarchyKeys);
+
+        List<TenantTreeNode> branch = new ArrayList<>();
+        tenantTreeIndex.get(tenantId).ifPresent(branch::add);
+        branch.addAll(tenantTreeIndex.descendants(tenantId));
+        if ((long) branch.size() * 6 > MAX_SCOPED_EVICTIONS) {
+            clearAll(branch.size(), List.of(TENANTS_CACHE, HIERARCHY_CACHE, SETTINGS_CACHE));
+            return;
+        }
+        for (TenantTreeNode node : branch) {
+            tenantKeys.add(node.getId());
+            if (node.getSlug() != null) {
+                tenantKeys.add(node.getSlug());
+            }
+            hierarchyKeys.add("ancestors:" + node.getId());
+            hierarchyKeys.add("descendants:" + node.getId());
+            hierarchyKeys.add("children:" + node.getId());
+            settingsKeys.add(node.getId());
+        }
+
+        evict(tenantKeys, hierarchyKeys, settingsKeys);
+    }
+
+    /**
+     * Evict only the cached entity of a tenant (by id and slug), for changes that leave
+     * its position and listings untouched.
+     */
+    public void evictTenant(UUID tenantId) {
+        Set<Object> tenantKeys = new LinkedHashSet<>();
+        tenantKeys.add(tenantId);
+        tenantTreeIndex.get(tenantId).map(TenantTreeNode::getSlug).ifPresent(tenantKeys::add);
+        evict(tenantKeys, Set.of(), Set.of());
+    }
+
+    /**
+     * Evict only the entries of the tenant's ancestors (used for the destination of a move).
+     */
+    public void evictAncestors(UUID tenantId) {
+        Set<Object> hierarchyKeys = new LinkedHashSet<>();
+        collectUpwardKeys(tenantId, hierarchyKeys);
+        evict(Set.of(), hierarchyKeys, Set.of());
+    }
+
+    /**
+     * Evict the effective settings of a tenant whose own settings changed.
+     *
+     * @param includeDescendants whether the change can be inherited, so that the effective
+     *                           settings of the whole branch are affected
+     */
+    public void evictSettings(UUID tenantId, boolean includeDescendants) {
+        evictSettings(List.of(tenantId), includeDescendants);
+    }
+
+    /**
+     * Evict the effective settings of several tenants whose own settings changed
+     * (overlapping branches are evicted once).
+     */
+    public void evictSettings(Collection<UUID> tenantIds, boolean includeDescendants) {
+        Set<Object> settingsKeys = new LinkedHashSet<>(tenantIds);
+        if (includeDescendants) {
+            for (UUID tenantId : tenantIds) {
+                if (settingsKeys.size() > MAX_SCOPED_EVICTIONS) {
+                    break;
+                }
+                tenantTreeIndex.descendants(tenantId).forEach(node -> settingsKeys.add(node.getId()));
+            }
+        }
+        if (settingsKeys.size() > MAX_SCOPED_EVICTIONS) {
+            clearAll(settingsKeys.size(), List.of(SETTINGS_CACHE));
+            return;
+        }
+        evict(Set.of(), Set.of(), settingsKeys);
+    }
+
+    // === Private Methods ===
+
+    private void collectUpwardKeys(UUID tenantId, Set<Object> hierarchyKeys) {
+        tenantTreeIndex.get(tenantId).ifPresent(node -> {
+            if (node.isRoot()) {
+                hierarchyKeys.add("roots");
+            } else {
+                hierarchyKeys.add("children:" + node.getParentId());
+            }
+        });
+        for (TenantTreeNode ancestor : tenantTreeIndex.ancestors(tenantId)) {
+            hierarchyKeys.add("descendants:" + ancestor.getId());
+        }
+    }
+
+    private void evict(Set<Object> tenantKeys, Set<Object> hierarchyKeys, Set<Object> settingsKeys) {
+        evictNow(tenantKeys, hierarchyKeys, settingsKeys);
+        tenantEvictions.increment(tenantKeys.size());
+        hierarchyEvictions.increment(hierarchyKeys.size());
+        settingsEvictions.increment(settingsKeys.size());
+        log.debug("Evicted {} tenant, {} hierarchy and {} settings cache entries",
+            tenantKeys.size(), hierarchyKeys.size(), settingsKeys.size());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(tenantKeys, hierarchyKeys, settingsKeys);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Set<Object> tenantKeys, Set<Object> hierarchyKeys, Set<Object> settingsKeys) {
+        evictNow(TENANTS_CACHE, tenantKeys);
+        evictNow(HIERARCHY_CACHE, hierarchyKeys);
+        evictNow(SETTINGS_CACHE, settingsKeys);
+    }
+
+    private void evictNow(String cacheName, Set<Object> keys) {
+        Cache cache = keys.isEmpty() ? null : cacheManager.getCache(cacheName);
+        if (cache != null) {
+            keys.forEach(cache::evict);
+        }
+    }
+
+    private void clearAll(int branchSize, List<String> cacheNames) {
+        log.info("Branch of {} tenants exceeds scoped eviction limit, clearing caches {}", branchSize, cacheNames);
+        clearNow(cacheNames);
+        fullClears.increment();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clearNow(cacheNames);
+                }
+            });
+        }
+    }
+
+    private void clearNow(List<String> cacheNames) {
+        for (String cacheName : cacheNames) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
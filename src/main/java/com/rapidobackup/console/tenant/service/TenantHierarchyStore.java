@@ -0,0 +1,83 @@
+package com.rapidobackup.console.tenant.service;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.rapidobackup.console.tenant.dto.TenantTreeNode;
+import com.rapidobackup.console.tenant.repository.TenantRepository;
+
+/**
+ * Shared state of the tenant hierarchy in PostgreSQL, backing {@link TenantTreeIndex}.
+ *
+ * The single row of {@code tenant_hierarchy_version} is incremented by every transaction
+ * that changes the hierarchy, right before it commits. The increment row-locks the version
+ * until commit, so versions are assigned in commit order across all nodes, and a new
+ * version becomes visible together with the change it stands for.
+ */
+@Component
+public class TenantHierarchyStore {
+
+    private static final String CURRENT_VERSION_SQL = "SELECT version FROM tenant_hierarchy_version WHERE id = 1";
+    private static final String INCREMENT_VERSION_SQL =
+        "UPDATE tenant_hierarchy_version SET version = version + 1 WHERE id = 1 RETURNING version";
+
+    private final TenantRepository tenantRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public TenantHierarchyStore(TenantRepository tenantRepository, JdbcTemplate jdbcTemplate) {
+        this.tenantRepository = tenantRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Committed hierarchy and its version, read from a single snapshot in a transaction of
+     * its own, so that it never includes uncommitted changes of the caller's transaction.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.REPEATABLE_READ, readOnly = true)
+    public Snapshot loadSnapshot() {
+        long version = jdbcTemplate.queryForObject(CURRENT_VERSION_SQL, Long.class);
+        return new Snapshot(version, tenantRepository.findAllTreeNodes());
+    }
+
+    /**
+     * Hierarchy as seen by the caller's transaction, including its own uncommitted changes.
+     */
+    public List<TenantTreeNode> loadInTransaction() {
+        return tenantRepository.findAllTreeNodes();
+    }
+
+    /**
+     * Latest committed hierarchy version.
+     */
+    @Transactional(readOnly = true)
+    public long currentVersion() {
+        return jdbcTemplate.queryForObject(CURRENT_VERSION_SQL, Long.class);
+    }
+
+    /**
+     * Assign the next version to the caller's transaction. The version row stays locked
+     * until that transaction completes, so this must be called right before commit.
+     */
+    public long incrementVersion() {
+        return jdbcTemplate.queryForObject(INCREMENT_VERSION_SQL, Long.class);
+    }
+
+    public static final class Snapshot {
+
+        private final long version;
+        private final List<TenantTreeNode> nodes;
+
+        public Snapshot(long version, List<TenantTreeNode> nodes) {
+            this.version = version;
+            this.nodes = nodes;
+        }
+
+        public long getVersion() { return version; }
+        public List<TenantTreeNode> getNodes() { return nodes; }
+    }
+}
@@ -0,0 +1,363 @@
+package com.rapidobackup.console.tenant.service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.rapidobackup.console.tenant.dto.TenantProvisioningNode;
+import com.rapidobackup.console.tenant.dto.TenantProvisioningRequest;
+import com.rapidobackup.console.tenant.dto.TenantProvisioningResult;
+import com.rapidobackup.console.tenant.dto.TenantProvisioningResult.NodeResult;
+import com.rapidobackup.console.tenant.dto.TenantTreeNode;
+import com.rapidobackup.console.tenant.entity.Tenant;
+import com.rapidobackup.console.tenant.entity.TenantStatus;
+import com.rapidobackup.console.tenant.repository.TenantRepository;
+
+/**
+ * Bulk provisioning of whole tenant trees.
+ *
+ * A request is planned entirely in memory before anything is written:
+ * - nested and flat (ref/parentRef) nodes are flattened and validated individually; nodes without
+ *   a ref are reported as {@code #<position>}, a form that request refs may not use
+ * - parents are resolved against the request itself or the {@link TenantTreeIndex}
+ * - ids, slugs and path keys (one allocation query each for the whole batch), levels and paths are pre-assigned
+ * - existing parents are share-locked per branch ({@link TenantBranchLocker}) so they cannot move meanwhile
+ *
+ * Valid nodes are then inserted parent-first with JDBC batches in a single transaction.
+ * Invalid nodes, and every node below them, are skipped and reported individually.
+ */
+@Service
+@Transactional
+public class TenantProvisioningService {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantProvisioningService.class);
+    private static final int BATCH_SIZE = 1000;
+    private static final int LOOKUP_CHUNK_SIZE = 5000;
+    private static final Pattern GENERATED_REF = Pattern.compile("#[0-9]+");
+
+    private static final String INSERT_TENANT_SQL = """
+        INSERT INTO tenants (id, parent_id, name, display_name, slug, external_id, path_key, path, level, tenant_type, status,
+                             timezone, locale, currency, used_storage_gb, settings, custom_attributes,
+                             created_at, updated_at, activated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'UTC', 'en-US', 'EUR', 0, '{}'::jsonb, '{}'::jsonb, ?, ?, ?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantRepository tenantRepository;
+    private final TenantTreeIndex tenantTreeIndex;
+    private final TenantSlugAllocator slugAllocator;
+    private final TenantBranchLocker branchLocker;
+    private final TenantCacheInvalidator cacheInvalidator;
+    private final TenantRollupService rollupService;
+    private final int maxHierarchyDepth;
+
+    public TenantProvisioningService(JdbcTemplate jdbcTemplate, TenantRepository tenantRepository,
+                                     TenantTreeIndex tenantTreeIndex, TenantSlugAllocator slugAllocator,
+                                     TenantBranchLocker branchLocker, TenantCacheInvalidator cacheInvalidator, TenantRollupService rollupService,
+                                     @Value("${console.tenant.max-hierarchy-depth:5}") int maxHierarchyDepth) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tenantRepository = tenantRepository;
+        this.tenantTreeIndex = tenantTreeIndex;
+        this.slugAllocator = slugAllocator;
+        this.branchLocker = branchLocker;
+        this.cacheInvalidator = cacheInvalidator;
+        this.rollupService = rollupService;
+        this.maxHierarchyDepth = TenantService.checkMaxHierarchyDepth(maxHierarchyDepth);
+    }
+
+    /**
+     * Provision every node of the request that passes validation.
+     */
+    public TenantProvisioningResult provision(TenantProvisioningRequest request) {
+        long startTime = System.currentTimeMillis();
+
+        // Flatten nested nodes into a parent-referenced list
+        List<PlannedTenant> planned = flatten(request.getTenants());
+
+        // Validate nodes individually
+        Map<String, PlannedTenant> byRef = new HashMap<>();
+        for (PlannedTenant tenant : planned) {
+            if (isReserved(tenant.node.getRef())) {
+                tenant.fail("Reference '" + tenant.ref + "' is reserved for generated references");
+            } else if (isReserved(tenant.parentRef)) {
+                tenant.fail("Parent reference '" + tenant.parentRef + "' is reserved for generated references");
+            } else if (byRef.putIfAbsent(tenant.ref, tenant) != null) {
+                tenant.fail("Duplicate reference: " + tenant.ref);
+            } else if (tenant.node.getName() == null || tenant.node.getName().isBlank()) {
+                tenant.fail("Name is required");
+            } else if (tenant.node.getTenantType() == null) {
+                tenant.fail("Tenant type is required");
+            }
+        }
+        validateExternalIds(planned);
+
+        // Resolve parents, parent-first
+        List<PlannedTenant> ordered = new ArrayList<>();
+        for (PlannedTenant tenant : planned) {
+            resolve(tenant, byRef, request.getParentId(), ordered);
+        }
+
+        // Existing attachment points must not move while paths are derived from them
+        Map<UUID, TenantTreeNode> attachedParents = new LinkedHashMap<>();
+        for (PlannedTenant tenant : ordered) {
+            if (tenant.existingParent != null) {
+                attachedParents.putIfAbsent(tenant.existingParent.getId(), tenant.existingParent);
+            }
+        }
+        branchLocker.lockForAttach(attachedParents.values());
+
+        // Pre-assign slugs, path keys and paths
+        List<String> slugs = slugAllocator.allocateAll(ordered.stream().map(tenant -> tenant.node.getName()).toList());
+        List<String> pathKeys = ordered.isEmpty() ? List.of() : tenantRepository.allocatePathKeys(ordered.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            PlannedTenant tenant = ordered.get(i);
+            tenant.slug = slugs.get(i);
+            tenant.pathKey = pathKeys.get(i);
+            String parentPath = tenant.parent != null ? tenant.parent.path
+                : tenant.existingParent != null ? tenant.existingParent.getPath() : null;
+            tenant.path = parentPath != null ? parentPath + Tenant.PATH_SEPARATOR + tenant.pathKey : tenant.pathKey;
+        }
+
+        insert(ordered);
+        publish(ordered);
+
+        TenantProvisioningResult result = new TenantProvisioningResult();
+        for (PlannedTenant tenant : planned) {
+            result.getResults().add(tenant.state == State.VALID
+                ? NodeResult.created(tenant.ref, tenant.id, tenant.slug, tenant.path)
+                : NodeResult.failed(tenant.ref, tenant.error));
+        }
+        result.setCreatedCount(ordered.size());
+        result.setFailedCount(planned.size() - ordered.size());
+        result.setDurationMs(System.currentTimeMillis() - startTime);
+
+        log.info("Provisioned {} tenants ({} rejected) in {} ms",
+            result.getCreatedCount(), result.getFailedCount(), result.getDurationMs());
+        return result;
+    }
+
+    // === Private Methods ===
+
+    /**
+     * Flatten nested nodes in pre-order, parents before their children.
+     *
+     * The walk uses an explicit stack so that arbitrarily deep nesting cannot overflow the
+     * call stack before the depth limit gets to reject it. Nested children are linked to their
+     * enclosing tenant directly rather than through its ref, so they can never attach to
+     * another node sharing that ref.
+     */
+    private List<PlannedTenant> flatten(List<TenantProvisioningNode> roots) {
+        List<PlannedTenant> planned = new ArrayList<>();
+        Deque<SimpleImmutableEntry<TenantProvisioningNode, PlannedTenant>> pending = new ArrayDeque<>();
+        for (int i = roots.size() - 1; i >= 0; i--) {
+            pending.push(new SimpleImmutableEntry<>(roots.get(i), null));
+        }
+        while (!pending.isEmpty()) {
+            SimpleImmutableEntry<TenantProvisioningNode, PlannedTenant> entry = pending.pop();
+            TenantProvisioningNode node = entry.getKey();
+            PlannedTenant tenant = new PlannedTenant(node, node.getRef() != null ? node.getRef() : "#" + (planned.size() + 1));
+            if (node.getParentRef() != null) {
+                tenant.parentRef = node.getParentRef();
+            } else if (node.getParentId() == null) {
+                tenant.enclosing = entry.getValue();
+            }
+            planned.add(tenant);
+
+            List<TenantProvisioningNode> children = node.getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                pending.push(new SimpleImmutableEntry<>(children.get(i), tenant));
+            }
+        }
+        return planned;
+    }
+
+    private static boolean isReserved(String ref) {
+        return ref != null && GENERATED_REF.matcher(ref).matches();
+    }
+
+    private void validateExternalIds(List<PlannedTenant> planned) {
+        Set<String> requested = new HashSet<>();
+        for (PlannedTenant tenant : planned) {
+            String externalId = tenant.node.getExternalId();
+            if (tenant.state == State.FAILED || externalId == null) {
+                continue;
+            }
+            if (!requested.add(externalId)) {
+                tenant.fail("Duplicate external id in request: " + externalId);
+            }
+        }
+        if (requested.isEmpty()) {
+            return;
+        }
+
+        Set<String> existing = new HashSet<>();
+        List<String> externalIds = new ArrayList<>(requested);
+        for (int i = 0; i < externalIds.size(); i += LOOKUP_CHUNK_SIZE) {
+            existing.addAll(tenantRepository.findExistingExternalIds(
+                externalIds.subList(i, Math.min(i + LOOKUP_CHUNK_SIZE, externalIds.size()))));
+        }
+        for (PlannedTenant tenant : planned) {
+            if (tenant.state != State.FAILED && existing.contains(tenant.node.getExternalId())) {
+                tenant.fail("External id already in use: " + tenant.node.getExternalId());
+            }
+        }
+    }
+
+    /**
+     * Resolve a tenant and its unresolved ancestors in the request, parents first.
+     *
+     * The parent chain is walked iteratively, so a long or circular chain cannot overflow the
+     * stack; the depth limit is checked on each tenant's level once its parent is resolved,
+     * whatever the order of the flat list.
+     */
+    private void resolve(PlannedTenant tenant, Map<String, PlannedTenant> byRef, UUID defaultParentId,
+                         List<PlannedTenant> ordered) {
+        Deque<PlannedTenant> chain = new ArrayDeque<>();
+        PlannedTenant current = tenant;
+        while (current != null && current.state == State.UNRESOLVED) {
+            current.state = State.VISITING;
+            chain.push(current);
+            current = current.parentInRequest(byRef);
+        }
+        while (!chain.isEmpty()) {
+            resolveOnParent(chain.pop(), byRef, defaultParentId, ordered);
+        }
+    }
+
+    /**
+     * Resolve a tenant whose parent in the request, if any, was already resolved.
+     */
+    private void resolveOnParent(PlannedTenant tenant, Map<String, PlannedTenant> byRef, UUID defaultParentId,
+                                 List<PlannedTenant> ordered) {
+        if (tenant.parentRef != null || tenant.enclosing != null) {
+            PlannedTenant parent = tenant.parentInRequest(byRef);
+            if (parent == null) {
+                tenant.fail("Unknown parent reference: " + tenant.parentRef);
+                return;
+            }
+            if (parent.state == State.VISITING) {
+                tenant.fail("Circular parent reference: " + parent.ref);
+                return;
+            }
+            if (parent.state != State.VALID) {
+                tenant.fail("Parent '" + parent.ref + "' was not provisioned");
+                return;
+            }
+            tenant.parent = parent;
+            tenant.level = parent.level + 1;
+        } else {
+            UUID parentId = tenant.node.getParentId() != null ? tenant.node.getParentId() : defaultParentId;
+            if (parentId != null) {
+                TenantTreeNode existingParent = tenantTreeIndex.get(parentId).orElse(null);
+                if (existingParent == null) {
+                    tenant.fail("Parent tenant not found: " + parentId);
+                    return;
+                }
+                tenant.existingParent = existingParent;
+                tenant.level = existingParent.getLevel() + 1;
+            }
+        }
+
+        if (tenant.level > maxHierarchyDepth - 1) {
+            tenant.fail("Maximum hierarchy depth exceeded. Current max level: " + maxHierarchyDepth);
+            return;
+        }
+
+        tenant.id = UUID.randomUUID();
+        tenant.state = State.VALID;
+        ordered.add(tenant);
+    }
+
+    private void insert(List<PlannedTenant> ordered) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_TENANT_SQL, ordered, BATCH_SIZE, (ps, tenant) -> {
+            TenantProvisioningNode node = tenant.node;
+            ps.setObject(1, tenant.id);
+            ps.setObject(2, tenant.parentId(), Types.OTHER);
+            ps.setString(3, node.getName());
+            ps.setString(4, node.getDisplayName() != null ? node.getDisplayName() : node.getName());
+            ps.setString(5, tenant.slug);
+            ps.setString(6, node.getExternalId());
+            ps.setString(7, tenant.pathKey);
+            ps.setString(8, tenant.path);
+            ps.setInt(9, tenant.level);
+            ps.setString(10, node.getTenantType().name());
+            ps.setString(11, TenantStatus.ACTIVE.name());
+            ps.setTimestamp(12, now);
+            ps.setTimestamp(13, now);
+            ps.setTimestamp(14, now);
+        });
+    }
+
+    private void publish(List<PlannedTenant> ordered) {
+        List<TenantTreeNode> nodes = new ArrayList<>(ordered.size());
+        Map<UUID, UUID> attachmentPoints = new LinkedHashMap<>();
+        for (PlannedTenant tenant : ordered) {
+            nodes.add(new TenantTreeNode(tenant.id, tenant.parentId(), tenant.level, tenant.path, tenant.slug,
+                TenantStatus.ACTIVE, tenant.node.getTenantType()));
+            if (tenant.parent == null) {
+                // One representative per attachment point is enough to evict its ancestors' entries
+                attachmentPoints.putIfAbsent(tenant.existingParent != null ? tenant.existingParent.getId() : null, tenant.id);
+            }
+        }
+        tenantTreeIndex.onCreatedAll(nodes);
+        rollupService.onTenantsCreated(nodes);
+        attachmentPoints.values().forEach(cacheInvalidator::evictAncestors);
+    }
+
+    private enum State { UNRESOLVED, VISITING, VALID, FAILED }
+
+    private static class PlannedTenant {
+        private final TenantProvisioningNode node;
+        private final String ref;
+        private String parentRef;
+        private PlannedTenant enclosing;
+        private State state = State.UNRESOLVED;
+        private String error;
+
+        private PlannedTenant parent;
+        private TenantTreeNode existingParent;
+        private UUID id;
+        private int level;
+        private String slug;
+        private String pathKey;
+        private String path;
+
+        PlannedTenant(TenantProvisioningNode node, String ref) {
+            this.node = node;
+            this.ref = ref;
+        }
+
+        PlannedTenant parentInRequest(Map<String, PlannedTenant> byRef) {
+            return parentRef != null ? byRef.get(parentRef) : enclosing;
+        }
+
+        UUID parentId() {
+            return parent != null ? parent.id : existingParent != null ? existingParent.getId() : null;
+        }
+
+        void fail(String message) {
+            this.state = State.FAILED;
+            this.error = message;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.rapidobackup.console.tenant.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.rapidobackup.console.common.exception.QuotaExceededException;
+import com.rapidobackup.console.tenant.entity.Tenant;
+import com.rapidobackup.console.user.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Enforcement of the {@code maxUsers} and {@code maxAgents} tenant quotas.
+ *
+ * Usage is tracked in {@link TenantUsageCounters} (Redis by default) rather than counted in
+ * the database on every registration: a registration first reserves one unit with an atomic
+ * check-and-increment, then confirms it once the registration committed, or gives it back if
+ * it failed. A registration therefore costs two counter round trips, plus a cached tenant
+ * lookup for the limit. Counters are loaded from the database on first use.
+ *
+ * Counters are only loaded for tenants with a limit; those of unlimited tenants are kept up
+ * to date while they exist. Drift (bulk SQL, crashed nodes holding reservations) is repaired
+ * by {@link #reconcile()} on a schedule ({@code console.tenant.quota.reconcile-cron}), which
+ * keeps the reservations still pending. Reservations pending for longer than
+ * {@code console.tenant.quota.pending-timeout} are considered abandoned.
+ *
+ * Nothing is released when users or agents are removed: users are only soft deleted together
+ * with their tenant, whose counters are then no longer used and expire, and agents count
+ * through their user and are never reassigned. Rejections are counted in
+ * {@code tenant.quota.rejections}.
+ */
+@Service
+public class TenantQuotaService {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantQuotaService.class);
+    private static final String KEY_PREFIX = "console:quota:";
+
+    private static final String USER_USAGE_SQL = "SELECT tenant_id, COUNT(*) FROM users WHERE deleted_at IS NULL";
+    private static final String AGENT_USAGE_SQL = """
+        SELECT u.tenant_id, COUNT(*) FROM agents a JOIN users u ON u.id = a.assigned_user_id
+        WHERE u.deleted_at IS NULL""";
+
+    /**
+     * Quota-limited resources of a tenant.
+     */
+    public enum Resource {
+        USERS,
+        AGENTS
+    }
+
+    private final TenantUsageCounters counters;
+    private final TenantService tenantService;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration pendingTimeout;
+
+    public TenantQuotaService(TenantUsageCounters counters, TenantService tenantService, UserRepository userRepository,
+                              JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                              @Value("${console.tenant.quota.pending-timeout:PT15M}") Duration pendingTimeout) {
+        this.counters = counters;
+        this.tenantService = tenantService;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.pendingTimeout = pendingTimeout;
+    }
+
+    // === Reservations ===
+
+    /**
+     * Reserve one unit of a tenant quota. The caller must {@link #confirm} it once the
+     * registration it was taken for committed, or {@link #release} it if it did not.
+     *
+     * @throws QuotaExceededException if the tenant already reached its limit
+     */
+    public Reservation reserve(UUID tenantId, Resource resource) {
+        long limit = limit(tenantId, resource);
+        Reservation reservation = new Reservation(tenantId, resource, UUID.randomUUID().toString());
+        String key = key(tenantId, resource);
+        long result = counters.tryReserve(key, reservation.getId(), limit);
+        if (result == TenantUsageCounters.NOT_LOADED && limit >= 0) {
+            counters.load(key, countUsage(tenantId, resource));
+            result = counters.tryReserve(key, reservation.getId(), limit);
+        }
+        if (result == TenantUsageCounters.LIMIT_REACHED) {
+            meterRegistry.counter("tenant.quota.rejections", "resource", resource.name().toLowerCase(Locale.ROOT)).increment();
+            throw new QuotaExceededException(tenantId, resource.name().toLowerCase(Locale.ROOT), limit);
+        }
+        return reservation;
+    }
+
+    /**
+     * Reserve one unit of a tenant quota for the current transaction: the unit is confirmed
+     * when the transaction commits and released if it rolls back.
+     *
+     * @throws QuotaExceededException if the tenant already reached its limit
+     */
+    public void reserveInTransaction(UUID tenantId, Resource resource) {
+        Reservation reservation = reserve(tenantId, resource);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    confirm(reservation);
+                } else {
+                    release(reservation);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reserve one agent of the tenant of the user an agent is assigned to.
+     *
+     * @return the reservation, to {@link #confirm} once the agent is saved or {@link #release} on failure
+     */
+    public Reservation reserveAgentFor(UUID assignedUserId) {
+        UUID tenantId = userRepository.findTenantIdById(assignedUserId)
+            .orElseThrow(() -> new IllegalArgumentException("User not found: " + assignedUserId));
+        return reserve(tenantId, Resource.AGENTS);
+    }
+
+    /**
+     * Keep a reserved unit: the registration it was taken for committed.
+     */
+    public void confirm(Reservation reservation) {
+        counters.confirm(key(reservation.getTenantId(), reservation.getResource()), reservation.getId());
+    }
+
+    /**
+     * Give back a reserved unit: the registration it was taken for did not complete.
+     */
+    public void release(Reservation reservation) {
+        counters.cancel(key(reservation.getTenantId(), reservation.getResource()), reservation.getId());
+    }
+
+    // === Reconciliation ===
+
+    @Scheduled(cron = "${console.tenant.quota.reconcile-cron:0 */10 * * * *}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Recompute the counters of all tenants with a limit from the database. Pending
+     * reservations are kept, except those older than the pending timeout; reservations
+     * confirmed while the database is read are counted, possibly twice until the next pass.
+     *
+     * @return the number of reconciled counters
+     */
+    public int reconcile() {
+        long startTime = System.currentTimeMillis();
+        Map<UUID, long[]> usage = new HashMap<>();
+        jdbcTemplate.query("""
+            SELECT id, max_users IS NOT NULL, max_agents IS NOT NULL FROM tenants
+            WHERE deleted_at IS NULL AND (max_users IS NOT NULL OR max_agents IS NOT NULL)
+            """, rs -> {
+                usage.put(rs.getObject(1, UUID.class), new long[] {rs.getBoolean(2) ? 0 : -1, rs.getBoolean(3) ? 0 : -1});
+            });
+        if (usage.isEmpty()) {
+            return 0;
+        }
+        List<String> keys = new ArrayList<>();
+        usage.forEach((tenantId, counts) -> {
+            for (Resource resource : Resource.values()) {
+                if (counts[resource.ordinal()] >= 0) {
+                    keys.add(key(tenantId, resource));
+                }
+            }
+        });
+        // Read before the usage: reservations confirmed from now on may be missing from it
+        Map<String, Long> confirmedBefore = counters.confirmedCounts(keys);
+        addUsage(usage, USER_USAGE_SQL + " GROUP BY tenant_id", Resource.USERS);
+        addUsage(usage, AGENT_USAGE_SQL + " GROUP BY u.tenant_id", Resource.AGENTS);
+
+        Map<String, Long> values = new HashMap<>();
+        usage.forEach((tenantId, counts) -> {
+            for (Resource resource : Resource.values()) {
+                if (counts[resource.ordinal()] >= 0) {
+                    values.put(key(tenantId, resource), counts[resource.ordinal()]);
+                }
+            }
+        });
+        counters.reconcile(values, confirmedBefore, pendingTimeout);
+        log.info("Tenant quota reconciliation updated {} counters of {} tenants in {} ms",
+            values.size(), usage.size(), System.currentTimeMillis() - startTime);
+        return values.size();
+    }
+
+    // === Private Methods ===
+
+    private long limit(UUID tenantId, Resource resource) {
+        Tenant tenant = tenantService.findById(tenantId)
+            .orElseThrow(() -> new IllegalArgumentException("Tenant not found: " + tenantId));
+        Integer limit = resource == Resource.USERS ? tenant.getMaxUsers() : tenant.getMaxAgents();
+        return limit != null ? limit : -1;
+    }
+
+    private long countUsage(UUID tenantId, Resource resource) {
+        String sql = resource == Resource.USERS
+            ? USER_USAGE_SQL + " AND tenant_id = ? GROUP BY tenant_id"
+            : AGENT_USAGE_SQL + " AND u.tenant_id = ? GROUP BY u.tenant_id";
+        return jdbcTemplate.query(sql, rs -> rs.next() ? rs.getLong(2) : 0L, tenantId);
+    }
+
+    private void addUsage(Map<UUID, long[]> usage, String sql, Resource resource) {
+        jdbcTemplate.query(sql, rs -> {
+            long[] counts = usage.get(rs.getObject(1, UUID.class));
+            if (counts != null && counts[resource.ordinal()] >= 0) {
+                counts[resource.ordinal()] += rs.getLong(2);
+            }
+        });
+    }
+
+    private static String key(UUID tenantId, Resource resource) {
+        // Hash tag: the keys of one counter must live in the same Redis Cluster slot
+        return KEY_PREFIX + "{" + resource.name().toLowerCase(Locale.ROOT) + ":" + tenantId + "}";
+    }
+
+    /**
+     * One unit of a tenant quota, reserved until it is confirmed or released.
+     */
+    public static final class Reservation {
+
+        private final UUID tenantId;
+        private final Resource resource;
+        private final String id;
+
+        Reservation(UUID tenantId, Resource resource, String id) {
+            this.tenantId = tenantId;
+            this.resource = resource;
+            this.id = id;
+        }
+
+        public UUID getTenantId() { return tenantId; }
+        public Resource getResource() { return resource; }
+        public String getId() { return id; }
+    }
+}
@@ -0,0 +1,182 @@
+package com.rapidobackup.console.tenant.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.rapidobackup.console.tenant.dto.TenantTreeNode;
+import com.rapidobackup.console.tenant.repository.TenantRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Recomputes every tenant rollup from the source tables and repairs the rows that drifted.
+ *
+ * Own counts are loaded with three grouped queries and summed bottom-up over the hierarchy
+ * in memory, so a full pass is O(tenants) regardless of depth. The rollup table is locked
+ * against concurrent increments for the duration of the pass: writers that already applied
+ * a delta are committed before the snapshot is taken, and writers that have not yet applied
+ * theirs will do so on top of the repaired values.
+ *
+ * Runs on a schedule ({@code console.tenant.rollup.reconcile-cron}) and, unless disabled,
+ * once at startup to create missing rows. Repaired rows are counted in {@code tenant.rollup.repairs}.
+ */
+@Component
+public class TenantRollupReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantRollupReconciler.class);
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String UPSERT_ROLLUP_SQL = """
+        INSERT INTO tenant_rollups (tenant_id, descendant_count, user_count, agent_count, used_storage_gb, updated_at)
+        VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+        ON CONFLICT (tenant_id) DO UPDATE
+        SET descendant_count = EXCLUDED.descendant_count,
+            user_count = EXCLUDED.user_count,
+            agent_count = EXCLUDED.agent_count,
+            used_storage_gb = EXCLUDED.used_storage_gb,
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    private final TenantRepository tenantRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean reconcileOnStartup;
+    private final Counter repairs;
+
+    public TenantRollupReconciler(TenantRepository tenantRepository, JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                  @Value("${console.tenant.rollup.reconcile-on-startup:true}") boolean reconcileOnStartup) {
+        this.tenantRepository = tenantRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileOnStartup = reconcileOnStartup;
+        this.repairs = Counter.builder("tenant.rollup.repairs")
+            .description("Tenant rollup rows created, corrected or removed by reconciliation")
+            .register(meterRegistry);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (reconcileOnStartup) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${console.tenant.rollup.reconcile-cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Recompute all rollups and repair drifted, missing and orphaned rows.
+     *
+     * @return the number of repaired rows
+     */
+    public int reconcile() {
+        // Programmatic transaction: also invoked internally from the startup and scheduled triggers
+        return transactionTemplate.execute(status -> reconcileInTransaction());
+    }
+
+    // === Private Methods ===
+
+    private int reconcileInTransaction() {
+        long startTime = System.currentTimeMillis();
+        jdbcTemplate.execute("LOCK TABLE tenant_rollups IN SHARE ROW EXCLUSIVE MODE");
+
+        // Own (non-cumulative) values per tenant
+        Map<UUID, long[]> totals = new HashMap<>();
+        List<TenantTreeNode> nodes = new ArrayList<>(tenantRepository.findAllTreeNodes());
+        for (TenantTreeNode node : nodes) {
+            totals.put(node.getId(), new long[4]);
+        }
+        addOwnValues(totals, "SELECT tenant_id, COUNT(*) FROM users WHERE deleted_at IS NULL GROUP BY tenant_id", 1);
+        addOwnValues(totals, """
+            SELECT u.tenant_id, COUNT(*) FROM agents a JOIN users u ON u.id = a.assigned_user_id
+            WHERE u.deleted_at IS NULL GROUP BY u.tenant_id
+            """, 2);
+        addOwnValues(totals, "SELECT id, used_storage_gb FROM tenants WHERE deleted_at IS NULL AND used_storage_gb <> 0", 3);
+
+        // Roll up bottom-up: deepest levels first, each node adds itself and its totals to its parent
+        nodes.sort(Comparator.comparingInt(TenantTreeNode::getLevel).reversed());
+        for (TenantTreeNode node : nodes) {
+            long[] parent = node.getParentId() != null ? totals.get(node.getParentId()) : null;
+            if (parent != null) {
+                long[] own = totals.get(node.getId());
+                parent[0] += own[0] + 1;
+                parent[1] += own[1];
+                parent[2] += own[2];
+                parent[3] += own[3];
+            }
+        }
+
+        // Compare with the stored rows
+        Map<UUID, long[]> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT tenant_id, descendant_count, user_count, agent_count, used_storage_gb FROM tenant_rollups",
+            rs -> {
+                stored.put(rs.getObject(1, UUID.class),
+                    new long[] {rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5)});
+            });
+
+        List<Map.Entry<UUID, long[]>> drifted = new ArrayList<>();
+        for (Map.Entry<UUID, long[]> entry : totals.entrySet()) {
+            long[] current = stored.get(entry.getKey());
+            if (current == null || !Arrays.equals(current, entry.getValue())) {
+                drifted.add(entry);
+            }
+        }
+        Set<UUID> orphaned = new HashSet<>(stored.keySet());
+        orphaned.removeAll(totals.keySet());
+
+        jdbcTemplate.batchUpdate(UPSERT_ROLLUP_SQL, drifted, BATCH_SIZE, (ps, entry) -> {
+            long[] values = entry.getValue();
+            ps.setObject(1, entry.getKey());
+            ps.setLong(2, values[0]);
+            ps.setLong(3, values[1]);
+            ps.setLong(4, values[2]);
+            ps.setLong(5, values[3]);
+        });
+        jdbcTemplate.batchUpdate("DELETE FROM tenant_rollups WHERE tenant_id = ?", orphaned, BATCH_SIZE,
+            (ps, tenantId) -> ps.setObject(1, tenantId));
+
+        int repaired = drifted.size() + orphaned.size();
+        repairs.increment(repaired);
+        if (repaired > 0) {
+            log.warn("Tenant rollup reconciliation repaired {} rows ({} drifted or missing, {} orphaned) in {} ms",
+                repaired, drifted.size(), orphaned.size(), System.currentTimeMillis() - startTime);
+        } else {
+            log.info("Tenant rollup reconciliation found no drift across {} tenants in {} ms",
+                totals.size(), System.currentTimeMillis() - startTime);
+        }
+        return repaired;
+    }
+
+    private void addOwnValues(Map<UUID, long[]> totals, String sql, int column) {
+        jdbcTemplate.query(sql, rs -> {
+            long[] values = totals.get(rs.getObject(1, UUID.class));
+            if (values != null) {
+                values[column] += rs.getLong(2);
+            }
+        });
+    }
+}
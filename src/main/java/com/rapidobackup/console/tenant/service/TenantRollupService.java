@@ -0,0 +1,190 @@
+package com.rapidobackup.console.tenant.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.rapidobackup.console.agent.event.AgentAssignmentChangedEvent;
+import com.rapidobackup.console.tenant.dto.TenantTreeNode;
+import com.rapidobackup.console.tenant.entity.TenantRollup;
+import com.rapidobackup.console.tenant.repository.TenantRollupRepository;
+import com.rapidobackup.console.user.repository.UserRepository;
+
+/**
+ * Incremental maintenance of per-tenant subtree rollups (descendants, users, agents, storage).
+ *
+ * Every change is turned into a delta applied to the affected tenant and each of its
+ * ancestors, resolved from the {@link TenantTreeIndex}. A change costs one UPDATE of at most
+ * {@code console.tenant.max-hierarchy-depth} rows, and reading the totals of any subtree is
+ * a primary key lookup.
+ *
+ * Deltas are applied in the caller's transaction. Agents live in the reactive module, so
+ * their changes arrive asynchronously as {@link AgentAssignmentChangedEvent}s. Any drift
+ * (bulk SQL, missed events) is repaired by {@link TenantRollupReconciler}.
+ */
+@Service
+@Transactional
+public class TenantRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantRollupService.class);
+    private static final int BATCH_SIZE = 1000;
+
+    private final TenantRollupRepository rollupRepository;
+    private final TenantTreeIndex tenantTreeIndex;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public TenantRollupService(TenantRollupRepository rollupRepository, TenantTreeIndex tenantTreeIndex,
+                               UserRepository userRepository, JdbcTemplate jdbcTemplate) {
+        this.rollupRepository = rollupRepository;
+        this.tenantTreeIndex = tenantTreeIndex;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // === Reads ===
+
+    @Transactional(readOnly = true)
+    public Optional<TenantRollup> getRollup(UUID tenantId) {
+        return rollupRepository.findById(tenantId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TenantRollup> getRollups(Collection<UUID> tenantIds) {
+        if (tenantIds.isEmpty()) {
+            return List.of();
+        }
+        return rollupRepository.findByTenantIdIn(tenantIds);
+    }
+
+    // === Tenant changes ===
+
+    /**
+     * Register a tenant that was just added to the tree index.
+     */
+    public void onTenantCreated(UUID tenantId) {
+        rollupRepository.insertEmpty(tenantId);
+        applyDelta(ancestorIds(tenantId), 1, 0, 0, 0);
+    }
+
+    /**
+     * Register a batch of tenants that were just added to the tree index (bulk provisioning).
+     */
+    public void onTenantsCreated(Collection<TenantTreeNode> created) {
+        jdbcTemplate.batchUpdate("INSERT INTO tenant_rollups (tenant_id) VALUES (?) ON CONFLICT (tenant_id) DO NOTHING",
+            created, BATCH_SIZE, (ps, node) -> ps.setObject(1, node.getId()));
+
+        // Each new tenant adds one descendant to every ancestor, new or existing
+        Map<UUID, Long> descendantDeltas = new HashMap<>();
+        for (TenantTreeNode node : created) {
+            for (TenantTreeNode ancestor : tenantTreeIndex.ancestors(node.getId())) {
+                descendantDeltas.merge(ancestor.getId(), 1L, Long::sum);
+            }
+        }
+        jdbcTemplate.batchUpdate(
+            "UPDATE tenant_rollups SET descendant_count = descendant_count + ?, updated_at = CURRENT_TIMESTAMP WHERE tenant_id = ?",
+            descendantDeltas.entrySet(), BATCH_SIZE, (ps, entry) -> {
+                ps.setLong(1, entry.getValue());
+                ps.setObject(2, entry.getKey());
+            });
+        log.debug("Registered rollups for {} new tenants ({} ancestors updated)", created.size(), descendantDeltas.size());
+    }
+
+    /**
+     * Move the totals of a subtree from its previous ancestors to its current ones.
+     * Must be called after the tree index reflects the move.
+     */
+    public void onSubtreeMoved(UUID tenantId, List<UUID> previousAncestorIds) {
+        List<UUID> currentAncestorIds = ancestorIds(tenantId);
+        Set<UUID> unchanged = new HashSet<>(previousAncestorIds);
+        unchanged.retainAll(currentAncestorIds);
+
+        TenantRollup totals = subtreeTotals(tenantId);
+        long descendants = totals.getDescendantCount() + 1;
+        applyDelta(without(previousAncestorIds, unchanged),
+            -descendants, -totals.getUserCount(), -totals.getAgentCount(), -totals.getUsedStorageGb());
+        applyDelta(without(currentAncestorIds, unchanged),
+            descendants, totals.getUserCount(), totals.getAgentCount(), totals.getUsedStorageGb());
+    }
+
+    /**
+     * Subtract the totals of a removed subtree from its ancestors.
+     * Must be called before the subtree is removed from the tree index.
+     */
+    public void onSubtreeRemoved(UUID tenantId) {
+        TenantRollup totals = subtreeTotals(tenantId);
+        applyDelta(ancestorIds(tenantId), -(totals.getDescendantCount() + 1),
+            -totals.getUserCount(), -totals.getAgentCount(), -totals.getUsedStorageGb());
+    }
+
+    // === User and agent changes ===
+
+    /**
+     * Add (or, with a negative delta, remove) users of a tenant.
+     */
+    public void onUsersChanged(UUID tenantId, long delta) {
+        applyDelta(selfAndAncestorIds(tenantId), 0, delta, 0, 0);
+    }
+
+    @Async
+    @EventListener
+    public void onAgentAssignmentChanged(AgentAssignmentChangedEvent event) {
+        if (event.getPreviousUserId() != null) {
+            userRepository.findTenantIdById(event.getPreviousUserId())
+                .ifPresent(tenantId -> applyDelta(selfAndAncestorIds(tenantId), 0, 0, -1, 0));
+        }
+        if (event.getNewUserId() != null) {
+            userRepository.findTenantIdById(event.getNewUserId())
+                .ifPresent(tenantId -> applyDelta(selfAndAncestorIds(tenantId), 0, 0, 1, 0));
+        }
+    }
+
+    // === Private Methods ===
+
+    private void applyDelta(Collection<UUID> tenantIds, long descendants, long users, long agents, long storageGb) {
+        if (tenantIds.isEmpty()) {
+            return;
+        }
+        rollupRepository.applyDelta(tenantIds, descendants, users, agents, storageGb);
+    }
+
+    /**
+     * Current totals of a subtree; falls back to the index descendant count if the row is missing.
+     * Read with JDBC so that earlier increments in this transaction are always visible.
+     */
+    private TenantRollup subtreeTotals(UUID tenantId) {
+        List<TenantRollup> rows = jdbcTemplate.query(
+            "SELECT descendant_count, user_count, agent_count, used_storage_gb FROM tenant_rollups WHERE tenant_id = ?",
+            (rs, rowNum) -> new TenantRollup(tenantId, rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)),
+            tenantId);
+        return rows.isEmpty() ? new TenantRollup(tenantId, tenantTreeIndex.countDescendants(tenantId), 0, 0, 0) : rows.get(0);
+    }
+
+    private List<UUID> ancestorIds(UUID tenantId) {
+        return tenantTreeIndex.ancestors(tenantId).stream().map(TenantTreeNode::getId).toList();
+    }
+
+    private List<UUID> selfAndAncestorIds(UUID tenantId) {
+        List<UUID> ids = new ArrayList<>(ancestorIds(tenantId));
+        ids.add(tenantId);
+        return ids;
+    }
+
+    private static List<UUID> without(List<UUID> ids, Set<UUID> excluded) {
+        return ids.stream().filter(id -> !excluded.contains(id)).toList();
+    }
+}
@@ -1,21 +1,39 @@
 package com.rapidobackup.console.tenant.service;
 
-import com.rapidobackup.console.common.util.SlugUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rapidobackup.console.common.dto.KeysetPage;
+import com.rapidobackup.console.contact.repository.ContactRepository;
+import com.rapidobackup.console.tenant.dto.TenantCursor;
+import com.rapidobackup.console.tenant.dto.TenantDeletionResult;
+import com.rapidobackup.console.tenant.dto.TenantJsonFilter;
+import com.rapidobackup.console.tenant.dto.TenantJsonPredicate;
+import com.rapidobackup.console.tenant.dto.TenantSummary;
+import com.rapidobackup.console.tenant.dto.TenantTreeItem;
+import com.rapidobackup.console.tenant.dto.TenantTreeNode;
 import com.rapidobackup.console.tenant.entity.Tenant;
+import com.rapidobackup.console.tenant.entity.TenantAttributes;
 import com.rapidobackup.console.tenant.entity.TenantStatus;
 import com.rapidobackup.console.tenant.entity.TenantType;
+import com.rapidobackup.console.tenant.repository.TenantAttributesRepository;
 import com.rapidobackup.console.tenant.repository.TenantRepository;
+import com.rapidobackup.console.user.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -31,8 +49,10 @@ import java.util.UUID;
  *
  * Design considerations:
  * - Uses "/" as path separator (more readable than ".")
- * - Limits hierarchy depth to 5 levels for performance
- * - Implements caching for read-heavy operations
+ * - Builds paths from immutable, fixed-width path keys: renames never rewrite a subtree
+ * - Limits hierarchy depth ({@code console.tenant.max-hierarchy-depth}, 5 levels by default)
+ * - Implements caching for read-heavy operations, invalidated per branch on writes
+ * - Answers navigation and counting from the in-memory {@link TenantTreeIndex}
  * - Ensures data integrity during hierarchy modifications
  */
 @Service
@@ -40,47 +60,89 @@ import java.util.UUID;
 public class TenantService {
 
     private static final Logger log = LoggerFactory.getLogger(TenantService.class);
-    private static final int MAX_HIERARCHY_DEPTH = 5;
+    // 6-character keys plus separator: 100 levels stay well within the 1000-character path column
+    static final int MAX_SUPPORTED_HIERARCHY_DEPTH = 100;
+    private static final int MAX_PAGE_SIZE = 500;
 
     private final TenantRepository tenantRepository;
-
-    public TenantService(TenantRepository tenantRepository) {
+    private final TenantTreeIndex tenantTreeIndex;
+    private final TenantCacheInvalidator cacheInvalidator;
+    private final TenantSlugAllocator slugAllocator;
+    private final TenantBranchLocker branchLocker;
+    private final TenantRollupService rollupService;
+    private final UserRepository userRepository;
+    private final ContactRepository contactRepository;
+    private final TenantAttributesRepository attributesRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxHierarchyDepth;
+
+    public TenantService(TenantRepository tenantRepository, TenantTreeIndex tenantTreeIndex,
+                         TenantCacheInvalidator cacheInvalidator, TenantSlugAllocator slugAllocator,
+                         TenantBranchLocker branchLocker, TenantRollupService rollupService, UserRepository userRepository,
+                         ContactRepository contactRepository, TenantAttributesRepository attributesRepository,
+                         ObjectMapper objectMapper, @Value("${console.tenant.max-hierarchy-depth:5}") int maxHierarchyDepth) {
         this.tenantRepository = tenantRepository;
+        this.tenantTreeIndex = tenantTreeIndex;
+        this.cacheInvalidator = cacheInvalidator;
+        this.slugAllocator = slugAllocator;
+        this.branchLocker = branchLocker;
+        this.rollupService = rollupService;
+        this.userRepository = userRepository;
+        this.contactRepository = contactRepository;
+        this.attributesRepository = attributesRepository;
+        this.objectMapper = objectMapper;
+        this.maxHierarchyDepth = checkMaxHierarchyDepth(maxHierarchyDepth);
+    }
+
+    /**
+     * Validate a configured maximum hierarchy depth.
+     */
+    static int checkMaxHierarchyDepth(int maxHierarchyDepth) {
+        if (maxHierarchyDepth < 1 || maxHierarchyDepth > MAX_SUPPORTED_HIERARCHY_DEPTH) {
+            throw new IllegalArgumentException("Maximum hierarchy depth must be between 1 and " + MAX_SUPPORTED_HIERARCHY_DEPTH
+                + ", got " + maxHierarchyDepth);
+        }
+        return maxHierarchyDepth;
     }
 
     // === CRUD Operations ===
 
     /**
-     * Create a new tenant with automatic slug generation and path calculation.
+     * Create a new tenant with automatic slug generation, path key allocation and path calculation.
      */
     public Tenant createTenant(String name, String displayName, TenantType tenantType, UUID parentId) {
         log.debug("Creating tenant: name={}, type={}, parentId={}", name, tenantType, parentId);
 
         // Generate unique slug
-        String slug = SlugUtils.generateUniqueSlug(name, tenantRepository::existsBySlug);
+        String slug = slugAllocator.allocate(name);
 
         Tenant tenant = new Tenant();
         tenant.setName(name);
         tenant.setDisplayName(displayName != null ? displayName : name);
         tenant.setSlug(slug);
+        tenant.setPathKey(tenantRepository.allocatePathKeys(1).get(0));
         tenant.setTenantType(tenantType);
         tenant.setStatus(TenantStatus.ACTIVE);
 
         // Set parent and validate hierarchy depth
         if (parentId != null) {
+            // The parent must not move while the child's path is derived from it
+            branchLocker.lockForAttach(List.of(getTreeNode(parentId, "Parent tenant not found: ")));
             Tenant parent = findById(parentId)
                 .orElseThrow(() -> new IllegalArgumentException("Parent tenant not found: " + parentId));
 
-            if (parent.getLevel() >= MAX_HIERARCHY_DEPTH - 1) {
-                throw new IllegalArgumentException("Maximum hierarchy depth exceeded. Current max level: " + MAX_HIERARCHY_DEPTH);
+            if (parent.getLevel() >= maxHierarchyDepth - 1) {
+                throw new IllegalArgumentException("Maximum hierarchy depth exceeded. Current max level: " + maxHierarchyDepth);
             }
 
             tenant.setParent(parent);
         }
 
-        // Save and clear cache
+        // Save and evict the affected cache entries
         tenant = tenantRepository.save(tenant);
-        clearHierarchyCache();
+        tenantTreeIndex.onCreated(tenant);
+        rollupService.onTenantCreated(tenant.getId());
+        cacheInvalidator.evictBranch(tenant.getId(), tenant.getSlug());
 
         log.info("Created tenant: id={}, slug={}, path={}", tenant.getId(), tenant.getSlug(), tenant.getPath());
         return tenant;
@@ -88,6 +150,7 @@ public class TenantService {
 
     /**
      * Update tenant with slug regeneration if name changed.
+     * Paths do not depend on the slug, so a rename only updates the tenant's own row.
      */
     public Tenant updateTenant(UUID tenantId, String name, String displayName, TenantType tenantType) {
         log.debug("Updating tenant: id={}, name={}, type={}", tenantId, name, tenantType);
@@ -96,19 +159,20 @@ public class TenantService {
             .orElseThrow(() -> new IllegalArgumentException("Tenant not found: " + tenantId));
 
         boolean nameChanged = !tenant.getName().equals(name);
+        String oldSlug = tenant.getSlug();
         tenant.setName(name);
         tenant.setDisplayName(displayName != null ? displayName : name);
         tenant.setTenantType(tenantType);
 
         // Regenerate slug if name changed
         if (nameChanged) {
-            String newSlug = SlugUtils.generateUniqueSlug(name,
-                slug -> tenantRepository.existsBySlugAndIdNot(slug, tenantId));
+            String newSlug = slugAllocator.allocateForRename(name, oldSlug);
             tenant.setSlug(newSlug);
         }
 
         tenant = tenantRepository.save(tenant);
-        clearHierarchyCache();
+        tenantTreeIndex.onUpdated(tenant);
+        cacheInvalidator.evictBranch(tenant.getId(), oldSlug, tenant.getSlug());
 
         log.info("Updated tenant: id={}, slug={}", tenant.getId(), tenant.getSlug());
         return tenant;
@@ -116,10 +180,20 @@ public class TenantService {
 
     /**
      * Move tenant to a new parent, recalculating paths for all descendants.
+     *
+     * The descendants are rewritten with a single set-based UPDATE on the old path prefix,
+     * so no descendant entity is loaded into the persistence context. Moves are locked per
+     * branch by {@link TenantBranchLocker}: moves in disjoint branches run in parallel, and
+     * a move colliding with a concurrent change fails with a {@code RetryableConflictException}.
      */
     public Tenant moveTenant(UUID tenantId, UUID newParentId) {
         log.debug("Moving tenant: id={}, newParentId={}", tenantId, newParentId);
 
+        // Lock the moved branch and the destination; overlapping concurrent changes fail fast
+        TenantTreeNode branchNode = getTreeNode(tenantId, "Tenant not found: ");
+        TenantTreeNode newParentNode = newParentId != null ? getTreeNode(newParentId, "New parent tenant not found: ") : null;
+        branchLocker.lockForMove(branchNode, newParentNode);
+
         Tenant tenant = findById(tenantId)
             .orElseThrow(() -> new IllegalArgumentException("Tenant not found: " + tenantId));
 
@@ -128,77 +202,115 @@ public class TenantService {
             newParent = findById(newParentId)
                 .orElseThrow(() -> new IllegalArgumentException("New parent tenant not found: " + newParentId));
 
-            // Validate hierarchy depth
-            if (newParent.getLevel() >= MAX_HIERARCHY_DEPTH - 1) {
+            // Validate hierarchy depth, including the deepest descendant of the moved subtree
+            Integer deepestLevel = tenantRepository.findMaxLevelUnder(tenant.getPath() + Tenant.PATH_SEPARATOR + "%");
+            int subtreeHeight = deepestLevel != null ? deepestLevel - tenant.getLevel() : 0;
+            if (newParent.getLevel() + subtreeHeight >= maxHierarchyDepth - 1) {
                 throw new IllegalArgumentException("Moving tenant would exceed maximum hierarchy depth");
             }
 
-            // Check for circular reference
-            if (tenantRepository.wouldCreateCircularReference(newParentId, tenant.getPath() + Tenant.PATH_SEPARATOR + "%")) {
+            // Check for circular reference, on the rows read once both branches are locked
+            if (newParentId.equals(tenantId) || newParent.getPath().startsWith(tenant.getPath() + Tenant.PATH_SEPARATOR)) {
                 throw new IllegalArgumentException("Cannot move tenant: would create circular reference");
             }
         }
 
-        // Store old path for updating descendants
+        // Store old position for updating descendants
         String oldPath = tenant.getPath();
-    String oldPathPrefix = oldPath + Tenant.PATH_SEPARATOR + "%";
-
-        // Update tenant's parent
-        tenant.setParent(newParent);
-        tenant = tenantRepository.save(tenant); // This triggers path recalculation
+        int oldLevel = tenant.getLevel();
+        String newPath = newParent != null ? newParent.getPath() + Tenant.PATH_SEPARATOR + tenant.getPathKey() : tenant.getPathKey();
+        int newLevel = newParent != null ? newParent.getLevel() + 1 : 0;
 
-        // Update paths for all descendants
-        List<Tenant> descendantsToUpdate = tenantRepository.findTenantsToUpdatePath(oldPathPrefix);
-        for (Tenant descendant : descendantsToUpdate) {
-            // Replace old path prefix with new path
-            String newDescendantPath = descendant.getPath().replace(oldPath, tenant.getPath());
-            descendant.setPath(newDescendantPath);
-            descendant.setLevel(countPathSegments(newDescendantPath));
-        }
+        // Evict entries of the branch at its old position
+        cacheInvalidator.evictBranch(tenantId, tenant.getSlug());
+        List<UUID> oldAncestorIds = tenantTreeIndex.ancestors(tenantId).stream().map(TenantTreeNode::getId).toList();
 
-        if (!descendantsToUpdate.isEmpty()) {
-            tenantRepository.saveAll(descendantsToUpdate);
-            log.info("Updated paths for {} descendants", descendantsToUpdate.size());
+        // Update tenant's parent and position
+        tenant.setParent(newParent);
+        tenant.setPath(newPath);
+        tenant.setLevel(newLevel);
+        tenant = tenantRepository.saveAndFlush(tenant);
+
+        // Rewrite paths and levels for all descendants in one statement
+        int updatedDescendants = tenantRepository.moveSubtree(
+            oldPath + Tenant.PATH_SEPARATOR + "%", oldPath.length(), newPath, newLevel - oldLevel);
+        if (updatedDescendants > 0) {
+            log.info("Updated paths for {} descendants", updatedDescendants);
         }
 
-        clearHierarchyCache();
-        log.info("Moved tenant: id={}, oldPath={}, newPath={}", tenantId, oldPath, tenant.getPath());
+        tenantTreeIndex.onMoved(tenantId, newParentId);
+        rollupService.onSubtreeMoved(tenantId, oldAncestorIds);
+        cacheInvalidator.evictAncestors(tenantId);
+        log.info("Moved tenant: id={}, oldPath={}, newPath={}", tenantId, oldPath, newPath);
         return tenant;
     }
 
     /**
      * Soft delete tenant and all its descendants.
+     *
+     * The branch is closed with set-based UPDATEs on the path prefix, cascading to the users
+     * and contacts of every closed tenant, so memory usage does not depend on the branch size.
      */
-    @CacheEvict(value = {"tenants", "tenantHierarchy"}, allEntries = true)
-    public void deleteTenant(UUID tenantId, boolean cascade) {
+    public TenantDeletionResult deleteTenant(UUID tenantId, boolean cascade) {
         log.debug("Deleting tenant: id={}, cascade={}", tenantId, cascade);
 
-        Tenant tenant = findById(tenantId)
-            .orElseThrow(() -> new IllegalArgumentException("Tenant not found: " + tenantId));
-
-        if (cascade) {
-            // Soft delete all descendants
-            List<Tenant> descendants = findAllDescendants(tenantId);
-            for (Tenant descendant : descendants) {
-                descendant.setStatus(TenantStatus.CLOSED);
-                descendant.setDeletedAt(Instant.now());
-            }
-            tenantRepository.saveAll(descendants);
-            log.info("Soft deleted {} descendants", descendants.size());
-        } else {
-            // Check if tenant has children
-            long childrenCount = tenantRepository.countDirectChildren(tenantId);
-            if (childrenCount > 0) {
-                throw new IllegalArgumentException("Cannot delete tenant with children. Use cascade=true or move children first.");
-            }
+        TenantTreeNode node = getTreeNode(tenantId, "Tenant not found: ");
+        branchLocker.lockForDelete(node);
+        if (!cascade && tenantRepository.countDirectChildren(tenantId) > 0) {
+            throw new IllegalArgumentException("Cannot delete tenant with children. Use cascade=true or move children first.");
         }
 
-        // Soft delete the tenant itself
-        tenant.setStatus(TenantStatus.CLOSED);
-        tenant.setDeletedAt(Instant.now());
-        tenantRepository.save(tenant);
+        // Scope caches and rollups while the branch is still in the index
+        cacheInvalidator.evictBranch(tenantId);
+        rollupService.onSubtreeRemoved(tenantId);
+
+        // Users and contacts first: their statements select the branch's tenants that are still live
+        String path = node.getPath();
+        String pathPrefix = path + Tenant.PATH_SEPARATOR + "%";
+        Instant deletedAt = Instant.now();
+        int deletedUsers = userRepository.softDeleteByTenantPath(path, pathPrefix, deletedAt);
+        int deletedContacts = contactRepository.softDeleteByTenantPath(path, pathPrefix, deletedAt);
+        int deletedTenants = tenantRepository.softDeleteSubtree(path, pathPrefix, deletedAt);
+
+        tenantTreeIndex.onDeleted(tenantId);
+
+        log.info("Soft deleted tenant: id={}, tenants={}, users={}, contacts={}",
+            tenantId, deletedTenants, deletedUsers, deletedContacts);
+        return new TenantDeletionResult(tenantId, deletedTenants, deletedUsers, deletedContacts);
+    }
+
+    // === Attributes ===
+
+    /**
+     * JSONB attributes of a tenant, which {@link Tenant} does not load (for edit screens).
+     */
+    @Transactional(readOnly = true)
+    public Optional<TenantAttributes> findAttributes(UUID tenantId) {
+        return attributesRepository.findById(tenantId);
+    }
+
+    /**
+     * Replace JSONB attributes of a tenant; null arguments leave the attribute unchanged.
+     */
+    public TenantAttributes updateAttributes(UUID tenantId, Map<String, Object> billingAddress,
+                                             Map<String, Object> settings, Map<String, Object> customAttributes) {
+        TenantAttributes attributes = attributesRepository.findById(tenantId)
+            .orElseThrow(() -> new IllegalArgumentException("Tenant not found: " + tenantId));
+        if (billingAddress != null) {
+            attributes.setBillingAddress(billingAddress);
+        }
+        if (settings != null) {
+            attributes.setSettings(settings);
+        }
+        if (customAttributes != null) {
+            attributes.setCustomAttributes(customAttributes);
+        }
+        attributes = attributesRepository.saveAndFlush(attributes);
 
-        log.info("Soft deleted tenant: id={}", tenantId);
+        // The row version changed: cached tenants would fail their next optimistic update
+        cacheInvalidator.evictTenant(tenantId);
+        log.info("Updated attributes of tenant: id={}", tenantId);
+        return attributes;
     }
 
     // === Hierarchy Navigation ===
@@ -220,59 +332,225 @@ public class TenantService {
 
     @Cacheable(value = "tenantHierarchy", key = "'children:' + #parentId")
     public List<Tenant> findDirectChildren(UUID parentId) {
+        if (tenantTreeIndex.childIds(parentId).isEmpty()) {
+            return List.of();
+        }
         return tenantRepository.findDirectChildren(parentId);
     }
 
     @Cacheable(value = "tenantHierarchy", key = "'descendants:' + #parentId")
     public List<Tenant> findAllDescendants(UUID parentId) {
-        Tenant parent = findById(parentId)
-            .orElseThrow(() -> new IllegalArgumentException("Parent tenant not found: " + parentId));
-    String pathPrefix = parent.getPath() + Tenant.PATH_SEPARATOR + "%";
+        TenantTreeNode parent = getTreeNode(parentId, "Parent tenant not found: ");
+        if (tenantTreeIndex.childIds(parentId).isEmpty()) {
+            return List.of();
+        }
+        String pathPrefix = parent.getPath() + Tenant.PATH_SEPARATOR + "%";
         return tenantRepository.findAllDescendants(pathPrefix);
     }
 
     @Cacheable(value = "tenantHierarchy", key = "'ancestors:' + #tenantId")
     public List<Tenant> findAllAncestors(UUID tenantId) {
-        Tenant tenant = findById(tenantId)
-            .orElseThrow(() -> new IllegalArgumentException("Tenant not found: " + tenantId));
-
-        // Extract root path (first segment)
-    String[] pathSegments = tenant.getPath().split(Tenant.PATH_SEPARATOR);
-        String rootPath = pathSegments[0];
-
-        return tenantRepository.findAllAncestors(tenant.getPath(), rootPath);
+        TenantTreeNode node = getTreeNode(tenantId, "Tenant not found: ");
+        List<String> ancestorPaths = Tenant.ancestorPaths(node.getPath());
+        if (ancestorPaths.isEmpty()) {
+            return List.of();
+        }
+        return tenantRepository.findAllAncestors(ancestorPaths);
     }
 
     public List<Tenant> findActiveDescendants(UUID parentId) {
-        Tenant parent = findById(parentId)
-            .orElseThrow(() -> new IllegalArgumentException("Parent tenant not found: " + parentId));
-    String pathPrefix = parent.getPath() + Tenant.PATH_SEPARATOR + "%";
+        TenantTreeNode parent = getTreeNode(parentId, "Parent tenant not found: ");
+        String pathPrefix = parent.getPath() + Tenant.PATH_SEPARATOR + "%";
         return tenantRepository.findActiveDescendants(pathPrefix, TenantStatus.ACTIVE);
     }
 
+    /**
+     * Descendant nodes of a tenant (ordered by level) served from the in-memory index,
+     * for callers that only need ids, paths or statuses.
+     */
+    public List<TenantTreeNode> findDescendantNodes(UUID parentId) {
+        getTreeNode(parentId, "Parent tenant not found: ");
+        return tenantTreeIndex.descendants(parentId);
+    }
+
+    /**
+     * Ancestor nodes of a tenant (root first) served from the in-memory index.
+     */
+    public List<TenantTreeNode> findAncestorNodes(UUID tenantId) {
+        getTreeNode(tenantId, "Tenant not found: ");
+        return tenantTreeIndex.ancestors(tenantId);
+    }
+
+    /**
+     * Nested tree of a tenant and its descendants, optionally limited to {@code depth} levels
+     * below it (0 returns the tenant alone). Assembled in memory from a single path-ordered
+     * query; siblings are sorted by name.
+     */
+    @Transactional(readOnly = true)
+    public TenantTreeItem findTree(UUID rootId, Integer depth) {
+        TenantTreeNode root = getTreeNode(rootId, "Tenant not found: ");
+        if (depth != null && depth < 0) {
+            throw new IllegalArgumentException("Depth must not be negative");
+        }
+        int maxLevel = depth != null ? root.getLevel() + Math.min(depth, MAX_SUPPORTED_HIERARCHY_DEPTH) : Integer.MAX_VALUE;
+
+        List<TenantTreeItem> items = tenantRepository.findTreeItems(root.getPath(),
+            root.getPath() + Tenant.PATH_SEPARATOR + "%", maxLevel);
+        Map<UUID, TenantTreeItem> byId = new HashMap<>(items.size() * 2);
+        for (TenantTreeItem item : items) {
+            byId.put(item.getId(), item);
+        }
+        for (TenantTreeItem item : items) {
+            TenantTreeItem parent = item.getId().equals(rootId) ? null : byId.get(item.getParentId());
+            if (parent != null) {
+                parent.getChildren().add(item);
+            }
+        }
+        TenantTreeItem tree = byId.get(rootId);
+        if (tree == null) {
+            throw new IllegalArgumentException("Tenant not found: " + rootId);
+        }
+
+        Comparator<TenantTreeItem> byName = Comparator.comparing(TenantTreeItem::getName, String.CASE_INSENSITIVE_ORDER);
+        for (TenantTreeItem item : items) {
+            if (item.getLevel() < maxLevel) {
+                item.getChildren().sort(byName);
+                item.setChildCount(item.getChildren().size());
+            } else {
+                // Cut-off level: children are not included, report how many there are
+                item.setChildCount(tenantTreeIndex.childIds(item.getId()).size());
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Strong entity tag of a {@link #findTree} response, derived from the hierarchy version
+     * shared by all nodes: checking it costs a single-row lookup instead of building the tree.
+     */
+    public String treeETag(UUID rootId, Integer depth) {
+        return "tree-" + tenantTreeIndex.versionTag() + "-" + rootId + "-" + (depth != null ? depth : "all");
+    }
+
     // === Search and Statistics ===
 
-    public Page<Tenant> searchTenants(String searchTerm, TenantType tenantType, TenantStatus status,
-                                     UUID parentId, Pageable pageable) {
+    /**
+     * Search tenants with keyset pagination over (level, name, id).
+     *
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param includeTotal whether to compute an approximate total; it is only available when
+     *                     no search term is given, since it is derived from the tree index
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<TenantSummary> searchTenants(String searchTerm, TenantType tenantType, TenantStatus status,
+                                                   UUID parentId, String cursor, int size, boolean includeTotal) {
         String parentPath = null;
         if (parentId != null) {
-            Tenant parent = findById(parentId)
-                .orElseThrow(() -> new IllegalArgumentException("Parent tenant not found: " + parentId));
+            TenantTreeNode parent = getTreeNode(parentId, "Parent tenant not found: ");
+            parentPath = parent.getPath() + Tenant.PATH_SEPARATOR + "%";
+        }
+
+        TenantCursor after = TenantCursor.decode(cursor);
+        List<TenantSummary> rows = tenantRepository.searchTenants(searchTerm, tenantType, status, parentPath,
+            after.getLevel(), after.getName(), after.getId(), PageRequest.ofSize(validatePageSize(size) + 1));
+
+        Long total = null;
+        if (includeTotal && (searchTerm == null || searchTerm.isBlank())) {
+            total = tenantTreeIndex.count(parentId, node ->
+                (tenantType == null || node.getTenantType() == tenantType) &&
+                (status == null || node.getStatus() == status));
+        }
+        return toKeysetPage(rows, size, total);
+    }
+
+    /**
+     * Typo-tolerant search for tenant pickers, ranked by trigram similarity.
+     *
+     * Unlike {@link #searchTenants}, results are not paginated: only the best {@code limit}
+     * matches are returned.
+     */
+    @Transactional(readOnly = true)
+    public List<TenantSummary> fuzzySearchTenants(String searchTerm, TenantType tenantType, TenantStatus status,
+                                                  UUID parentId, int limit) {
+        if (searchTerm == null || searchTerm.isBlank()) {
+            throw new IllegalArgumentException("Search term is required");
+        }
+        String parentPath = null;
+        if (parentId != null) {
+            TenantTreeNode parent = getTreeNode(parentId, "Parent tenant not found: ");
+            parentPath = parent.getPath() + Tenant.PATH_SEPARATOR + "%";
+        }
+
+        String term = searchTerm.trim().toLowerCase(Locale.ROOT);
+        String pattern = "%" + term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        List<UUID> rankedIds = tenantRepository.fuzzySearchTenantIds(term, pattern,
+            tenantType != null ? tenantType.name() : null,
+            status != null ? status.name() : null,
+            parentPath, validatePageSize(limit));
+        return withChildCounts(summariesInOrder(rankedIds));
+    }
+
+    /**
+     * List descendants of a tenant with keyset pagination over (level, name, id).
+     *
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param includeTotal whether to include the descendant count from the tree index
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<TenantSummary> findAllDescendants(UUID parentId, String cursor, int size, boolean includeTotal) {
+        TenantTreeNode parent = getTreeNode(parentId, "Parent tenant not found: ");
+        validatePageSize(size);
+        Long total = includeTotal ? tenantTreeIndex.countDescendants(parentId) : null;
+        if (tenantTreeIndex.childIds(parentId).isEmpty()) {
+            return new KeysetPage<>(List.of(), null, total);
+        }
+
+        TenantCursor after = TenantCursor.decode(cursor);
+        List<TenantSummary> rows = tenantRepository.findDescendantsAfter(parent.getPath() + Tenant.PATH_SEPARATOR + "%",
+            after.getLevel(), after.getName(), after.getId(), PageRequest.ofSize(size + 1));
+        return toKeysetPage(rows, size, total);
+    }
+
+    /**
+     * Filter tenants on their JSONB custom attributes and settings, with keyset pagination
+     * over (level, name, id).
+     *
+     * Containment documents and key/value predicates are evaluated by PostgreSQL against the
+     * jsonb_path_ops GIN indexes; predicates that only test a key for existence cannot use
+     * them and should be combined with another criterion.
+     *
+     * @param cursor continuation token from the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<TenantSummary> filterTenants(TenantJsonFilter filter, String cursor, int size) {
+        validatePageSize(size);
+        String customAttributes = toContainment(filter.getCustomAttributes());
+        String settings = toContainment(filter.getSettings());
+        String customAttributesPredicate = toJsonPathPredicate(filter.getPredicates(), TenantJsonPredicate.Column.CUSTOM_ATTRIBUTES);
+        String settingsPredicate = toJsonPathPredicate(filter.getPredicates(), TenantJsonPredicate.Column.SETTINGS);
+        if (customAttributes == null && settings == null && customAttributesPredicate == null && settingsPredicate == null) {
+            throw new IllegalArgumentException("At least one attribute or setting criterion is required");
+        }
+
+        String parentPath = null;
+        if (filter.getParentId() != null) {
+            TenantTreeNode parent = getTreeNode(filter.getParentId(), "Parent tenant not found: ");
             parentPath = parent.getPath() + Tenant.PATH_SEPARATOR + "%";
         }
 
-        return tenantRepository.searchTenants(searchTerm, tenantType, status, parentPath, pageable);
+        TenantCursor after = TenantCursor.decode(cursor);
+        List<UUID> ids = tenantRepository.filterTenantIdsByJson(customAttributes, customAttributesPredicate,
+            settings, settingsPredicate, parentPath, after.getLevel(), after.getName(), after.getId(), size + 1);
+        return toKeysetPage(summariesInOrder(ids), size, null);
     }
 
     public long countDirectChildren(UUID parentId) {
-        return tenantRepository.countDirectChildren(parentId);
+        return tenantTreeIndex.childIds(parentId).size();
     }
 
     public long countAllDescendants(UUID parentId) {
-        Tenant parent = findById(parentId)
-            .orElseThrow(() -> new IllegalArgumentException("Parent tenant not found: " + parentId));
-    String pathPrefix = parent.getPath() + Tenant.PATH_SEPARATOR + "%";
-        return tenantRepository.countAllDescendants(pathPrefix);
+        getTreeNode(parentId, "Parent tenant not found: ");
+        return tenantTreeIndex.countDescendants(parentId);
     }
 
     // === Utility Methods ===
@@ -281,7 +559,7 @@ public class TenantService {
      * Generate a unique slug for a tenant name.
      */
     public String generateUniqueSlug(String name) {
-        return SlugUtils.generateUniqueSlug(name, tenantRepository::existsBySlug);
+        return slugAllocator.allocate(name);
     }
 
     /**
@@ -310,38 +588,118 @@ public class TenantService {
             return true; // Can always move to root
         }
 
-        Optional<Tenant> newParentOpt = findById(newParentId);
+        Optional<TenantTreeNode> newParentOpt = tenantTreeIndex.get(newParentId);
         if (newParentOpt.isEmpty()) {
             return false; // Parent doesn't exist
         }
 
-        Tenant newParent = newParentOpt.get();
-        if (newParent.getLevel() >= MAX_HIERARCHY_DEPTH - 1) {
+        TenantTreeNode newParent = newParentOpt.get();
+        if (newParent.getLevel() + tenantTreeIndex.subtreeHeight(tenantId) >= maxHierarchyDepth - 1) {
             return false; // Would exceed max depth
         }
 
-        Optional<Tenant> tenantOpt = findById(tenantId);
-        if (tenantOpt.isEmpty()) {
+        if (!tenantTreeIndex.contains(tenantId)) {
             return false; // Tenant doesn't exist
         }
 
-        Tenant tenant = tenantOpt.get();
-    String tenantPathPrefix = tenant.getPath() + Tenant.PATH_SEPARATOR + "%";
-
-        return !tenantRepository.wouldCreateCircularReference(newParentId, tenantPathPrefix);
+        return !newParentId.equals(tenantId) && !tenantTreeIndex.isDescendant(newParentId, tenantId);
     }
 
     // === Private Methods ===
 
-    @CacheEvict(value = {"tenants", "tenantHierarchy"}, allEntries = true)
-    private void clearHierarchyCache() {
-        log.debug("Cleared tenant hierarchy cache");
+    private int validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+
+    /**
+     * Trim the look-ahead row fetched to detect a next page and derive the continuation token.
+     */
+    private KeysetPage<TenantSummary> toKeysetPage(List<TenantSummary> rows, int size, Long total) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(withChildCounts(rows), null, total);
+        }
+        List<TenantSummary> content = withChildCounts(rows.subList(0, size));
+        return new KeysetPage<>(content, TenantCursor.after(content.get(size - 1)).encode(), total);
+    }
+
+    /**
+     * Load the summaries of tenants selected by a native query, keeping the order of the ids.
+     */
+    private List<TenantSummary> summariesInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, TenantSummary> byId = new HashMap<>();
+        for (TenantSummary summary : tenantRepository.findSummariesByIds(ids)) {
+            byId.put(summary.getId(), summary);
+        }
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private String toContainment(Map<String, Object> document) {
+        if (document.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(document);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid containment document: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Combine the predicates on one column into a single JSON path predicate, e.g.
+     * {@code ($."region" == "eu" || $."region" == "us") && exists($."crmId")}.
+     */
+    private String toJsonPathPredicate(List<TenantJsonPredicate> predicates, TenantJsonPredicate.Column column) {
+        List<String> conditions = new ArrayList<>();
+        for (TenantJsonPredicate predicate : predicates) {
+            if (predicate.getColumn() != column) {
+                continue;
+            }
+            StringBuilder path = new StringBuilder("$");
+            for (String key : predicate.getPath().split("\\.", -1)) {
+                if (key.isBlank()) {
+                    throw new IllegalArgumentException("Invalid attribute path: " + predicate.getPath());
+                }
+                path.append(".\"").append(key.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            }
+            if (predicate.getValues().isEmpty()) {
+                conditions.add("exists(" + path + ")");
+                continue;
+            }
+            List<String> alternatives = new ArrayList<>();
+            for (Object value : predicate.getValues()) {
+                alternatives.add(path + " == " + toJsonPathLiteral(value));
+            }
+            conditions.add("(" + String.join(" || ", alternatives) + ")");
+        }
+        return conditions.isEmpty() ? null : String.join(" && ", conditions);
+    }
+
+    private String toJsonPathLiteral(Object value) {
+        if (!(value instanceof String) && !(value instanceof Number) && !(value instanceof Boolean)) {
+            throw new IllegalArgumentException("Predicate values must be strings, numbers or booleans, got: " + value);
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid predicate value: " + value);
+        }
     }
 
-    private int countPathSegments(String path) {
-        if (path == null || path.isEmpty()) {
-            return 0;
+    private List<TenantSummary> withChildCounts(List<TenantSummary> summaries) {
+        for (TenantSummary summary : summaries) {
+            summary.setChildCount(tenantTreeIndex.childIds(summary.getId()).size());
         }
-    return path.split(Tenant.PATH_SEPARATOR).length - 1;
+        return summaries;
+    }
+
+    private TenantTreeNode getTreeNode(UUID tenantId, String notFoundMessage) {
+        return tenantTreeIndex.get(tenantId)
+            .orElseThrow(() -> new IllegalArgumentException(notFoundMessage + tenantId));
     }
 }
\ No newline at end of file
@@ -0,0 +1,283 @@
+package com.rapidobackup.console.tenant.service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rapidobackup.console.tenant.dto.EffectiveTenantSetting;
+import com.rapidobackup.console.tenant.dto.TenantSettingUpsert;
+import com.rapidobackup.console.tenant.dto.TenantSettingValue;
+import com.rapidobackup.console.tenant.dto.TenantTreeNode;
+import com.rapidobackup.console.tenant.entity.SettingValueType;
+import com.rapidobackup.console.tenant.entity.TenantSetting;
+import com.rapidobackup.console.tenant.repository.TenantRepository;
+import com.rapidobackup.console.tenant.repository.TenantSettingRepository;
+
+/**
+ * Tenant settings and their resolution along the hierarchy.
+ *
+ * The effective settings of a tenant are its own settings, completed by the settings its
+ * ancestors mark as inherited ({@code is_inherited}); for a given (category, key) the
+ * closest definition wins. Settings that are not inherited only apply to their own tenant.
+ *
+ * Ancestors are resolved from the {@link TenantTreeIndex} and the settings of the whole
+ * chain are read in one query. The merged map is cached per tenant in {@code tenantSettings};
+ * a write evicts the tenant's entry, plus those of its descendants when the written setting
+ * is (or was) inherited. Moves and deletes evict the branch through {@link TenantCacheInvalidator}.
+ *
+ * Bulk writes ({@link #upsertSettings}) are JDBC batches of {@code INSERT ... ON CONFLICT}
+ * statements, and bulk reads ({@link #findSettings}) select typed views without creating
+ * entities; both bypass the persistence context, so they should not be mixed with managed
+ * {@link TenantSetting} entities of the same tenants in one transaction.
+ */
+@Service
+@Transactional
+public class TenantSettingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantSettingService.class);
+    private static final int BATCH_SIZE = 1000;
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private static final String UPSERT_SETTING_SQL = """
+        INSERT INTO tenant_settings (id, tenant_id, category, setting_key, value_type, string_value, number_value,
+                                     boolean_value, json_value, is_inherited, created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?, ?, ?)
+        ON CONFLICT (tenant_id, category, setting_key) DO UPDATE
+        SET value_type = EXCLUDED.value_type,
+            string_value = EXCLUDED.string_value,
+            number_value = EXCLUDED.number_value,
+            boolean_value = EXCLUDED.boolean_value,
+            json_value = EXCLUDED.json_value,
+            is_inherited = EXCLUDED.is_inherited,
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    private final TenantSettingRepository settingRepository;
+    private final TenantRepository tenantRepository;
+    private final TenantTreeIndex tenantTreeIndex;
+    private final TenantCacheInvalidator cacheInvalidator;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public TenantSettingService(TenantSettingRepository settingRepository, TenantRepository tenantRepository,
+                                TenantTreeIndex tenantTreeIndex, TenantCacheInvalidator cacheInvalidator,
+                                JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.settingRepository = settingRepository;
+        this.tenantRepository = tenantRepository;
+        this.tenantTreeIndex = tenantTreeIndex;
+        this.cacheInvalidator = cacheInvalidator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    // === Resolution ===
+
+    /**
+     * Effective settings of a tenant, keyed by {@code category.key} and sorted by key.
+     */
+    @Cacheable(value = TenantCacheInvalidator.SETTINGS_CACHE, key = "#tenantId")
+    @Transactional(readOnly = true)
+    public Map<String, EffectiveTenantSetting> getEffectiveSettings(UUID tenantId) {
+        TenantTreeNode node = getTreeNode(tenantId);
+
+        // Position of each tenant in the chain, root first
+        List<TenantTreeNode> chain = new ArrayList<>(tenantTreeIndex.ancestors(tenantId));
+        chain.add(node);
+        Map<UUID, Integer> positions = new HashMap<>();
+        for (int i = 0; i < chain.size(); i++) {
+            positions.put(chain.get(i).getId(), i);
+        }
+
+        List<TenantSettingValue> settings = new ArrayList<>(settingRepository.findValues(positions.keySet(), null));
+        settings.sort(Comparator.comparingInt(setting -> positions.get(setting.getTenantId())));
+
+        // Ancestors first: closer definitions overwrite farther ones
+        Map<String, EffectiveTenantSetting> effective = new TreeMap<>();
+        for (TenantSettingValue setting : settings) {
+            boolean own = setting.getTenantId().equals(tenantId);
+            if (own || setting.isInherited()) {
+                effective.put(setting.getFullKey(), new EffectiveTenantSetting(setting, !own));
+            }
+        }
+
+        log.debug("Resolved {} effective settings of tenant {} from {} rows over {} levels",
+            effective.size(), tenantId, settings.size(), chain.size());
+        return Collections.unmodifiableMap(effective);
+    }
+
+    // === Own Settings ===
+
+    /**
+     * Create or update a setting of a tenant.
+     *
+     * @param value a String, Number, Boolean or Map (JSON) value
+     * @param inherited whether descendants inherit the setting unless they override it
+     */
+    public TenantSetting putSetting(UUID tenantId, String category, String key, Object value, boolean inherited) {
+        getTreeNode(tenantId);
+        validateKey(category, key);
+
+        TenantSetting setting = settingRepository.findSetting(tenantId, category, key).orElse(null);
+        boolean wasInherited = setting != null && Boolean.TRUE.equals(setting.getIsInherited());
+        if (setting == null) {
+            setting = new TenantSetting(tenantRepository.getReferenceById(tenantId), category, key, SettingValueType.STRING);
+        }
+        setting.setValue(value);
+        setting.setIsInherited(inherited);
+        setting = settingRepository.save(setting);
+
+        cacheInvalidator.evictSettings(tenantId, inherited || wasInherited);
+        log.debug("Saved setting {} of tenant {} (inherited={})", setting.getFullKey(), tenantId, inherited);
+        return setting;
+    }
+
+    /**
+     * Remove a setting of a tenant.
+     *
+     * @return whether the setting existed
+     */
+    public boolean removeSetting(UUID tenantId, String category, String key) {
+        TenantSetting setting = settingRepository.findSetting(tenantId, category, key).orElse(null);
+        if (setting == null) {
+            return false;
+        }
+        settingRepository.delete(setting);
+        cacheInvalidator.evictSettings(tenantId, Boolean.TRUE.equals(setting.getIsInherited()));
+        log.debug("Removed setting {} of tenant {}", setting.getFullKey(), tenantId);
+        return true;
+    }
+
+    // === Bulk Operations ===
+
+    /**
+     * Create or replace many settings of any number of tenants in one transaction.
+     * When the same (tenant, category, key) appears several times, the last one wins.
+     *
+     * @return the number of written settings
+     */
+    public int upsertSettings(Collection<TenantSettingUpsert> settings) {
+        long startTime = System.currentTimeMillis();
+
+        // Validate everything before writing anything; a duplicate key would fail the batch
+        Map<String, BulkRow> rows = new LinkedHashMap<>();
+        Set<UUID> tenantIds = new LinkedHashSet<>();
+        for (TenantSettingUpsert upsert : settings) {
+            getTreeNode(upsert.getTenantId());
+            validateKey(upsert.getCategory(), upsert.getKey());
+            // A transient entity converts the value to its typed columns
+            TenantSetting setting = new TenantSetting(null, upsert.getCategory(), upsert.getKey(), SettingValueType.STRING);
+            setting.setValue(upsert.getValue());
+            setting.setIsInherited(upsert.isInherited());
+            rows.put(upsert.getTenantId() + "/" + setting.getFullKey(), new BulkRow(upsert.getTenantId(), setting));
+            tenantIds.add(upsert.getTenantId());
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        // Pending entity changes must reach the database before the batch
+        settingRepository.flush();
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(UPSERT_SETTING_SQL, rows.values(), BATCH_SIZE, (ps, bulkRow) -> {
+            TenantSetting row = bulkRow.setting;
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, bulkRow.tenantId);
+            ps.setString(3, row.getCategory());
+            ps.setString(4, row.getKey());
+            ps.setString(5, row.getValueType().name());
+            ps.setString(6, row.getStringValue());
+            ps.setBigDecimal(7, row.getNumberValue());
+            ps.setObject(8, row.getBooleanValue(), Types.BOOLEAN);
+            ps.setString(9, toJson(row.getJsonValue()));
+            ps.setBoolean(10, row.getIsInherited());
+            ps.setTimestamp(11, now);
+            ps.setTimestamp(12, now);
+        });
+
+        // Whether a replaced setting was inherited is unknown here: evict the whole branches
+        cacheInvalidator.evictSettings(tenantIds, true);
+        log.info("Upserted {} settings of {} tenants in {} ms",
+            rows.size(), tenantIds.size(), System.currentTimeMillis() - startTime);
+        return rows.size();
+    }
+
+    /**
+     * Own settings of several tenants, optionally of one category only.
+     *
+     * @return the settings of each requested tenant, in request order; tenants without
+     *         settings map to an empty list
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, List<TenantSettingValue>> findSettings(Collection<UUID> tenantIds, String category) {
+        Map<UUID, List<TenantSettingValue>> result = new LinkedHashMap<>();
+        for (UUID tenantId : tenantIds) {
+            result.put(tenantId, new ArrayList<>());
+        }
+        List<UUID> ids = new ArrayList<>(result.keySet());
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size()));
+            for (TenantSettingValue value : settingRepository.findValues(chunk, category)) {
+                result.get(value.getTenantId()).add(value);
+            }
+        }
+        return result;
+    }
+
+    // === Private Methods ===
+
+    private TenantTreeNode getTreeNode(UUID tenantId) {
+        return tenantTreeIndex.get(tenantId)
+            .orElseThrow(() -> new IllegalArgumentException("Tenant not found: " + tenantId));
+    }
+
+    private String toJson(Map<String, Object> value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Setting value is not valid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static void validateKey(String category, String key) {
+        if (category == null || category.isBlank() || category.length() > 50) {
+            throw new IllegalArgumentException("Setting category must be 1 to 50 characters");
+        }
+        if (key == null || key.isBlank() || key.length() > 100) {
+            throw new IllegalArgumentException("Setting key must be 1 to 100 characters");
+        }
+    }
+
+    private static class BulkRow {
+        private final UUID tenantId;
+        private final TenantSetting setting;
+
+        BulkRow(UUID tenantId, TenantSetting setting) {
+            this.tenantId = tenantId;
+            this.setting = setting;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.rapidobackup.console.tenant.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.rapidobackup.console.common.util.SlugUtils;
+import com.rapidobackup.console.tenant.repository.TenantRepository;
+
+/**
+ * Allocates unique tenant slugs with a single query per batch of names.
+ *
+ * Instead of probing {@code existsBySlug} once per candidate suffix, the allocator loads
+ * every slug derived from the requested bases ("acme", "acme-1", "acme-2", ...) in one
+ * query and resolves the free suffixes in memory. Names sharing a base within the same
+ * batch receive consecutive suffixes.
+ *
+ * Concurrent creators are serialized with transaction-scoped PostgreSQL advisory locks, held
+ * until the allocating transaction commits. Locks are taken on root slugs, without numeric
+ * suffixes: the suffixes of one base overlap other bases ("Acme" may resolve to "acme-1",
+ * the base of "Acme 1"), and all of them share a root, so two transactions can never be
+ * handed the same slug. The unique constraint on {@code tenants.slug} remains the final guard.
+ */
+@Component
+public class TenantSlugAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantSlugAllocator.class);
+    private static final int LOOKUP_CHUNK_SIZE = 5000;
+
+    private final TenantRepository tenantRepository;
+
+    public TenantSlugAllocator(TenantRepository tenantRepository) {
+        this.tenantRepository = tenantRepository;
+    }
+
+    /**
+     * Allocate a unique slug for a single name.
+     */
+    @Transactional
+    public String allocate(String name) {
+        return allocateAll(List.of(name), Set.of()).get(0);
+    }
+
+    /**
+     * Allocate a unique slug for a renamed tenant, allowing it to keep its current slug.
+     */
+    @Transactional
+    public String allocateForRename(String name, String currentSlug) {
+        return allocateAll(List.of(name), currentSlug != null ? Set.of(currentSlug) : Set.of()).get(0);
+    }
+
+    /**
+     * Allocate unique slugs for a batch of names, in the order of the names.
+     */
+    @Transactional
+    public List<String> allocateAll(List<String> names) {
+        return allocateAll(names, Set.of());
+    }
+
+    private List<String> allocateAll(List<String> names, Set<String> reusableSlugs) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> baseSlugs = names.stream().map(SlugUtils::generateBaseSlug).toList();
+
+        // All locks first, in a stable order, to avoid deadlocks between batches locking overlapping roots
+        List<String> roots = new ArrayList<>(new TreeSet<>(baseSlugs.stream().map(SlugUtils::rootSlug).toList()));
+        for (int i = 0; i < roots.size(); i += LOOKUP_CHUNK_SIZE) {
+            tenantRepository.lockSlugBases(roots.subList(i, Math.min(i + LOOKUP_CHUNK_SIZE, roots.size())));
+        }
+
+        List<String> distinctBases = new ArrayList<>(new TreeSet<>(baseSlugs));
+        Set<String> takenSlugs = new HashSet<>();
+        for (int i = 0; i < distinctBases.size(); i += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = distinctBases.subList(i, Math.min(i + LOOKUP_CHUNK_SIZE, distinctBases.size()));
+            List<String> patterns = chunk.stream().map(base -> base + "-%").toList();
+            takenSlugs.addAll(tenantRepository.findSlugsMatchingBases(chunk, patterns));
+        }
+        takenSlugs.removeAll(reusableSlugs);
+
+        List<String> slugs = new ArrayList<>(names.size());
+        for (String baseSlug : baseSlugs) {
+            String slug = SlugUtils.nextAvailableSlug(baseSlug, takenSlugs);
+            takenSlugs.add(slug);
+            slugs.add(slug);
+        }
+
+        log.debug("Allocated {} slugs for {} distinct bases", slugs.size(), distinctBases.size());
+        return slugs;
+    }
+}
@@ -0,0 +1,812 @@
+package com.rapidobackup.console.tenant.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.rapidobackup.console.tenant.dto.TenantTreeNode;
+import com.rapidobackup.console.tenant.entity.Tenant;
+import com.rapidobackup.console.tenant.entity.TenantStatus;
+import com.rapidobackup.console.tenant.entity.TenantType;
+
+/**
+ * In-memory index of the tenant hierarchy.
+ *
+ * The index keeps one {@link TenantTreeNode} per live tenant plus a parent → children
+ * adjacency map, so subtree, ancestor and count queries are answered without touching
+ * the database. It is loaded lazily from a committed snapshot and then kept up to date
+ * incrementally by {@link TenantService} on create, update, move and delete.
+ *
+ * Design considerations:
+ * - Changes made in a transaction are only visible to that transaction, through an
+ *   overlay of the committed state; they are applied to the shared index after commit
+ *   and dropped on rollback
+ * - Every hierarchy change is versioned in the database ({@link TenantHierarchyStore});
+ *   each node polls that version every {@code console.tenant.tree-index.sync-interval}
+ *   and reloads when another node committed a change, so the index may lag the database
+ *   by up to that interval
+ * - It is therefore a cache: decisions that must be correct (locks, cycles, depth) are
+ *   verified against the database once the affected branches are locked
+ * - Full entities are never held here; callers fetch them only when they need them
+ */
+@Component
+public class TenantTreeIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantTreeIndex.class);
+
+    private final TenantHierarchyStore hierarchyStore;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    // Guarded by lock
+    private final Hierarchy committed = new Hierarchy();
+    private final NavigableMap<Long, List<Predicate<HierarchyView>>> localCommits = new TreeMap<>();
+    private long baseVersion;
+    private boolean loading;
+
+    private volatile boolean loaded = false;
+
+    public TenantTreeIndex(TenantHierarchyStore hierarchyStore) {
+        this.hierarchyStore = hierarchyStore;
+    }
+
+    // === Queries ===
+
+    public Optional<TenantTreeNode> get(UUID tenantId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(view().node(tenantId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(UUID tenantId) {
+        return get(tenantId).isPresent();
+    }
+
+    /**
+     * Direct children ids of a tenant.
+     */
+    public List<UUID> childIds(UUID parentId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return List.copyOf(view().children(parentId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * All descendant nodes of a tenant, breadth-first (i.e. ordered by level).
+     */
+    public List<TenantTreeNode> descendants(UUID parentId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            HierarchyView view = view();
+            List<TenantTreeNode> result = new ArrayList<>();
+            Deque<UUID> queue = new ArrayDeque<>(view.children(parentId));
+            while (!queue.isEmpty()) {
+                UUID id = queue.poll();
+                TenantTreeNode node = view.node(id);
+                if (node != null) {
+                    result.add(node);
+                }
+                queue.addAll(view.children(id));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of descendants of a tenant.
+     */
+    public long countDescendants(UUID parentId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            HierarchyView view = view();
+            long count = 0;
+            Deque<UUID> queue = new ArrayDeque<>(view.children(parentId));
+            while (!queue.isEmpty()) {
+                UUID id = queue.poll();
+                count++;
+                queue.addAll(view.children(id));
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of tenants matching a filter, among the descendants of {@code branchRootId}
+     * or, when it is null, in the whole hierarchy.
+     */
+    public long count(UUID branchRootId, Predicate<TenantTreeNode> filter) {
+        if (branchRootId != null) {
+            return descendants(branchRootId).stream().filter(filter).count();
+        }
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return view().nodes().stream().filter(filter).count();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Height of the subtree below a tenant: 0 for a leaf, 1 if it only has children, etc.
+     */
+    public int subtreeHeight(UUID tenantId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            HierarchyView view = view();
+            TenantTreeNode node = view.node(tenantId);
+            if (node == null) {
+                return 0;
+            }
+            int maxLevel = node.getLevel();
+            Deque<UUID> queue = new ArrayDeque<>(view.children(tenantId));
+            while (!queue.isEmpty()) {
+                UUID id = queue.poll();
+                TenantTreeNode descendant = view.node(id);
+                if (descendant != null) {
+                    maxLevel = Math.max(maxLevel, descendant.getLevel());
+                }
+                queue.addAll(view.children(id));
+            }
+            return maxLevel - node.getLevel();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ancestor nodes of a tenant, root first. The tenant itself is not included.
+     */
+    public List<TenantTreeNode> ancestors(UUID tenantId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            HierarchyView view = view();
+            TenantTreeNode node = view.node(tenantId);
+            if (node == null) {
+                return List.of();
+            }
+            List<TenantTreeNode> result = new ArrayList<>(node.getLevel());
+            UUID parentId = node.getParentId();
+            while (parentId != null) {
+                TenantTreeNode parent = view.node(parentId);
+                if (parent == null) {
+                    break;
+                }
+                result.add(parent);
+                parentId = parent.getParentId();
+            }
+            Collections.reverse(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Check whether {@code candidateId} lies strictly inside the subtree of {@code ancestorId}.
+     */
+    public boolean isDescendant(UUID candidateId, UUID ancestorId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            HierarchyView view = view();
+            TenantTreeNode node = view.node(candidateId);
+            while (node != null && node.getParentId() != null) {
+                if (node.getParentId().equals(ancestorId)) {
+                    return true;
+                }
+                node = view.node(node.getParentId());
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Opaque tag of the hierarchy state, shared by all nodes: the committed hierarchy version,
+     * plus the pending changes of the current transaction if it has any. The index first
+     * catches up with that version, so answers built from it are never older than the tag.
+     */
+    public String versionTag() {
+        ensureLoaded();
+        long currentVersion = hierarchyStore.currentVersion();
+        catchUp(currentVersion, true);
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null || (pending.changes.isEmpty() && !pending.reloaded)) {
+            return Long.toString(currentVersion);
+        }
+        return currentVersion + "-" + pending.id + "-" + pending.changes.size();
+    }
+
+    public int size() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return view().nodes().size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // === Incremental maintenance ===
+
+    /**
+     * Register a newly persisted tenant.
+     */
+    public void onCreated(Tenant tenant) {
+        UUID parentId = tenant.getParent() != null ? tenant.getParent().getId() : null;
+        TenantTreeNode node = new TenantTreeNode(tenant.getId(), parentId, tenant.getLevel(), tenant.getPath(),
+            tenant.getSlug(), tenant.getStatus(), tenant.getTenantType());
+        mutate(view -> attach(view, node));
+    }
+
+    /**
+     * Register a batch of tenants inserted outside JPA (bulk provisioning), parents first.
+     */
+    public void onCreatedAll(Collection<TenantTreeNode> created) {
+        List<TenantTreeNode> nodes = List.copyOf(created);
+        mutate(view -> {
+            boolean consistent = true;
+            for (TenantTreeNode node : nodes) {
+                consistent &= attach(view, node);
+            }
+            return consistent;
+        });
+    }
+
+    /**
+     * Refresh slug, status and type of a tenant whose position did not change.
+     * Paths are built from immutable path keys, so a rename never touches the subtree.
+     */
+    public void onUpdated(Tenant tenant) {
+        UUID tenantId = tenant.getId();
+        String slug = tenant.getSlug();
+        TenantStatus status = tenant.getStatus();
+        TenantType tenantType = tenant.getTenantType();
+        mutate(view -> {
+            TenantTreeNode current = view.node(tenantId);
+            if (current == null) {
+                return false;
+            }
+            view.put(new TenantTreeNode(current.getId(), current.getParentId(), current.getLevel(),
+                current.getPath(), slug, status, tenantType));
+            return true;
+        });
+    }
+
+    /**
+     * Re-attach a subtree under a new parent, recomputing paths and levels in memory.
+     */
+    public void onMoved(UUID tenantId, UUID newParentId) {
+        mutate(view -> {
+            TenantTreeNode node = view.node(tenantId);
+            TenantTreeNode newParent = newParentId != null ? view.node(newParentId) : null;
+            if (node == null || (newParentId != null && newParent == null)) {
+                return false;
+            }
+            detach(view, node);
+            reposition(view, node, newParent);
+            return true;
+        });
+    }
+
+    /**
+     * Remove a tenant and, if it still has any, its whole subtree.
+     */
+    public void onDeleted(UUID tenantId) {
+        mutate(view -> {
+            TenantTreeNode node = view.node(tenantId);
+            if (node == null) {
+                return true;
+            }
+            detach(view, node);
+            Deque<UUID> queue = new ArrayDeque<>();
+            queue.add(tenantId);
+            while (!queue.isEmpty()) {
+                UUID id = queue.poll();
+                for (UUID childId : List.copyOf(view.children(id))) {
+                    view.unlink(id, childId);
+                    queue.add(childId);
+                }
+                view.remove(id);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Reload the hierarchy from the database, for changes written behind the index's back.
+     *
+     * Inside a transaction, the reload includes that transaction's own writes and is only
+     * visible to it; the shared index is reloaded once it commits. Outside, the committed
+     * state is reloaded on next use.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            pendingChanges().reload(hierarchyStore.loadInTransaction());
+            log.debug("Tenant tree index reloaded for the current transaction");
+            return;
+        }
+        loaded = false;
+        log.debug("Tenant tree index invalidated");
+    }
+
+    // === Synchronization across nodes ===
+
+    /**
+     * Reload the index when the hierarchy version moved past the changes this node applied,
+     * i.e. when another node committed a hierarchy change.
+     */
+    @Scheduled(fixedDelayString = "${console.tenant.tree-index.sync-interval:5s}")
+    public void sync() {
+        if (loaded) {
+            catchUp(hierarchyStore.currentVersion(), false);
+        }
+    }
+
+    // === Private Methods ===
+
+    /**
+     * Reload unless this node already applied every change up to the given version.
+     *
+     * @param wait whether to wait for a load in progress, rather than leave the reload to it
+     */
+    private void catchUp(long currentVersion, boolean wait) {
+        if (!isBehind(currentVersion)) {
+            return;
+        }
+        if (wait) {
+            loadLock.lock();
+        } else if (!loadLock.tryLock()) {
+            return;
+        }
+        try {
+            if (isBehind(currentVersion)) {
+                log.debug("Tenant hierarchy changed on another node (version {}), reloading tree index", currentVersion);
+                load();
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private boolean isBehind(long currentVersion) {
+        lock.readLock().lock();
+        try {
+            return currentVersion > baseVersion;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            if (!loaded) {
+                load();
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Load a committed snapshot without blocking readers, then swap it in. Changes committed
+     * locally meanwhile are applied again on top of the snapshot if it predates them.
+     */
+    private void load() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            loading = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        TenantHierarchyStore.Snapshot snapshot;
+        try {
+            snapshot = hierarchyStore.loadSnapshot();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                loading = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            committed.clear();
+            snapshot.getNodes().forEach(committed::put);
+            boolean consistent = true;
+            for (List<Predicate<HierarchyView>> changes : localCommits.tailMap(snapshot.getVersion(), false).values()) {
+                consistent &= applyTo(committed, changes);
+            }
+            localCommits.headMap(snapshot.getVersion(), true).clear();
+            baseVersion = snapshot.getVersion();
+            loading = false;
+            advanceBaseVersion();
+            loaded = consistent;
+            log.info("Loaded tenant tree index: {} tenants at hierarchy version {} in {} ms",
+                committed.nodes.size(), baseVersion, System.currentTimeMillis() - start);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * State seen by the current thread: the pending changes of its transaction, if any,
+     * over the committed state. Must be called with the read lock held.
+     */
+    private HierarchyView view() {
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        return pending != null ? pending : committed;
+    }
+
+    /**
+     * Record a change: in the current transaction until it commits, or immediately when
+     * there is no transaction to wait for.
+     *
+     * @param change applies the change to a view, returning false if the view lacks a tenant
+     *               the change depends on (i.e. the view is stale)
+     */
+    private void mutate(Predicate<HierarchyView> change) {
+        ensureLoaded();
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            lock.writeLock().lock();
+            try {
+                if (loaded && !applyTo(committed, List.of(change))) {
+                    loaded = false;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        PendingChanges pending = pendingChanges();
+        lock.readLock().lock();
+        try {
+            change.test(pending);
+        } finally {
+            lock.readLock().unlock();
+        }
+        pending.changes.add(change);
+    }
+
+    private PendingChanges pendingChanges() {
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new PendingChangesSynchronization(pending));
+        }
+        return pending;
+    }
+
+    /**
+     * Apply the changes of a committed transaction to the shared index.
+     */
+    private void applyCommitted(PendingChanges pending) {
+        lock.writeLock().lock();
+        try {
+            if (pending.reloaded) {
+                loaded = false;
+                return;
+            }
+            if (loading || pending.committedVersion > baseVersion) {
+                // Kept until the version is covered, so that a load in progress can apply it again
+                localCommits.put(pending.committedVersion, pending.changes);
+            }
+            if (!loaded) {
+                // The next load reads the committed state, including these changes
+                return;
+            }
+            if (!applyTo(committed, pending.changes)) {
+                log.debug("Tenant tree index is stale, reloading on next use");
+                loaded = false;
+            }
+            if (!loading) {
+                advanceBaseVersion();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean applyTo(HierarchyView view, List<Predicate<HierarchyView>> changes) {
+        boolean consistent = true;
+        for (Predicate<HierarchyView> change : changes) {
+            consistent &= change.test(view);
+        }
+        return consistent;
+    }
+
+    /**
+     * Cover the versions of local commits that directly follow the base version. A remaining
+     * gap means another node committed a change, which {@link #sync()} detects.
+     */
+    private void advanceBaseVersion() {
+        localCommits.headMap(baseVersion, true).clear();
+        while (localCommits.remove(baseVersion + 1) != null) {
+            baseVersion++;
+        }
+    }
+
+    /**
+     * Attach a new node under its parent, which must be known.
+     */
+    private static boolean attach(HierarchyView view, TenantTreeNode node) {
+        view.put(node);
+        return node.getParentId() == null || view.node(node.getParentId()) != null;
+    }
+
+    private static void detach(HierarchyView view, TenantTreeNode node) {
+        if (node.getParentId() != null) {
+            view.unlink(node.getParentId(), node.getId());
+        }
+    }
+
+    private static void reposition(HierarchyView view, TenantTreeNode root, TenantTreeNode newParent) {
+        Deque<TenantTreeNode[]> queue = new ArrayDeque<>();
+        queue.add(new TenantTreeNode[] {root, newParent});
+        while (!queue.isEmpty()) {
+            TenantTreeNode[] entry = queue.poll();
+            TenantTreeNode node = entry[0];
+            TenantTreeNode parent = entry[1];
+
+            TenantTreeNode moved = parent == null
+                ? node.withPosition(null, 0, node.getPathKey())
+                : node.withPosition(parent.getId(), parent.getLevel() + 1,
+                    parent.getPath() + Tenant.PATH_SEPARATOR + node.getPathKey());
+            view.put(moved);
+
+            for (UUID childId : List.copyOf(view.children(node.getId()))) {
+                TenantTreeNode child = view.node(childId);
+                if (child != null) {
+                    queue.add(new TenantTreeNode[] {child, moved});
+                }
+            }
+        }
+    }
+
+    /**
+     * Read and write access to a hierarchy state, committed or pending.
+     */
+    private interface HierarchyView {
+
+        TenantTreeNode node(UUID id);
+
+        Collection<UUID> children(UUID parentId);
+
+        Collection<TenantTreeNode> nodes();
+
+        /**
+         * Add or replace a node and link it to its parent.
+         */
+        void put(TenantTreeNode node);
+
+        void remove(UUID id);
+
+        void unlink(UUID parentId, UUID childId);
+    }
+
+    private static final class Hierarchy implements HierarchyView {
+
+        private final Map<UUID, TenantTreeNode> nodes = new HashMap<>();
+        private final Map<UUID, Set<UUID>> children = new HashMap<>();
+
+        @Override
+        public TenantTreeNode node(UUID id) {
+            return nodes.get(id);
+        }
+
+        @Override
+        public Collection<UUID> children(UUID parentId) {
+            return children.getOrDefault(parentId, Set.of());
+        }
+
+        @Override
+        public Collection<TenantTreeNode> nodes() {
+            return nodes.values();
+        }
+
+        @Override
+        public void put(TenantTreeNode node) {
+            nodes.put(node.getId(), node);
+            if (node.getParentId() != null) {
+                children.computeIfAbsent(node.getParentId(), id -> new LinkedHashSet<>()).add(node.getId());
+            }
+        }
+
+        @Override
+        public void remove(UUID id) {
+            nodes.remove(id);
+        }
+
+        @Override
+        public void unlink(UUID parentId, UUID childId) {
+            Set<UUID> siblings = children.get(parentId);
+            if (siblings != null) {
+                siblings.remove(childId);
+                if (siblings.isEmpty()) {
+                    children.remove(parentId);
+                }
+            }
+        }
+
+        void clear() {
+            nodes.clear();
+            children.clear();
+        }
+    }
+
+    /**
+     * Changes of one transaction, layered over the committed state (or over a reload made
+     * in that transaction) and replayed on the shared index once the transaction commits.
+     */
+    private final class PendingChanges implements HierarchyView {
+
+        private final UUID id = UUID.randomUUID();
+        private final List<Predicate<HierarchyView>> changes = new ArrayList<>();
+        // A null value marks a removed node
+        private final Map<UUID, TenantTreeNode> nodes = new HashMap<>();
+        private final Map<UUID, Set<UUID>> linked = new HashMap<>();
+        private final Map<UUID, Set<UUID>> unlinked = new HashMap<>();
+        private HierarchyView base = committed;
+        private boolean reloaded;
+        private long committedVersion;
+
+        @Override
+        public TenantTreeNode node(UUID id) {
+            return nodes.containsKey(id) ? nodes.get(id) : base.node(id);
+        }
+
+        @Override
+        public Collection<UUID> children(UUID parentId) {
+            Set<UUID> added = linked.get(parentId);
+            Set<UUID> removed = unlinked.get(parentId);
+            if (added == null && removed == null) {
+                return base.children(parentId);
+            }
+            Set<UUID> result = new LinkedHashSet<>(base.children(parentId));
+            if (removed != null) {
+                result.removeAll(removed);
+            }
+            if (added != null) {
+                result.addAll(added);
+            }
+            return result;
+        }
+
+        @Override
+        public Collection<TenantTreeNode> nodes() {
+            List<TenantTreeNode> result = new ArrayList<>();
+            for (TenantTreeNode node : base.nodes()) {
+                if (!nodes.containsKey(node.getId())) {
+                    result.add(node);
+                }
+            }
+            for (TenantTreeNode node : nodes.values()) {
+                if (node != null) {
+                    result.add(node);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void put(TenantTreeNode node) {
+            nodes.put(node.getId(), node);
+            if (node.getParentId() != null) {
+                linked.computeIfAbsent(node.getParentId(), id -> new LinkedHashSet<>()).add(node.getId());
+                Set<UUID> removed = unlinked.get(node.getParentId());
+                if (removed != null) {
+                    removed.remove(node.getId());
+                }
+            }
+        }
+
+        @Override
+        public void remove(UUID id) {
+            nodes.put(id, null);
+        }
+
+        @Override
+        public void unlink(UUID parentId, UUID childId) {
+            unlinked.computeIfAbsent(parentId, id -> new LinkedHashSet<>()).add(childId);
+            Set<UUID> added = linked.get(parentId);
+            if (added != null) {
+                added.remove(childId);
+            }
+        }
+
+        void reload(List<TenantTreeNode> transactionNodes) {
+            Hierarchy hierarchy = new Hierarchy();
+            transactionNodes.forEach(hierarchy::put);
+            base = hierarchy;
+            nodes.clear();
+            linked.clear();
+            unlinked.clear();
+            reloaded = true;
+        }
+    }
+
+    /**
+     * Binds the pending changes to their transaction: versions them right before commit and
+     * applies them to the shared index after commit.
+     */
+    private final class PendingChangesSynchronization implements TransactionSynchronization {
+
+        private final PendingChanges pending;
+
+        PendingChangesSynchronization(PendingChanges pending) {
+            this.pending = pending;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(TenantTreeIndex.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(TenantTreeIndex.this, pending);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            pending.committedVersion = hierarchyStore.incrementVersion();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TenantTreeIndex.this);
+            if (status == STATUS_COMMITTED) {
+                applyCommitted(pending);
+            }
+        }
+    }
+}
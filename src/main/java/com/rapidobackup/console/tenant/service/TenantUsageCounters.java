@@ -0,0 +1,68 @@
+package com.rapidobackup.console.tenant.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Per-tenant usage counters backing {@link TenantQuotaService}.
+ *
+ * A counter is either absent, until it is loaded from the database, or holds the committed
+ * usage plus the reservations still pending. Pending reservations are also tracked on their
+ * own, by id, together with the number of reservations confirmed so far, so that
+ * reconciliation can replace the committed part without losing reservations in flight.
+ * Every operation is atomic, so concurrent registrations on any number of nodes can never
+ * both take the last unit of a quota.
+ */
+public interface TenantUsageCounters {
+
+    /**
+     * Returned by {@link #tryReserve} when the counter has not been loaded yet.
+     */
+    long NOT_LOADED = -2;
+
+    /**
+     * Returned by {@link #tryReserve} when the counter already reached the limit.
+     */
+    long LIMIT_REACHED = -1;
+
+    /**
+     * Increment a loaded counter unless it already reached {@code limit}, keeping the unit
+     * pending under {@code reservationId} until it is confirmed or cancelled.
+     *
+     * @param limit maximum value of the counter, or a negative value for no limit
+     * @return the incremented value, {@link #LIMIT_REACHED} or {@link #NOT_LOADED}
+     */
+    long tryReserve(String key, String reservationId, long limit);
+
+    /**
+     * Turn a pending reservation into committed usage.
+     */
+    void confirm(String key, String reservationId);
+
+    /**
+     * Give back a pending reservation, never below zero. Reservations already dropped by
+     * {@link #reconcile} and absent counters are left alone.
+     */
+    void cancel(String key, String reservationId);
+
+    /**
+     * Load a counter with its current usage, unless a concurrent caller loaded it first.
+     */
+    void load(String key, long value);
+
+    /**
+     * Number of reservations confirmed so far on each counter, 0 for absent counters.
+     */
+    Map<String, Long> confirmedCounts(Collection<String> keys);
+
+    /**
+     * Replace the committed part of counters with usage recomputed from the database. Each
+     * counter becomes that usage, plus its pending reservations, plus the reservations
+     * confirmed since {@code confirmedBefore} (they may have committed after the usage was read).
+     *
+     * @param confirmedBefore {@link #confirmedCounts} read before the usage
+     * @param pendingTimeout pending reservations older than this are dropped as abandoned
+     */
+    void reconcile(Map<String, Long> usage, Map<String, Long> confirmedBefore, Duration pendingTimeout);
+}
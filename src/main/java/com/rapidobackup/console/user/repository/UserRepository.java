@@ -42,6 +42,9 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
   long countByTenantId(UUID tenantId);
 
+  @Query("SELECT u.tenant.id FROM User u WHERE u.id = :userId")
+  Optional<UUID> findTenantIdById(@Param("userId") UUID userId);
+
   @Query(
       "SELECT DISTINCT u FROM User u LEFT JOIN u.roles r LEFT JOIN u.contact c WHERE "
           + "(:searchTerm IS NULL OR LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR "
@@ -76,6 +79,21 @@ public interface UserRepository extends JpaRepository<User, UUID> {
           + "(SELECT t.id FROM Tenant t WHERE t.path LIKE CONCAT(:tenantPath, '%'))")
   List<User> findByTenantHierarchy(@Param("tenantPath") String tenantPath);
 
+  /**
+   * Soft delete every live user of the tenants at {@code tenantPath} or below {@code tenantPathPrefix}.
+   */
+  @Modifying
+  @Query(
+      value =
+          "UPDATE users SET status = 'DELETED', deleted_at = :deletedAt, updated_at = :deletedAt "
+              + "WHERE deleted_at IS NULL AND tenant_id IN (SELECT id FROM tenants WHERE deleted_at IS NULL "
+              + "AND (path = :tenantPath OR path LIKE :tenantPathPrefix))",
+      nativeQuery = true)
+  int softDeleteByTenantPath(
+      @Param("tenantPath") String tenantPath,
+      @Param("tenantPathPrefix") String tenantPathPrefix,
+      @Param("deletedAt") Instant deletedAt);
+
   boolean existsByUsername(String username);
 
   @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u LEFT JOIN u.contact c WHERE c.email = :email")
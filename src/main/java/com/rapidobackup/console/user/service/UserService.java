@@ -11,6 +11,8 @@ import com.rapidobackup.console.contact.entity.Contact;
 import com.rapidobackup.console.contact.entity.ContactType;
 import com.rapidobackup.console.contact.repository.ContactRepository;
 import com.rapidobackup.console.tenant.repository.TenantRepository;
+import com.rapidobackup.console.tenant.service.TenantQuotaService;
+import com.rapidobackup.console.tenant.service.TenantRollupService;
 import com.rapidobackup.console.user.dto.UserDto;
 import com.rapidobackup.console.user.entity.User;
 import com.rapidobackup.console.user.entity.UserRole;
@@ -27,13 +29,17 @@ public class UserService {
   private final ContactRepository contactRepository;
   private final TenantRepository tenantRepository;
   private final UserMapper userMapper;
+  private final TenantRollupService tenantRollupService;
+  private final TenantQuotaService tenantQuotaService;
 
-  public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, ContactRepository contactRepository, TenantRepository tenantRepository, UserMapper userMapper) {
+  public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, ContactRepository contactRepository, TenantRepository tenantRepository, UserMapper userMapper, TenantRollupService tenantRollupService, TenantQuotaService tenantQuotaService) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
     this.contactRepository = contactRepository;
     this.tenantRepository = tenantRepository;
     this.userMapper = userMapper;
+    this.tenantRollupService = tenantRollupService;
+    this.tenantQuotaService = tenantQuotaService;
   }
 
   public UserDto toDto(User user) {
@@ -67,6 +73,8 @@ public class UserService {
 //TODO how to choose the selected tenant form context?
     // Assign default root tenant (UUID from Liquibase data)
     UUID rootTenantId = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    // Fails fast when the tenant is full; released again if the registration rolls back
+    tenantQuotaService.reserveInTransaction(rootTenantId, TenantQuotaService.Resource.USERS);
     user.setTenant(tenantRepository.getReferenceById(rootTenantId));
 
     // locale removed from User entity - now in Contact.preferredLanguage
@@ -79,7 +87,9 @@ public class UserService {
 
     user.setUpdatedAt(Instant.now());
 
-    return userRepository.save(user);
+    User saved = userRepository.save(user);
+    tenantRollupService.onUsersChanged(rootTenantId, 1);
+    return saved;
   }
 
   // Helper method to create user with contact
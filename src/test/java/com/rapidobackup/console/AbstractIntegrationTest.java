@@ -12,7 +12,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
  * Abstract base class for integration tests.
  *
  * This class provides:
- * - PostgreSQL test database via Testcontainers
+ * - PostgreSQL test database via Testcontainers, for both JDBC and R2DBC
  * - Full Spring Boot context
  * - Test profile configuration
  * - Liquibase schema initialization
@@ -40,5 +40,10 @@ public abstract class AbstractIntegrationTest {
         registry.add("spring.datasource.username", postgresContainer::getUsername);
         registry.add("spring.datasource.password", postgresContainer::getPassword);
         registry.add("spring.datasource.driver-class-name", postgresContainer::getDriverClassName);
+        // Agents are accessed through R2DBC, against the same database
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + postgresContainer.getHost() + ":"
+            + postgresContainer.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + postgresContainer.getDatabaseName());
+        registry.add("spring.r2dbc.username", postgresContainer::getUsername);
+        registry.add("spring.r2dbc.password", postgresContainer::getPassword);
     }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.rapidobackup.console.agent.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.rapidobackup.console.AbstractIntegrationTest;
+import com.rapidobackup.console.agent.dto.AgentPrincipal;
+import com.rapidobackup.console.agent.entity.Agent;
+import com.rapidobackup.console.agent.repository.AgentRepository;
+
+/**
+ * Integration tests for cached agent API-key authentication.
+ *
+ * Not transactional: agents are read through R2DBC, which cannot see uncommitted JDBC inserts.
+ *
+ * Tests cover:
+ * - Known keys served from memory once looked up
+ * - Unknown keys rejected from memory once looked up
+ * - Rotated keys rejected immediately
+ * - Expired keys rejected
+ * - Lookups of the agent itself bypassing the cache
+ */
+class AgentApiKeyCacheTest extends AbstractIntegrationTest {
+
+    private static final String KEY_PREFIX = "auth-test-";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private ReactiveAgentService agentService;
+
+    @Autowired
+    private AgentRepository agentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM agents WHERE name LIKE ?", KEY_PREFIX + "%");
+    }
+
+    @Test
+    void authenticate_servesKnownKeysFromMemory() {
+        String apiKey = insertAgent(null);
+        UUID agentId = agentRepository.findByApiKey(apiKey).block(TIMEOUT).getId();
+        assertThat(agentService.authenticate(apiKey).block(TIMEOUT).getAgentId()).isEqualTo(agentId);
+
+        // Without the row, only the cache can still authenticate the key
+        jdbcTemplate.update("DELETE FROM agents WHERE api_key = ?", apiKey);
+
+        assertThat(agentService.authenticate(apiKey).block(TIMEOUT).getAgentId()).isEqualTo(agentId);
+    }
+
+    @Test
+    void findByApiKey_readsCurrentAgentDespiteCache() {
+        String apiKey = insertAgent(null);
+        agentService.authenticate(apiKey).block(TIMEOUT);
+
+        jdbcTemplate.update("UPDATE agents SET status = 'ERROR' WHERE api_key = ?", apiKey);
+
+        assertThat(agentService.findByApiKey(apiKey).block(TIMEOUT).getStatus()).isEqualTo(Agent.AgentStatus.ERROR);
+    }
+
+    @Test
+    void authenticate_rejectsUnknownKeysFromMemory() {
+        String apiKey = KEY_PREFIX + UUID.randomUUID();
+        assertThatThrownBy(() -> agentService.authenticate(apiKey).block(TIMEOUT))
+            .isInstanceOf(SecurityException.class);
+
+        insertAgent(apiKey, null);
+
+        assertThatThrownBy(() -> agentService.authenticate(apiKey).block(TIMEOUT))
+            .isInstanceOf(SecurityException.class);
+    }
+
+    @Test
+    void rotateApiKey_rejectsPreviousKeyImmediately() {
+        String apiKey = insertAgent(null);
+        AgentPrincipal agent = agentService.authenticate(apiKey).block(TIMEOUT);
+
+        Agent rotated = agentService.rotateApiKey(agent.getAgentId()).block(TIMEOUT);
+
+        assertThatThrownBy(() -> agentService.authenticate(apiKey).block(TIMEOUT))
+            .isInstanceOf(SecurityException.class);
+        assertThat(agentService.authenticate(rotated.getApiKey()).block(TIMEOUT).getAgentId()).isEqualTo(agent.getAgentId());
+    }
+
+    @Test
+    void authenticate_rejectsExpiredKeys() {
+        String expired = insertAgent(Instant.now().minusSeconds(60));
+        String expiring = insertAgent(Instant.now().plusSeconds(1));
+
+        assertThatThrownBy(() -> agentService.authenticate(expired).block(TIMEOUT))
+            .isInstanceOf(SecurityException.class);
+        assertThat(agentService.authenticate(expiring).block(TIMEOUT)).isNotNull();
+
+        // Cached only until the key expires
+        try {
+            Thread.sleep(1100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        assertThatThrownBy(() -> agentService.authenticate(expiring).block(TIMEOUT))
+            .isInstanceOf(SecurityException.class);
+    }
+
+    private String insertAgent(Instant expiresAt) {
+        String apiKey = KEY_PREFIX + UUID.randomUUID();
+        insertAgent(apiKey, expiresAt);
+        return apiKey;
+    }
+
+    private void insertAgent(String apiKey, Instant expiresAt) {
+        jdbcTemplate.update("""
+            INSERT INTO agents (id, name, hostname, os_type, agent_version, api_key)
+            VALUES (?, ?, 'host', 'Linux', '1.0.0', ?)
+            """,
+            UUID.randomUUID(), KEY_PREFIX + "agent", apiKey);
+        if (expiresAt != null) {
+            // Written through R2DBC, like the application does, so the timestamp round-trips unchanged
+            agentRepository.findByApiKey(apiKey)
+                .flatMap(agent -> {
+                    agent.setApiKeyExpiresDate(expiresAt);
+                    return agentRepository.save(agent);
+                })
+                .block(TIMEOUT);
+        }
+    }
+}
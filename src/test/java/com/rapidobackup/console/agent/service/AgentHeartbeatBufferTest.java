@@ -0,0 +1,160 @@
+package com.rapidobackup.console.agent.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.rapidobackup.console.AbstractIntegrationTest;
+import com.rapidobackup.console.agent.repository.AgentRepository;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Integration tests for write-behind agent heartbeats.
+ *
+ * Not transactional: heartbeats are written through R2DBC, which cannot see uncommitted
+ * JDBC inserts.
+ *
+ * Tests cover:
+ * - Coalescing of repeated heartbeats into the latest one per agent
+ * - Multi-statement flushes of large fleets
+ * - Heartbeats of unknown keys dropped before reaching the buffer
+ * - Heartbeats never moving backwards
+ * - Heartbeats of a cancelled flush put back for the next one
+ */
+class AgentHeartbeatBufferTest extends AbstractIntegrationTest {
+
+    private static final String KEY_PREFIX = "hb-test-";
+
+    @Autowired
+    private AgentHeartbeatBuffer heartbeatBuffer;
+
+    @Autowired
+    private ReactiveAgentService agentService;
+
+    @Autowired
+    private AgentRepository agentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM agents WHERE api_key LIKE ?", KEY_PREFIX + "%");
+    }
+
+    @Test
+    void flush_coalescesHeartbeatsIntoLatestPerAgent() {
+        insertAgents(3);
+        Instant base = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        for (int beat = 0; beat < 10; beat++) {
+            for (int agent = 0; agent < 3; agent++) {
+                heartbeatBuffer.record(KEY_PREFIX + agent, base.plusSeconds(beat));
+            }
+        }
+        heartbeatBuffer.record("unknown-key", base);
+
+        assertThat(heartbeatBuffer.pendingCount()).isEqualTo(4);
+        assertThat(heartbeatBuffer.flush().block(Duration.ofSeconds(10))).isEqualTo(3);
+        assertThat(heartbeatBuffer.pendingCount()).isZero();
+        assertThat(lastHeartbeat(KEY_PREFIX + 1)).isEqualTo(base.plusSeconds(9));
+    }
+
+    @Test
+    void flush_neverMovesHeartbeatBackwards() {
+        insertAgents(1);
+        Instant base = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        heartbeatBuffer.record(KEY_PREFIX + 0, base);
+        heartbeatBuffer.flush().block(Duration.ofSeconds(10));
+
+        heartbeatBuffer.record(KEY_PREFIX + 0, base.minusSeconds(30));
+
+        assertThat(heartbeatBuffer.flush().block(Duration.ofSeconds(10))).isZero();
+        assertThat(lastHeartbeat(KEY_PREFIX + 0)).isEqualTo(base);
+    }
+
+    @Test
+    void flush_putsBatchBackWhenCancelled() {
+        insertAgents(1);
+        Instant base = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        heartbeatBuffer.record(KEY_PREFIX + 0, base);
+
+        // As on shutdown, when the flush loop is disposed in the middle of a flush
+        heartbeatBuffer.flush().subscribe().dispose();
+
+        assertThat(heartbeatBuffer.pendingCount()).isEqualTo(1);
+        heartbeatBuffer.flush().block(Duration.ofSeconds(10));
+        assertThat(lastHeartbeat(KEY_PREFIX + 0)).isEqualTo(base);
+    }
+
+    @Test
+    void processHeartbeatBatch_writesLargeFleetInFewStatements() {
+        int agents = 5000;
+        insertAgents(agents);
+        List<String> apiKeys = new ArrayList<>();
+        for (int round = 0; round < 4; round++) {
+            for (int i = 0; i < agents; i++) {
+                apiKeys.add(KEY_PREFIX + i);
+            }
+        }
+        // Steady state: the agents authenticated before, their keys are cached
+        agentService.processHeartbeatBatch(Flux.fromIterable(apiKeys.subList(0, agents))).block(Duration.ofSeconds(30));
+        heartbeatBuffer.flush().block(Duration.ofSeconds(30));
+
+        long startTime = System.currentTimeMillis();
+        long accepted = agentService.processHeartbeatBatch(Flux.fromIterable(apiKeys)).block(Duration.ofSeconds(10));
+        int updated = heartbeatBuffer.flush().block(Duration.ofSeconds(30));
+        long duration = System.currentTimeMillis() - startTime;
+
+        assertThat(accepted).isEqualTo(4L * agents);
+        assertThat(updated).isEqualTo(agents);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM agents WHERE api_key LIKE ? AND last_heartbeat IS NULL", Long.class, KEY_PREFIX + "%"))
+            .isZero();
+        assertThat(duration).isLessThan(5000);
+
+        System.out.printf("Coalesced %d heartbeats into %d agent updates (%d statements) in %d ms%n",
+            accepted, updated, (agents + AgentHeartbeatBuffer.MAX_ROWS_PER_STATEMENT - 1) / AgentHeartbeatBuffer.MAX_ROWS_PER_STATEMENT,
+            duration);
+    }
+
+    @Test
+    void processHeartbeatBatch_dropsUnknownKeys() {
+        insertAgents(1);
+
+        long accepted = agentService.processHeartbeatBatch(
+            Flux.just(KEY_PREFIX + 0, "unknown-" + UUID.randomUUID(), "unknown-" + UUID.randomUUID(), ""))
+            .block(Duration.ofSeconds(10));
+
+        assertThat(accepted).isEqualTo(1);
+        assertThat(heartbeatBuffer.pendingCount()).isEqualTo(1);
+        heartbeatBuffer.flush().block(Duration.ofSeconds(10));
+    }
+
+    private void insertAgents(int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {UUID.randomUUID(), "agent-" + i, "host-" + i, KEY_PREFIX + i});
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO agents (id, name, hostname, os_type, agent_version, api_key) VALUES (?, ?, ?, 'Linux', '1.0.0', ?)",
+            rows);
+    }
+
+    /**
+     * Read back through R2DBC, so timestamps round-trip through the same driver that wrote them.
+     */
+    private Instant lastHeartbeat(String apiKey) {
+        return agentRepository.findByApiKey(apiKey).block(Duration.ofSeconds(10)).getLastHeartbeat();
+    }
+}
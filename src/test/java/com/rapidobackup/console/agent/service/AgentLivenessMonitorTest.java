@@ -0,0 +1,163 @@
+package com.rapidobackup.console.agent.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.rapidobackup.console.AbstractIntegrationTest;
+import com.rapidobackup.console.agent.entity.Agent;
+import com.rapidobackup.console.agent.repository.AgentRepository;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Integration tests for stale agent detection.
+ *
+ * Not transactional: agents are updated through R2DBC, which cannot see uncommitted JDBC
+ * inserts. The test profile uses a 2 second stale timeout.
+ *
+ * Tests cover:
+ * - Agents going offline once their heartbeat deadline passes, and only then
+ * - Expiry of a large fleet in batched updates
+ * - Recovery of stale and live agents from the database on startup
+ * - Heartbeats of unknown keys never tracked
+ */
+class AgentLivenessMonitorTest extends AbstractIntegrationTest {
+
+    private static final String KEY_PREFIX = "liveness-test-";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final String OFFLINE_COUNT_SQL =
+        "SELECT COUNT(*) FROM agents WHERE api_key LIKE ? AND status = 'OFFLINE'";
+
+    @Autowired
+    private AgentLivenessMonitor livenessMonitor;
+
+    @Autowired
+    private ReactiveAgentService agentService;
+
+    @Autowired
+    private AgentRepository agentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM agents WHERE api_key LIKE ?", KEY_PREFIX + "%");
+    }
+
+    @Test
+    void heartbeats_keepAgentOnlineUntilDeadlinePasses() throws InterruptedException {
+        insertOnlineAgents(3);
+        heartbeat(List.of(KEY_PREFIX + 0, KEY_PREFIX + 1, KEY_PREFIX + 2));
+
+        // Agent 0 keeps sending heartbeats, the others stop
+        long until = System.currentTimeMillis() + 3500;
+        while (System.currentTimeMillis() < until) {
+            heartbeat(List.of(KEY_PREFIX + 0));
+            Thread.sleep(500);
+        }
+
+        awaitOfflineCount(KEY_PREFIX + "%", 2);
+        assertThat(status(KEY_PREFIX + 0)).isEqualTo(Agent.AgentStatus.ONLINE);
+        assertThat(status(KEY_PREFIX + 1)).isEqualTo(Agent.AgentStatus.OFFLINE);
+    }
+
+    @Test
+    void heartbeats_largeFleetExpiresInBatches() throws InterruptedException {
+        int agents = 5000;
+        insertOnlineAgents(agents);
+        List<String> apiKeys = new ArrayList<>();
+        for (int i = 0; i < agents; i++) {
+            apiKeys.add(KEY_PREFIX + i);
+        }
+        heartbeat(apiKeys);
+        assertThat(livenessMonitor.trackedCount()).isGreaterThanOrEqualTo(agents);
+
+        long startTime = System.currentTimeMillis();
+        awaitOfflineCount(KEY_PREFIX + "%", agents);
+        long duration = System.currentTimeMillis() - startTime;
+
+        System.out.printf("%d agents marked offline %d ms after the first check%n", agents, duration);
+        assertThat(duration).isLessThan(5000);
+    }
+
+    @Test
+    void recover_marksStaleAgentsOfflineAndTracksLiveOnes() throws InterruptedException {
+        insertOnlineAgents(2);
+        setLastHeartbeat(KEY_PREFIX + 0, Instant.now().minus(Duration.ofMinutes(10)));
+        setLastHeartbeat(KEY_PREFIX + 1, Instant.now());
+
+        long marked = livenessMonitor.recover().block(TIMEOUT);
+
+        assertThat(marked).isGreaterThanOrEqualTo(1);
+        assertThat(status(KEY_PREFIX + 0)).isEqualTo(Agent.AgentStatus.OFFLINE);
+        assertThat(status(KEY_PREFIX + 1)).isEqualTo(Agent.AgentStatus.ONLINE);
+
+        // The live agent is now tracked and goes offline without any further scan
+        awaitOfflineCount(KEY_PREFIX + "%", 2);
+    }
+
+    @Test
+    void heartbeats_ofUnknownKeysAreNotTracked() {
+        List<String> apiKeys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            apiKeys.add("unknown-" + UUID.randomUUID());
+        }
+        // Tracked agents of other tests may only expire meanwhile
+        int tracked = livenessMonitor.trackedCount();
+
+        heartbeat(apiKeys);
+
+        assertThat(livenessMonitor.trackedCount()).isLessThanOrEqualTo(tracked);
+    }
+
+    private void heartbeat(List<String> apiKeys) {
+        agentService.processHeartbeatBatch(Flux.fromIterable(apiKeys)).block(TIMEOUT);
+    }
+
+    private void awaitOfflineCount(String pattern, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+        while (jdbcTemplate.queryForObject(OFFLINE_COUNT_SQL, Long.class, pattern) < expected
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(jdbcTemplate.queryForObject(OFFLINE_COUNT_SQL, Long.class, pattern)).isEqualTo(expected);
+    }
+
+    private void insertOnlineAgents(int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {UUID.randomUUID(), "agent-" + i, "host-" + i, KEY_PREFIX + i});
+        }
+        jdbcTemplate.batchUpdate("""
+            INSERT INTO agents (id, name, hostname, os_type, agent_version, api_key, status)
+            VALUES (?, ?, ?, 'Linux', '1.0.0', ?, 'ONLINE')
+            """, rows);
+    }
+
+    /**
+     * Written through R2DBC, like the application does, so the timestamp round-trips unchanged.
+     */
+    private void setLastHeartbeat(String apiKey, Instant lastHeartbeat) {
+        agentRepository.findByApiKey(apiKey)
+            .flatMap(agent -> {
+                agent.setLastHeartbeat(lastHeartbeat);
+                return agentRepository.save(agent);
+            })
+            .block(TIMEOUT);
+    }
+
+    private Agent.AgentStatus status(String apiKey) {
+        return agentRepository.findByApiKey(apiKey).block(TIMEOUT).getStatus();
+    }
+}
@@ -0,0 +1,233 @@
+package com.rapidobackup.console.agent.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.rapidobackup.console.AbstractIntegrationTest;
+import com.rapidobackup.console.agent.dto.AgentStatusEvent;
+import com.rapidobackup.console.agent.entity.Agent;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+/**
+ * Integration tests for pushed agent status streams.
+ *
+ * Not transactional: agents are written through R2DBC, which cannot see uncommitted JDBC
+ * inserts. The test profile uses a 2 second stale timeout.
+ *
+ * Tests cover:
+ * - Snapshot followed by heartbeat and status changes
+ * - Server-side filtering by status and user, including agents leaving a status
+ * - Resolution of agents registered elsewhere on their first heartbeat
+ * - Slow subscribers dropping changes without holding back the others
+ * - Heartbeats coalesced for slow subscribers instead of filling their buffer
+ */
+class AgentStatusHubTest extends AbstractIntegrationTest {
+
+    private static final String NAME_PREFIX = "status-test-";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private AgentStatusHub statusHub;
+
+    @Autowired
+    private ReactiveAgentService agentService;
+
+    @Autowired
+    private AgentHeartbeatBuffer heartbeatBuffer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Disposable> subscriptions = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+        jdbcTemplate.update("DELETE FROM agents WHERE name LIKE ?", NAME_PREFIX + "%");
+    }
+
+    @Test
+    void subscribe_sendsSnapshotThenChanges() throws InterruptedException {
+        Agent agent = createAgent("snapshot");
+        List<AgentStatusEvent> events = collect(statusHub.subscribe(null, Set.of(), AgentStatusHub.Overflow.BUFFER), agent);
+
+        heartbeat(agent);
+        heartbeat(agent);
+        // Written to the database, so that the agent can go stale
+        heartbeatBuffer.flush().block(TIMEOUT);
+
+        List<AgentStatusEvent> received = await(events, 4);
+        assertThat(received).extracting(AgentStatusEvent::getType).containsExactly(
+            AgentStatusEvent.Type.SNAPSHOT, AgentStatusEvent.Type.STATUS_CHANGED,
+            AgentStatusEvent.Type.HEARTBEAT, AgentStatusEvent.Type.STATUS_CHANGED);
+        assertThat(received).extracting(AgentStatusEvent::getStatus).containsExactly(
+            Agent.AgentStatus.OFFLINE, Agent.AgentStatus.ONLINE, Agent.AgentStatus.ONLINE, Agent.AgentStatus.OFFLINE);
+        assertThat(received.get(3).getPreviousStatus()).isEqualTo(Agent.AgentStatus.ONLINE);
+    }
+
+    @Test
+    void subscribe_filtersByStatusAndUser() throws InterruptedException {
+        Agent agent = createAgent("filtered");
+        List<AgentStatusEvent> online = collect(
+            statusHub.subscribe(null, EnumSet.of(Agent.AgentStatus.ONLINE), AgentStatusHub.Overflow.BUFFER), agent);
+        List<AgentStatusEvent> otherUser = collect(
+            statusHub.subscribe(UUID.randomUUID(), Set.of(), AgentStatusHub.Overflow.BUFFER), agent);
+
+        heartbeat(agent);
+        heartbeatBuffer.flush().block(TIMEOUT);
+
+        // Not online in the snapshot, reported when going online and when leaving the status
+        List<AgentStatusEvent> received = await(online, 2);
+        assertThat(received).extracting(AgentStatusEvent::getStatus)
+            .containsExactly(Agent.AgentStatus.ONLINE, Agent.AgentStatus.OFFLINE);
+        assertThat(otherUser).isEmpty();
+    }
+
+    @Test
+    void heartbeat_resolvesAgentsRegisteredElsewhere() throws InterruptedException {
+        String apiKey = NAME_PREFIX + UUID.randomUUID();
+        UUID agentId = UUID.randomUUID();
+        jdbcTemplate.update("""
+            INSERT INTO agents (id, name, hostname, os_type, agent_version, api_key)
+            VALUES (?, ?, 'host', 'Linux', '1.0.0', ?)
+            """, agentId, NAME_PREFIX + "elsewhere", apiKey);
+        List<AgentStatusEvent> events = new CopyOnWriteArrayList<>();
+        subscriptions.add(statusHub.subscribe(null, EnumSet.of(Agent.AgentStatus.ONLINE), AgentStatusHub.Overflow.BUFFER)
+            .filter(event -> agentId.equals(event.getAgentId()))
+            .subscribe(events::add));
+
+        // Heartbeats of unknown keys left by other tests
+        statusHub.resolveUnknown().block(TIMEOUT);
+
+        statusHub.heartbeat(apiKey, Instant.now());
+        statusHub.heartbeat("unknown-" + UUID.randomUUID(), Instant.now());
+
+        assertThat(statusHub.resolveUnknown().block(TIMEOUT)).isEqualTo(1);
+        assertThat(await(events, 1).get(0).getType()).isEqualTo(AgentStatusEvent.Type.STATUS_CHANGED);
+    }
+
+    @Test
+    void subscribe_slowSubscriberDropsChangesWithoutBlockingOthers() throws InterruptedException {
+        Agent agent = createAgent("slow");
+        int heartbeats = 500;
+        List<AgentStatusEvent> slow = new CopyOnWriteArrayList<>();
+        BaseSubscriber<AgentStatusEvent> slowSubscriber = slowSubscriber(slow, new CopyOnWriteArrayList<>());
+        statusHub.subscribe(null, Set.of(), AgentStatusHub.Overflow.DROP)
+            .filter(event -> agent.getId().equals(event.getAgentId()))
+            .subscribe(slowSubscriber);
+        subscriptions.add(slowSubscriber);
+        List<AgentStatusEvent> fast = collect(statusHub.subscribe(null, Set.of(), AgentStatusHub.Overflow.BUFFER), agent);
+
+        Instant base = Instant.now();
+        for (int i = 1; i <= heartbeats; i++) {
+            statusHub.heartbeat(agent.getApiKey(), base.plusMillis(i));
+        }
+
+        assertThat(await(fast, heartbeats + 1)).hasSize(heartbeats + 1);
+        slowSubscriber.request(heartbeats);
+        statusHub.heartbeat(agent.getApiKey(), base.plusMillis(heartbeats + 1));
+
+        // The snapshot it requested, then only the change arriving once it requested more
+        List<AgentStatusEvent> received = await(slow, 2);
+        Thread.sleep(200);
+        assertThat(slow).hasSize(2);
+        assertThat(received).extracting(AgentStatusEvent::getType)
+            .containsExactly(AgentStatusEvent.Type.SNAPSHOT, AgentStatusEvent.Type.HEARTBEAT);
+        assertThat(received.get(1).getLastHeartbeat()).isEqualTo(base.plusMillis(heartbeats + 1));
+    }
+
+    @Test
+    void subscribe_coalescesHeartbeatsOfSlowSubscribers() throws InterruptedException {
+        Agent agent = createAgent("coalesced");
+        // More than the 1000 changes a BUFFER subscriber may hold
+        int heartbeats = 2000;
+        List<AgentStatusEvent> slow = new CopyOnWriteArrayList<>();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        BaseSubscriber<AgentStatusEvent> slowSubscriber = slowSubscriber(slow, errors);
+        statusHub.subscribe(null, Set.of(), AgentStatusHub.Overflow.BUFFER)
+            .filter(event -> agent.getId().equals(event.getAgentId()))
+            .subscribe(slowSubscriber);
+        subscriptions.add(slowSubscriber);
+
+        Instant base = Instant.now();
+        for (int i = 1; i <= heartbeats; i++) {
+            statusHub.heartbeat(agent.getApiKey(), base.plusMillis(i));
+        }
+        slowSubscriber.request(heartbeats);
+
+        // Going online is kept, the heartbeats that followed are replaced by the latest one
+        List<AgentStatusEvent> received = await(slow, 3);
+        Thread.sleep(200);
+        assertThat(slow).hasSize(3);
+        assertThat(errors).isEmpty();
+        assertThat(received).extracting(AgentStatusEvent::getType).containsExactly(
+            AgentStatusEvent.Type.SNAPSHOT, AgentStatusEvent.Type.STATUS_CHANGED, AgentStatusEvent.Type.HEARTBEAT);
+        assertThat(received.get(2).getLastHeartbeat()).isEqualTo(base.plusMillis(heartbeats));
+    }
+
+    /**
+     * A subscriber requesting a single event until asked for more.
+     */
+    private static BaseSubscriber<AgentStatusEvent> slowSubscriber(List<AgentStatusEvent> events, List<Throwable> errors) {
+        return new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(AgentStatusEvent event) {
+                events.add(event);
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                errors.add(throwable);
+            }
+        };
+    }
+
+    private Agent createAgent(String name) {
+        Agent agent = new Agent();
+        agent.setName(NAME_PREFIX + name);
+        agent.setHostname(name + ".test.com");
+        agent.setOsType("Linux");
+        agent.setAgentVersion("1.0.0");
+        return agentService.createAgent(agent).block(TIMEOUT);
+    }
+
+    private void heartbeat(Agent agent) {
+        agentService.processHeartbeatBatch(Flux.just(agent.getApiKey())).block(TIMEOUT);
+    }
+
+    private List<AgentStatusEvent> collect(Flux<AgentStatusEvent> stream, Agent agent) {
+        List<AgentStatusEvent> events = new CopyOnWriteArrayList<>();
+        subscriptions.add(stream.filter(event -> agent.getId().equals(event.getAgentId())).subscribe(events::add));
+        return events;
+    }
+
+    private static List<AgentStatusEvent> await(List<AgentStatusEvent> events, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+        while (events.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(events).hasSize(count);
+        return List.copyOf(events);
+    }
+}
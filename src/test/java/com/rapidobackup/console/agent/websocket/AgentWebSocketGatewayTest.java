@@ -0,0 +1,198 @@
+package com.rapidobackup.console.agent.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.net.http.WebSocketHandshakeException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rapidobackup.console.AbstractIntegrationTest;
+import com.rapidobackup.console.agent.dto.AgentCommandResult;
+import com.rapidobackup.console.agent.dto.AgentMessage;
+import com.rapidobackup.console.agent.service.AgentHeartbeatBuffer;
+import com.rapidobackup.console.agent.service.ReactiveAgentService;
+
+/**
+ * Integration tests for the agent WebSocket gateway.
+ *
+ * Not transactional: agents are authenticated through R2DBC, which cannot see uncommitted
+ * JDBC inserts.
+ *
+ * Tests cover:
+ * - Upgrades refused without a valid API key
+ * - Heartbeats received over the connection
+ * - Command delivery and acknowledgement on the same connection
+ * - Pending commands completing as disconnected when the agent goes away
+ * - Connections closed when the agent's API key is rotated
+ */
+class AgentWebSocketGatewayTest extends AbstractIntegrationTest {
+
+    private static final String KEY_PREFIX = "ws-test-";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AgentWebSocketHandler gateway;
+
+    @Autowired
+    private AgentHeartbeatBuffer heartbeatBuffer;
+
+    @Autowired
+    private ReactiveAgentService agentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @AfterEach
+    void tearDown() {
+        // Rotated keys no longer carry the prefix
+        jdbcTemplate.update("DELETE FROM agents WHERE api_key LIKE ? OR name = 'ws-agent'", KEY_PREFIX + "%");
+    }
+
+    @Test
+    void upgrade_refusesUnknownApiKey() {
+        assertThatThrownBy(() -> connect(KEY_PREFIX + "unknown", new CollectingListener()))
+            .isInstanceOf(ExecutionException.class)
+            .cause().isInstanceOf(WebSocketHandshakeException.class)
+            .satisfies(error -> assertThat(((WebSocketHandshakeException) error).getResponse().statusCode()).isEqualTo(401));
+    }
+
+    @Test
+    void connection_multiplexesHeartbeatsCommandsAndAcknowledgements() throws Exception {
+        String apiKey = KEY_PREFIX + UUID.randomUUID();
+        UUID agentId = insertAgent(apiKey);
+        CollectingListener listener = new CollectingListener();
+        WebSocket webSocket = connect(apiKey, listener);
+        awaitConnected(agentId, true);
+
+        webSocket.sendText("{\"type\":\"HEARTBEAT\"}", true).get(10, TimeUnit.SECONDS);
+        CompletableFuture<AgentCommandResult> result = gateway
+            .sendCommand(agentId, "backup.run", Map.of("plan", "daily"))
+            .toFuture();
+
+        AgentMessage command = objectMapper.readValue(listener.messages.poll(10, TimeUnit.SECONDS), AgentMessage.class);
+        assertThat(command.getType()).isEqualTo(AgentMessage.Type.COMMAND);
+        assertThat(command.getCommand()).isEqualTo("backup.run");
+        assertThat(command.getPayload()).containsEntry("plan", "daily");
+
+        webSocket.sendText(objectMapper.writeValueAsString(Map.of(
+            "type", "ACK", "commandId", command.getCommandId(), "success", true, "payload", Map.of("jobId", 42))), true);
+
+        AgentCommandResult acknowledged = result.get(10, TimeUnit.SECONDS);
+        assertThat(acknowledged.getStatus()).isEqualTo(AgentCommandResult.Status.SUCCEEDED);
+        assertThat(acknowledged.getCommandId()).isEqualTo(command.getCommandId());
+        assertThat(acknowledged.getPayload()).containsEntry("jobId", 42);
+        // Connecting and the heartbeat message were both recorded
+        assertThat(heartbeatBuffer.flush().block(TIMEOUT)).isGreaterThanOrEqualTo(1);
+
+        webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "done").get(10, TimeUnit.SECONDS);
+        awaitConnected(agentId, false);
+    }
+
+    @Test
+    void disconnect_completesPendingCommands() throws Exception {
+        String apiKey = KEY_PREFIX + UUID.randomUUID();
+        UUID agentId = insertAgent(apiKey);
+        CollectingListener listener = new CollectingListener();
+        WebSocket webSocket = connect(apiKey, listener);
+        awaitConnected(agentId, true);
+
+        CompletableFuture<AgentCommandResult> result = gateway.sendCommand(agentId, "restore.run", null).toFuture();
+        assertThat(listener.messages.poll(10, TimeUnit.SECONDS)).contains("restore.run");
+        webSocket.abort();
+
+        assertThat(result.get(10, TimeUnit.SECONDS).getStatus()).isEqualTo(AgentCommandResult.Status.DISCONNECTED);
+        assertThatThrownBy(() -> gateway.sendCommand(agentId, "restore.run", null).block(TIMEOUT))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rotateApiKey_closesConnectionOfPreviousKey() throws Exception {
+        String apiKey = KEY_PREFIX + UUID.randomUUID();
+        UUID agentId = insertAgent(apiKey);
+        CollectingListener listener = new CollectingListener();
+        connect(apiKey, listener);
+        awaitConnected(agentId, true);
+
+        agentService.rotateApiKey(agentId).block(TIMEOUT);
+
+        assertThat(listener.closeCode.get(10, TimeUnit.SECONDS)).isEqualTo(1008);
+        awaitConnected(agentId, false);
+        assertThatThrownBy(() -> connect(apiKey, new CollectingListener()))
+            .isInstanceOf(ExecutionException.class)
+            .cause().isInstanceOf(WebSocketHandshakeException.class);
+    }
+
+    private WebSocket connect(String apiKey, WebSocket.Listener listener) throws Exception {
+        return httpClient.newWebSocketBuilder()
+            .header(AgentHandshakeInterceptor.API_KEY_HEADER, apiKey)
+            .buildAsync(URI.create("ws://localhost:" + port + "/ws/agent"), listener)
+            .get(10, TimeUnit.SECONDS);
+    }
+
+    private UUID insertAgent(String apiKey) {
+        UUID agentId = UUID.randomUUID();
+        jdbcTemplate.update("""
+            INSERT INTO agents (id, name, hostname, os_type, agent_version, api_key)
+            VALUES (?, 'ws-agent', 'host', 'Linux', '1.0.0', ?)
+            """, agentId, apiKey);
+        return agentId;
+    }
+
+    private void awaitConnected(UUID agentId, boolean connected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT.toMillis();
+        while (gateway.isConnected(agentId) != connected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(gateway.isConnected(agentId)).isEqualTo(connected);
+    }
+
+    private static class CollectingListener implements WebSocket.Listener {
+
+        private final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+        private final StringBuilder partial = new StringBuilder();
+        private final CompletableFuture<Integer> closeCode = new CompletableFuture<>();
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                messages.add(partial.toString());
+                partial.setLength(0);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            closeCode.complete(statusCode);
+            return null;
+        }
+    }
+}
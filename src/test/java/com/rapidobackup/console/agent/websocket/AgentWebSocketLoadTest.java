@@ -0,0 +1,135 @@
+package com.rapidobackup.console.agent.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.net.http.WebSocketHandshakeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import com.rapidobackup.console.AbstractIntegrationTest;
+
+/**
+ * Load test of the agent WebSocket gateway with a large fleet of idle agents.
+ *
+ * Opens {@value #CONNECTIONS} concurrent idle connections and checks they fit the memory
+ * budget of {@value #HEAP_BUDGET_PER_CONNECTION} bytes of heap per connection. The budget
+ * is measured on the whole JVM, so it also covers the in-process client side of every
+ * connection and the per-agent state of the heartbeat, liveness and status components.
+ * The connection limit is then checked to refuse one more agent.
+ *
+ * Skipped when the process may not open enough file descriptors (two per connection, both
+ * ends being in this JVM) or has too little heap for the budget.
+ */
+@TestPropertySource(properties = {
+    "console.agent.max-concurrent-connections=" + AgentWebSocketLoadTest.CONNECTIONS,
+    "server.tomcat.max-connections=12000"
+})
+class AgentWebSocketLoadTest extends AbstractIntegrationTest {
+
+    static final int CONNECTIONS = 10_000;
+    private static final long HEAP_BUDGET_PER_CONNECTION = 96 * 1024;
+    private static final int CONCURRENT_HANDSHAKES = 200;
+    private static final String KEY_PREFIX = "ws-load-";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AgentWebSocketHandler gateway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final List<WebSocket> webSockets = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        webSockets.forEach(WebSocket::abort);
+        jdbcTemplate.update("DELETE FROM agents WHERE api_key LIKE ?", KEY_PREFIX + "%");
+    }
+
+    @Test
+    void idleConnections_fitMemoryBudgetAndLimit() throws Exception {
+        assumeTrue(maxFileDescriptors() > 2L * CONNECTIONS + 2000, "Not enough file descriptors for the load test");
+        assumeTrue(Runtime.getRuntime().maxMemory() > 2 * CONNECTIONS * HEAP_BUDGET_PER_CONNECTION,
+            "Not enough heap for the load test");
+        insertAgents(CONNECTIONS + 1);
+        long heapBefore = usedHeapAfterGc();
+
+        long startTime = System.currentTimeMillis();
+        for (int from = 0; from < CONNECTIONS; from += CONCURRENT_HANDSHAKES) {
+            List<CompletableFuture<WebSocket>> handshakes = new ArrayList<>();
+            for (int i = from; i < Math.min(CONNECTIONS, from + CONCURRENT_HANDSHAKES); i++) {
+                handshakes.add(connect(KEY_PREFIX + i));
+            }
+            for (CompletableFuture<WebSocket> handshake : handshakes) {
+                webSockets.add(handshake.get(30, TimeUnit.SECONDS));
+            }
+        }
+        long connectDuration = System.currentTimeMillis() - startTime;
+        // Let the server finish registering the last connections
+        Thread.sleep(1000);
+
+        long heapPerConnection = (usedHeapAfterGc() - heapBefore) / CONNECTIONS;
+        System.out.printf("%d idle agent connections opened in %d ms, %d bytes of heap per connection (budget %d)%n",
+            CONNECTIONS, connectDuration, heapPerConnection, HEAP_BUDGET_PER_CONNECTION);
+
+        assertThat(gateway.connectionCount()).isEqualTo(CONNECTIONS);
+        assertThat(heapPerConnection).isLessThan(HEAP_BUDGET_PER_CONNECTION);
+        assertThatThrownBy(() -> connect(KEY_PREFIX + CONNECTIONS).get(30, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .cause().isInstanceOf(WebSocketHandshakeException.class)
+            .satisfies(error -> assertThat(((WebSocketHandshakeException) error).getResponse().statusCode()).isEqualTo(503));
+    }
+
+    private CompletableFuture<WebSocket> connect(String apiKey) {
+        return httpClient.newWebSocketBuilder()
+            .header(AgentHandshakeInterceptor.API_KEY_HEADER, apiKey)
+            .buildAsync(URI.create("ws://localhost:" + port + "/ws/agent"), new WebSocket.Listener() { });
+    }
+
+    private void insertAgents(int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {UUID.randomUUID(), "load-agent-" + i, KEY_PREFIX + i});
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO agents (id, name, hostname, os_type, agent_version, api_key) VALUES (?, ?, 'host', 'Linux', '1.0.0', ?)",
+            rows);
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long maxFileDescriptors() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.UnixOperatingSystemMXBean unix) {
+            return unix.getMaxFileDescriptorCount();
+        }
+        return Long.MAX_VALUE;
+    }
+}
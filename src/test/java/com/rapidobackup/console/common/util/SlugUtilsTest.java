@@ -17,6 +17,8 @@ import static org.assertj.core.api.Assertions.assertThat;
  * - Basic slug generation from various text inputs
  * - Unicode and accent handling
  * - Unique slug generation with collision handling
+ * - Batch slug resolution from preloaded slug sets
+ * - Root slugs shared by overlapping suffix spaces
  * - Slug validation
  * - Edge cases and special characters
  */
@@ -115,6 +117,31 @@ class SlugUtilsTest {
             .isEqualTo("untitled-1");
     }
 
+    @Test
+    void nextAvailableSlug_fillsFirstFreeSuffix() {
+        Set<String> takenSlugs = Set.of("acme", "acme-1", "acme-3", "acme-corp");
+
+        assertThat(SlugUtils.nextAvailableSlug("acme", takenSlugs)).isEqualTo("acme-2");
+        assertThat(SlugUtils.nextAvailableSlug("acme-corp", takenSlugs)).isEqualTo("acme-corp-1");
+        assertThat(SlugUtils.nextAvailableSlug("globex", takenSlugs)).isEqualTo("globex");
+    }
+
+    @Test
+    void rootSlug_stripsNumericSuffixes() {
+        assertThat(SlugUtils.rootSlug("acme")).isEqualTo("acme");
+        assertThat(SlugUtils.rootSlug("acme-1")).isEqualTo("acme");
+        assertThat(SlugUtils.rootSlug("acme-1-2")).isEqualTo("acme");
+        assertThat(SlugUtils.rootSlug("acme-2024-corp")).isEqualTo("acme-2024-corp");
+        assertThat(SlugUtils.rootSlug("test123")).isEqualTo("test123");
+        assertThat(SlugUtils.rootSlug("2024")).isEqualTo("2024");
+    }
+
+    @Test
+    void generateBaseSlug_emptyInput_usesUntitled() {
+        assertThat(SlugUtils.generateBaseSlug(null)).isEqualTo("untitled");
+        assertThat(SlugUtils.generateBaseSlug("Acme Corp")).isEqualTo("acme-corp");
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {
         "hello-world",
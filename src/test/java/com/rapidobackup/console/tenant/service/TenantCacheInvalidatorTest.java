@@ -0,0 +1,109 @@
+package com.rapidobackup.console.tenant.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.rapidobackup.console.AbstractIntegrationTest;
+import com.rapidobackup.console.tenant.entity.Tenant;
+import com.rapidobackup.console.tenant.entity.TenantType;
+
+/**
+ * Integration tests for scoped tenant cache invalidation.
+ *
+ * Tests cover:
+ * - Eviction of the updated tenant and its descendants, by id and by slug
+ * - Eviction of the moved branch and of the listings at its old and new position
+ * - Entries outside the affected branch staying cached
+ */
+@Transactional
+class TenantCacheInvalidatorTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Tenant root;
+    private Tenant partner;
+    private Tenant otherPartner;
+    private Tenant client;
+    private Tenant grandChild;
+
+    private Cache tenantsCache;
+    private Cache hierarchyCache;
+
+    @BeforeEach
+    void setUp() {
+        root = tenantService.createTenant("Cache Root", null, TenantType.WHOLESALER, null);
+        partner = tenantService.createTenant("Cache Partner", null, TenantType.PARTNER, root.getId());
+        otherPartner = tenantService.createTenant("Cache Other Partner", null, TenantType.PARTNER, root.getId());
+        client = tenantService.createTenant("Cache Client", null, TenantType.CLIENT, partner.getId());
+        grandChild = tenantService.createTenant("Cache Grand Child", null, TenantType.CLIENT, client.getId());
+
+        tenantsCache = cacheManager.getCache(TenantCacheInvalidator.TENANTS_CACHE);
+        hierarchyCache = cacheManager.getCache(TenantCacheInvalidator.HIERARCHY_CACHE);
+        for (Tenant tenant : new Tenant[] {root, partner, otherPartner, client, grandChild}) {
+            tenantService.findById(tenant.getId());
+            tenantService.findBySlug(tenant.getSlug());
+            tenantService.findAllDescendants(tenant.getId());
+            tenantService.findDirectChildren(tenant.getId());
+            tenantService.findAllAncestors(tenant.getId());
+        }
+        assertThat(tenantsCache.get(client.getId())).isNotNull();
+        assertThat(tenantsCache.get(client.getSlug())).isNotNull();
+    }
+
+    @Test
+    void updateTenant_evictsTenantAndDescendantsByIdAndSlug() {
+        String oldSlug = partner.getSlug();
+
+        Tenant renamed = tenantService.updateTenant(partner.getId(), "Cache Partner Renamed", null, TenantType.PARTNER);
+
+        assertThat(tenantsCache.get(partner.getId())).isNull();
+        assertThat(tenantsCache.get(oldSlug)).isNull();
+        assertThat(tenantsCache.get(renamed.getSlug())).isNull();
+        assertThat(tenantsCache.get(client.getId())).isNull();
+        assertThat(tenantsCache.get(client.getSlug())).isNull();
+        assertThat(tenantsCache.get(grandChild.getId())).isNull();
+        assertThat(tenantsCache.get(grandChild.getSlug())).isNull();
+        assertThat(hierarchyCache.get("ancestors:" + client.getId())).isNull();
+        assertThat(hierarchyCache.get("descendants:" + root.getId())).isNull();
+        assertThat(hierarchyCache.get("children:" + root.getId())).isNull();
+
+        // Outside the renamed branch
+        assertThat(tenantsCache.get(otherPartner.getId())).isNotNull();
+        assertThat(tenantsCache.get(otherPartner.getSlug())).isNotNull();
+        assertThat(tenantsCache.get(root.getId())).isNotNull();
+        assertThat(hierarchyCache.get("ancestors:" + otherPartner.getId())).isNotNull();
+    }
+
+    @Test
+    void moveTenant_evictsBranchAndListingsAtOldAndNewPosition() {
+        tenantService.moveTenant(client.getId(), otherPartner.getId());
+
+        assertThat(tenantsCache.get(client.getId())).isNull();
+        assertThat(tenantsCache.get(client.getSlug())).isNull();
+        assertThat(tenantsCache.get(grandChild.getId())).isNull();
+        assertThat(tenantsCache.get(grandChild.getSlug())).isNull();
+        assertThat(hierarchyCache.get("ancestors:" + client.getId())).isNull();
+        assertThat(hierarchyCache.get("ancestors:" + grandChild.getId())).isNull();
+        assertThat(hierarchyCache.get("children:" + partner.getId())).isNull();
+        assertThat(hierarchyCache.get("descendants:" + partner.getId())).isNull();
+        assertThat(hierarchyCache.get("children:" + otherPartner.getId())).isNull();
+        assertThat(hierarchyCache.get("descendants:" + otherPartner.getId())).isNull();
+        assertThat(hierarchyCache.get("descendants:" + root.getId())).isNull();
+
+        // Neither moved nor listing the moved branch
+        assertThat(tenantsCache.get(partner.getId())).isNotNull();
+        assertThat(tenantsCache.get(otherPartner.getSlug())).isNotNull();
+        assertThat(hierarchyCache.get("ancestors:" + partner.getId())).isNotNull();
+        assertThat(hierarchyCache.get("children:" + root.getId())).isNotNull();
+    }
+}
@@ -1,20 +1,50 @@
 package com.rapidobackup.console.tenant.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 import org.junit.jupiter.api.AfterEach;
 
 import com.rapidobackup.console.AbstractIntegrationTest;
+import com.rapidobackup.console.tenant.dto.TenantCursor;
+import com.rapidobackup.console.tenant.dto.TenantExportFormat;
+import com.rapidobackup.console.tenant.dto.TenantJsonFilter;
+import com.rapidobackup.console.tenant.dto.TenantJsonPredicate;
+import com.rapidobackup.console.tenant.dto.TenantProvisioningNode;
+import com.rapidobackup.console.tenant.dto.TenantProvisioningRequest;
+import com.rapidobackup.console.tenant.dto.TenantProvisioningResult;
+import com.rapidobackup.console.tenant.dto.TenantSettingUpsert;
+import com.rapidobackup.console.tenant.dto.TenantSettingValue;
+import com.rapidobackup.console.tenant.dto.TenantSummary;
+import com.rapidobackup.console.tenant.dto.TenantTreeItem;
 import com.rapidobackup.console.tenant.entity.Tenant;
+import com.rapidobackup.console.tenant.entity.TenantAttributes;
 import com.rapidobackup.console.tenant.entity.TenantType;
 import com.rapidobackup.console.tenant.repository.TenantRepository;
+import com.rapidobackup.console.tenant.repository.TenantSettingRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 /**
  * Performance tests for tenant hierarchy operations.
@@ -26,7 +56,16 @@ import com.rapidobackup.console.tenant.repository.TenantRepository;
  * - Large hierarchy creation (10,000 tenants across 5 levels)
  * - Descendant queries on large subtrees
  * - Ancestor queries up the hierarchy
+ * - Nested tree assembly from a single path-ordered query
  * - Search operations across the hierarchy
+ * - Set-based move of a 50,000 tenant subtree
+ * - Keyset pagination over a 20,000 tenant subtree
+ * - Streaming NDJSON/CSV export of a 20,000 tenant subtree
+ * - Trigram fuzzy search across 100,000 tenants
+ * - Set-based cascade delete of a 20,000 tenant branch
+ * - Bulk provisioning of a 10,000 tenant tree, and of a 100,000 level deep nesting
+ * - Bulk settings upsert and read of 10,000 settings against the per-row path
+ * - Allocation and latency saved by not loading JSONB attributes in a 20,000 tenant listing
  */
 @Transactional
 class TenantHierarchyPerformanceTest extends AbstractIntegrationTest {
@@ -37,6 +76,27 @@ class TenantHierarchyPerformanceTest extends AbstractIntegrationTest {
     @Autowired
     private TenantRepository tenantRepository;
 
+    @Autowired
+    private TenantTreeIndex tenantTreeIndex;
+
+    @Autowired
+    private TenantProvisioningService provisioningService;
+
+    @Autowired
+    private TenantExportService exportService;
+
+    @Autowired
+    private TenantSettingService settingService;
+
+    @Autowired
+    private TenantSettingRepository settingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
 
     @BeforeEach
     void setUp() {
@@ -147,19 +207,55 @@ class TenantHierarchyPerformanceTest extends AbstractIntegrationTest {
 
         // Should find 3 ancestors (root, level 1, level 2)
         assertThat(ancestors).hasSize(3);
+        assertThat(ancestors).extracting(Tenant::getLevel).containsExactly(0, 1, 2);
+        assertThat(deepTenant.getPath()).startsWith(ancestors.get(2).getPath() + Tenant.PATH_SEPARATOR);
         assertThat(duration).isLessThan(50); // Should be very fast
 
         System.out.printf("Found %d ancestors in %d ms%n", ancestors.size(), duration);
     }
 
+    @Test
+    void testNestedTreeFromSingleQuery() {
+        createTestHierarchy();
+        Tenant company = tenantRepository.findRootTenants().get(0);
+
+        String etag = tenantService.treeETag(company.getId(), null);
+        long startTime = System.currentTimeMillis();
+        TenantTreeItem tree = tenantService.findTree(company.getId(), null);
+        long duration = System.currentTimeMillis() - startTime;
+
+        // 3 divisions, 5 departments each, 10 teams each, siblings sorted by name
+        assertThat(tree.getId()).isEqualTo(company.getId());
+        assertThat(tree.getChildren()).hasSize(3)
+            .extracting(TenantTreeItem::getName).containsExactly("Division 1", "Division 2", "Division 3");
+        assertThat(tree.getChildren()).allSatisfy(division -> {
+            assertThat(division.getChildren()).hasSize(5);
+            assertThat(division.getChildren()).allSatisfy(department -> assertThat(department.getChildren()).hasSize(10));
+        });
+        assertThat(duration).isLessThan(100);
+
+        // Depth-limited slice: divisions are included without their children, but report them
+        TenantTreeItem slice = tenantService.findTree(company.getId(), 1);
+        assertThat(slice.getChildren()).hasSize(3).allSatisfy(division -> {
+            assertThat(division.getChildren()).isEmpty();
+            assertThat(division.getChildCount()).isEqualTo(5);
+        });
+
+        // The tag only changes with the hierarchy
+        assertThat(tenantService.treeETag(company.getId(), null)).isEqualTo(etag);
+        tenantService.createTenant("Division 4", null, TenantType.PARTNER, company.getId());
+        assertThat(tenantService.treeETag(company.getId(), null)).isNotEqualTo(etag);
+
+        System.out.printf("Built nested tree of %d tenants in %d ms%n", 169, duration);
+    }
+
     @Test
     void testSearchPerformance() {
         createTestHierarchy();
 
         // Test search performance
         long startTime = System.currentTimeMillis();
-        var searchResults = tenantService.searchTenants("Team", TenantType.CLIENT, null, null,
-            org.springframework.data.domain.PageRequest.of(0, 100));
+        var searchResults = tenantService.searchTenants("Team", TenantType.CLIENT, null, null, null, 100, false);
         long endTime = System.currentTimeMillis();
 
         long duration = endTime - startTime;
@@ -210,6 +306,615 @@ class TenantHierarchyPerformanceTest extends AbstractIntegrationTest {
         assertThat(movedTenant.getPath()).startsWith(targetParent.getPath() + "/");
     }
 
+    @Test
+    void testLargeSubtreeMovePerformance() {
+        // Level 0: 1 root
+        // Level 1: the branch to move + the target parent
+        // Level 2: 50 partners under the branch
+        // Level 3: 999 clients per partner (49,950 total)
+        // Subtree size: 50,000 descendants
+        UUID rootId = insertTenant(null, "move-root", 0, TenantType.WHOLESALER);
+        UUID branchId = insertTenant(rootId, "move-root/branch", 1, TenantType.PARTNER);
+        UUID targetId = insertTenant(rootId, "move-root/target", 1, TenantType.PARTNER);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int p = 1; p <= 50; p++) {
+            String partnerPath = "move-root/branch/partner-" + p;
+            UUID partnerId = UUID.randomUUID();
+            rows.add(tenantRow(partnerId, branchId, partnerPath, 2, TenantType.PARTNER));
+            for (int c = 1; c <= 999; c++) {
+                rows.add(tenantRow(UUID.randomUUID(), partnerId, partnerPath + "/client-" + p + "-" + c, 3, TenantType.CLIENT));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_TENANT_SQL, rows);
+        tenantTreeIndex.invalidate();
+
+        assertThat(tenantService.countAllDescendants(branchId)).isEqualTo(50_000);
+
+        // Test move performance
+        long startTime = System.currentTimeMillis();
+        tenantService.moveTenant(branchId, targetId);
+        long endTime = System.currentTimeMillis();
+
+        long duration = endTime - startTime;
+
+        // A single set-based UPDATE should move the whole branch well within budget
+        assertThat(duration).isLessThan(5000);
+
+        System.out.printf("Moved tenant with %d descendants in %d ms%n", rows.size(), duration);
+
+        // Verify paths and levels were rewritten in the database
+        String newPrefix = "move-root/target/branch/";
+        assertThat(tenantRepository.countAllDescendants(newPrefix + "%")).isEqualTo(50_000);
+        assertThat(tenantRepository.countAllDescendants("move-root/branch/%")).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM tenants WHERE path LIKE ? AND level = 4", Long.class, newPrefix + "partner-%/%"))
+            .isEqualTo(49_950);
+        assertThat(tenantService.countAllDescendants(targetId)).isEqualTo(50_001);
+    }
+
+    @Test
+    void testRenameDoesNotRewriteSubtree() {
+        // Level 0: 1 root
+        // Level 1: the branch to rename
+        // Level 2: 50 partners under the branch
+        // Level 3: 199 clients per partner (9,950 total)
+        UUID rootId = insertTenant(null, "rename-root", 0, TenantType.WHOLESALER);
+        UUID branchId = insertTenant(rootId, "rename-root/branch", 1, TenantType.PARTNER);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int p = 1; p <= 50; p++) {
+            String partnerPath = "rename-root/branch/rename-partner-" + p;
+            UUID partnerId = UUID.randomUUID();
+            rows.add(tenantRow(partnerId, branchId, partnerPath, 2, TenantType.PARTNER));
+            for (int c = 1; c <= 199; c++) {
+                rows.add(tenantRow(UUID.randomUUID(), partnerId, partnerPath + "/rename-client-" + p + "-" + c, 3, TenantType.CLIENT));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_TENANT_SQL, rows);
+        tenantTreeIndex.invalidate();
+
+        long startTime = System.currentTimeMillis();
+        Tenant renamed = tenantService.updateTenant(branchId, "Renamed Branch", null, TenantType.PARTNER);
+        tenantRepository.flush();
+        long duration = System.currentTimeMillis() - startTime;
+
+        // Paths are built from path keys: only the renamed row changes
+        assertThat(renamed.getSlug()).isEqualTo("renamed-branch");
+        assertThat(renamed.getPath()).isEqualTo("rename-root/branch");
+        assertThat(tenantRepository.countAllDescendants("rename-root/branch/%")).isEqualTo(10_000);
+        assertThat(tenantService.countAllDescendants(branchId)).isEqualTo(10_000);
+        assertThat(duration).isLessThan(500);
+
+        System.out.printf("Renamed tenant with %d descendants in %d ms%n", rows.size(), duration);
+    }
+
+    @Test
+    void testKeysetPaginationOverLargeSubtree() {
+        // 1 root, 20 partners, 999 clients per partner: 20,000 descendants
+        UUID rootId = insertTenant(null, "page-root", 0, TenantType.WHOLESALER);
+        List<Object[]> rows = new ArrayList<>();
+        for (int p = 1; p <= 20; p++) {
+            String partnerPath = "page-root/partner-" + p;
+            UUID partnerId = UUID.randomUUID();
+            rows.add(tenantRow(partnerId, rootId, partnerPath, 1, TenantType.PARTNER));
+            for (int c = 1; c <= 999; c++) {
+                rows.add(tenantRow(UUID.randomUUID(), partnerId, partnerPath + "/client-" + p + "-" + c, 2, TenantType.CLIENT));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_TENANT_SQL, rows);
+        tenantTreeIndex.invalidate();
+
+        var firstPage = tenantService.findAllDescendants(rootId, null, 500, true);
+        assertThat(firstPage.getApproximateTotal()).isEqualTo(20_000);
+        assertThat(firstPage.getContent()).first().extracting(TenantSummary::getLevel).isEqualTo(1);
+        assertThat(firstPage.getContent()).first().extracting(TenantSummary::getChildCount).isEqualTo(999);
+
+        // Walk every page; each page must only cost a seek, however deep it is
+        Set<UUID> seen = new HashSet<>();
+        String cursor = null;
+        long firstPageDuration = -1;
+        long slowestPageDuration = 0;
+        do {
+            long startTime = System.currentTimeMillis();
+            var page = tenantService.findAllDescendants(rootId, cursor, 500, false);
+            long duration = System.currentTimeMillis() - startTime;
+            if (firstPageDuration < 0) {
+                firstPageDuration = duration;
+            }
+            slowestPageDuration = Math.max(slowestPageDuration, duration);
+
+            page.getContent().forEach(tenant -> assertThat(seen.add(tenant.getId())).isTrue());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(20_000);
+        assertThat(slowestPageDuration).isLessThan(500);
+
+        System.out.printf("Paged 20,000 descendants: first page %d ms, slowest page %d ms%n",
+            firstPageDuration, slowestPageDuration);
+    }
+
+    @Test
+    void testStreamingExportOverLargeSubtree() throws Exception {
+        // 1 root, 20 partners, 999 clients per partner: 20,000 descendants
+        UUID rootId = insertTenant(null, "export-root", 0, TenantType.WHOLESALER);
+        List<Object[]> rows = new ArrayList<>();
+        for (int p = 1; p <= 20; p++) {
+            String partnerPath = "export-root/export-partner-" + p;
+            UUID partnerId = UUID.randomUUID();
+            rows.add(tenantRow(partnerId, rootId, partnerPath, 1, TenantType.PARTNER));
+            for (int c = 1; c <= 999; c++) {
+                rows.add(tenantRow(UUID.randomUUID(), partnerId, partnerPath + "/export-client-" + p + "-" + c, 2, TenantType.CLIENT));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_TENANT_SQL, rows);
+        tenantTreeIndex.invalidate();
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        long startTime = System.currentTimeMillis();
+        long exported = exportService.exportSubtree(rootId, TenantExportFormat.NDJSON, ndjson);
+        long duration = System.currentTimeMillis() - startTime;
+
+        // Root plus every descendant, one line each, parents first
+        List<String> lines = ndjson.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(exported).isEqualTo(20_001);
+        assertThat(lines).hasSize(20_001);
+        assertThat(lines.get(0)).contains(rootId.toString()).contains("\"path\":\"export-root\"");
+        assertThat(duration).isLessThan(10000);
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        exportService.exportSubtree(rootId, TenantExportFormat.CSV, csv);
+        List<String> csvLines = csv.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(csvLines).hasSize(20_002);
+        assertThat(csvLines.get(0)).startsWith("id,parentId,name");
+
+        System.out.printf("Exported %d tenants as NDJSON in %d ms%n", exported, duration);
+    }
+
+    @Test
+    void testFuzzySearchPerformance() {
+        // 1 root, 100 partners, 1,000 clients per partner: 100,101 tenants
+        UUID rootId = insertTenant(null, "search-root", 0, TenantType.WHOLESALER);
+        List<Object[]> rows = new ArrayList<>();
+        for (int p = 1; p <= 100; p++) {
+            String partnerPath = "search-root/partner-" + p;
+            UUID partnerId = UUID.randomUUID();
+            rows.add(tenantRow(partnerId, rootId, partnerPath, 1, TenantType.PARTNER));
+            for (int c = 1; c <= 1000; c++) {
+                rows.add(tenantRow(UUID.randomUUID(), partnerId, partnerPath + "/customer-" + p + "-" + c, 2, TenantType.CLIENT));
+            }
+        }
+        UUID acmeId = UUID.randomUUID();
+        rows.add(tenantRow(acmeId, rootId, "search-root/acme-logistics", 1, TenantType.CLIENT));
+        jdbcTemplate.batchUpdate(INSERT_TENANT_SQL, rows);
+        jdbcTemplate.execute("ANALYZE tenants");
+        tenantTreeIndex.invalidate();
+
+        // Warm up, then measure a typo'd lookup (sequential scan would visit all 100k rows)
+        tenantService.fuzzySearchTenants("acme", null, null, null, 20);
+        long startTime = System.currentTimeMillis();
+        List<TenantSummary> typo = tenantService.fuzzySearchTenants("acme logistcs", null, null, null, 20);
+        long typoDuration = System.currentTimeMillis() - startTime;
+
+        startTime = System.currentTimeMillis();
+        List<TenantSummary> substring = tenantService.fuzzySearchTenants("customer-42-99", TenantType.CLIENT, null, rootId, 20);
+        long substringDuration = System.currentTimeMillis() - startTime;
+
+        assertThat(typo).isNotEmpty();
+        assertThat(typo.get(0).getId()).isEqualTo(acmeId);
+        assertThat(substring).isNotEmpty();
+        assertThat(substring.get(0).getSlug()).isEqualTo("customer-42-99");
+        assertThat(typoDuration).isLessThan(100);
+        assertThat(substringDuration).isLessThan(100);
+
+        System.out.printf("Fuzzy search over %d tenants: typo %d ms, substring %d ms%n",
+            rows.size() + 1, typoDuration, substringDuration);
+    }
+
+    @Test
+    void testCascadeDeletePerformance() {
+        // 1 root, the branch to close, 20 partners with 999 clients each: 20,000 tenants in the branch
+        UUID rootId = insertTenant(null, "close-root", 0, TenantType.WHOLESALER);
+        UUID branchId = insertTenant(rootId, "close-root/branch", 1, TenantType.PARTNER);
+        UUID keptId = insertTenant(rootId, "close-root/kept", 1, TenantType.PARTNER);
+        List<Object[]> rows = new ArrayList<>();
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> contacts = new ArrayList<>();
+        for (int p = 1; p <= 20; p++) {
+            String partnerPath = "close-root/branch/partner-" + p;
+            UUID partnerId = UUID.randomUUID();
+            rows.add(tenantRow(partnerId, branchId, partnerPath, 2, TenantType.PARTNER));
+            for (int c = 1; c <= 999; c++) {
+                rows.add(tenantRow(UUID.randomUUID(), partnerId, partnerPath + "/client-" + p + "-" + c, 3, TenantType.CLIENT));
+            }
+            users.add(new Object[] {UUID.randomUUID(), partnerId, "close-user-" + p});
+            contacts.add(new Object[] {UUID.randomUUID(), partnerId});
+        }
+        jdbcTemplate.batchUpdate(INSERT_TENANT_SQL, rows);
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, tenant_id, username, status) VALUES (?, ?, ?, 'ACTIVE')", users);
+        jdbcTemplate.batchUpdate("INSERT INTO contacts (id, tenant_id, contact_type) VALUES (?, ?, 'PRIMARY')", contacts);
+        UUID keptUserId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, tenant_id, username, status) VALUES (?, ?, 'close-kept-user', 'ACTIVE')",
+            keptUserId, keptId);
+        tenantTreeIndex.invalidate();
+
+        long startTime = System.currentTimeMillis();
+        var result = tenantService.deleteTenant(branchId, true);
+        long duration = System.currentTimeMillis() - startTime;
+
+        assertThat(result.getDeletedTenants()).isEqualTo(20_001);
+        assertThat(result.getDeletedUsers()).isEqualTo(20);
+        assertThat(result.getDeletedContacts()).isEqualTo(20);
+        assertThat(duration).isLessThan(5000);
+
+        // Only the branch is closed
+        assertThat(tenantService.countAllDescendants(rootId)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM tenants WHERE path LIKE 'close-root/branch%' AND (deleted_at IS NULL OR status <> 'CLOSED')",
+            Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT status FROM users WHERE id = ? AND deleted_at IS NULL", String.class, keptUserId)).isEqualTo("ACTIVE");
+
+        System.out.printf("Closed %d tenants, %d users and %d contacts in %d ms%n",
+            result.getDeletedTenants(), result.getDeletedUsers(), result.getDeletedContacts(), duration);
+    }
+
+    @Test
+    void testBulkProvisioningThroughput() {
+        // 1 wholesaler, 20 partners, 499 clients per partner: 10,001 tenants
+        TenantProvisioningNode wholesaler = new TenantProvisioningNode("wholesaler", "Bulk Wholesaler", TenantType.WHOLESALER);
+        for (int p = 1; p <= 20; p++) {
+            TenantProvisioningNode partner = new TenantProvisioningNode("partner-" + p, "Bulk Partner " + p, TenantType.PARTNER);
+            for (int c = 1; c <= 499; c++) {
+                partner.getChildren().add(new TenantProvisioningNode(null, "Bulk Client", TenantType.CLIENT));
+            }
+            wholesaler.getChildren().add(partner);
+        }
+        TenantProvisioningRequest request = new TenantProvisioningRequest();
+        request.getTenants().add(wholesaler);
+
+        long startTime = System.currentTimeMillis();
+        TenantProvisioningResult result = provisioningService.provision(request);
+        long endTime = System.currentTimeMillis();
+
+        long duration = endTime - startTime;
+
+        assertThat(result.getFailedCount()).isZero();
+        assertThat(result.getCreatedCount()).isEqualTo(10_001);
+        assertThat(tenantRepository.count()).isEqualTo(10_001);
+
+        // Shared names get consecutive suffixes from a single slug allocation
+        assertThat(tenantRepository.findBySlug("bulk-client-9979")).isPresent();
+
+        UUID wholesalerId = result.getResults().get(0).getId();
+        assertThat(tenantService.countAllDescendants(wholesalerId)).isEqualTo(10_000);
+
+        // Batched inserts should be an order of magnitude faster than one createTenant per node
+        assertThat(duration).isLessThan(10000);
+
+        System.out.printf("Provisioned %d tenants in %d ms (%.2f tenants/second)%n",
+            result.getCreatedCount(), duration, (result.getCreatedCount() * 1000.0) / duration);
+    }
+
+    @Test
+    void testBulkProvisioningReportsPerNodeErrors() {
+        Tenant company = tenantService.createTenant("Provisioning Company", null, TenantType.WHOLESALER, null);
+
+        TenantProvisioningNode partner = new TenantProvisioningNode("partner", "Partner", TenantType.PARTNER);
+        TenantProvisioningNode nameless = new TenantProvisioningNode("nameless", " ", TenantType.PARTNER);
+        TenantProvisioningNode orphan = new TenantProvisioningNode("orphan", "Orphan", TenantType.CLIENT);
+        orphan.setParentRef("nameless");
+        TenantProvisioningNode client = new TenantProvisioningNode("client", "Client", TenantType.CLIENT);
+        client.setParentRef("partner");
+
+        TenantProvisioningRequest request = new TenantProvisioningRequest();
+        request.setParentId(company.getId());
+        request.getTenants().addAll(List.of(partner, nameless, orphan, client));
+
+        TenantProvisioningResult result = provisioningService.provision(request);
+
+        assertThat(result.getCreatedCount()).isEqualTo(2);
+        assertThat(result.getFailedCount()).isEqualTo(2);
+        assertThat(result.getResults()).extracting(TenantProvisioningResult.NodeResult::getError)
+            .containsExactly(null, "Name is required", "Parent 'nameless' was not provisioned", null);
+        Tenant provisionedPartner = tenantRepository.findById(result.getResults().get(0).getId()).orElseThrow();
+        Tenant provisionedClient = tenantRepository.findById(result.getResults().get(3).getId()).orElseThrow();
+        assertThat(result.getResults().get(3).getPath()).isEqualTo(String.join(Tenant.PATH_SEPARATOR,
+            company.getPathKey(), provisionedPartner.getPathKey(), provisionedClient.getPathKey()));
+        assertThat(tenantService.findAllDescendants(company.getId())).hasSize(2);
+    }
+
+    @Test
+    void testBulkProvisioningChecksDepthIndependentlyOfOrder() {
+        // Flat chain listed leaf first: levels 0 to 4 fit the default maximum depth of 5, level 5 does not
+        List<TenantProvisioningNode> chain = new ArrayList<>();
+        for (int level = 5; level >= 0; level--) {
+            TenantProvisioningNode node = new TenantProvisioningNode("level-" + level, "Level " + level, TenantType.CLIENT);
+            if (level > 0) {
+                node.setParentRef("level-" + (level - 1));
+            }
+            chain.add(node);
+        }
+        TenantProvisioningRequest request = new TenantProvisioningRequest();
+        request.getTenants().addAll(chain);
+
+        TenantProvisioningResult result = provisioningService.provision(request);
+
+        assertThat(result.getCreatedCount()).isEqualTo(5);
+        assertThat(result.getResults()).extracting(TenantProvisioningResult.NodeResult::getError)
+            .containsExactly("Maximum hierarchy depth exceeded. Current max level: 5", null, null, null, null, null);
+    }
+
+    @Test
+    void testBulkProvisioningRejectsDeepNestingWithoutRecursion() {
+        // Nested far beyond what a recursive walk could handle: only the first 5 levels fit
+        TenantProvisioningNode root = new TenantProvisioningNode(null, "Nested 0", TenantType.CLIENT);
+        TenantProvisioningNode current = root;
+        for (int level = 1; level < 100_000; level++) {
+            TenantProvisioningNode child = new TenantProvisioningNode(null, "Nested " + level, TenantType.CLIENT);
+            current.getChildren().add(child);
+            current = child;
+        }
+        TenantProvisioningRequest request = new TenantProvisioningRequest();
+        request.getTenants().add(root);
+
+        TenantProvisioningResult result = provisioningService.provision(request);
+
+        assertThat(result.getCreatedCount()).isEqualTo(5);
+        assertThat(result.getFailedCount()).isEqualTo(99_995);
+        assertThat(result.getResults().get(1).getRef()).isEqualTo("#2");
+        assertThat(result.getResults().get(5).getError()).isEqualTo("Maximum hierarchy depth exceeded. Current max level: 5");
+        assertThat(result.getResults().get(6).getError()).isEqualTo("Parent '#6' was not provisioned");
+    }
+
+    @Test
+    void testBulkProvisioningReservesGeneratedRefs() {
+        // "#2" is what the unnamed partner is reported as; a request ref of that form must not alias it
+        TenantProvisioningNode company = new TenantProvisioningNode(null, "Generated Company", TenantType.WHOLESALER);
+        TenantProvisioningNode partner = new TenantProvisioningNode(null, "Generated Partner", TenantType.PARTNER);
+        company.getChildren().add(partner);
+        TenantProvisioningNode impostor = new TenantProvisioningNode("#2", "Impostor", TenantType.PARTNER);
+        TenantProvisioningNode nested = new TenantProvisioningNode(null, "Impostor Client", TenantType.CLIENT);
+        impostor.getChildren().add(nested);
+        TenantProvisioningNode flat = new TenantProvisioningNode("flat", "Flat Client", TenantType.CLIENT);
+        flat.setParentRef("#2");
+
+        TenantProvisioningRequest request = new TenantProvisioningRequest();
+        request.getTenants().addAll(List.of(company, impostor, flat));
+
+        TenantProvisioningResult result = provisioningService.provision(request);
+
+        assertThat(result.getCreatedCount()).isEqualTo(2);
+        assertThat(result.getResults()).extracting(TenantProvisioningResult.NodeResult::getRef)
+            .containsExactly("#1", "#2", "#2", "#4", "flat");
+        assertThat(result.getResults()).extracting(TenantProvisioningResult.NodeResult::getError)
+            .containsExactly(null, null,
+                "Reference '#2' is reserved for generated references",
+                "Parent '#2' was not provisioned",
+                "Parent reference '#2' is reserved for generated references");
+        assertThat(tenantService.findAllDescendants(result.getResults().get(1).getId())).isEmpty();
+    }
+
+    @Test
+    void testBulkSettingsUpsertAndRead() {
+        // 1 root, 500 clients, 20 settings each: 10,000 settings
+        UUID rootId = insertTenant(null, "settings-root", 0, TenantType.WHOLESALER);
+        List<Object[]> rows = new ArrayList<>();
+        List<UUID> clientIds = new ArrayList<>();
+        for (int c = 1; c <= 500; c++) {
+            UUID clientId = UUID.randomUUID();
+            clientIds.add(clientId);
+            rows.add(tenantRow(clientId, rootId, "settings-root/client-" + c, 1, TenantType.CLIENT));
+        }
+        jdbcTemplate.batchUpdate(INSERT_TENANT_SQL, rows);
+        tenantTreeIndex.invalidate();
+
+        // Per-row path on a tenth of the tenants: one lookup and one insert per setting
+        long startTime = System.currentTimeMillis();
+        for (UUID clientId : clientIds.subList(0, 50)) {
+            for (int k = 1; k <= 20; k++) {
+                settingService.putSetting(clientId, "per-row", "key-" + k, k, false);
+            }
+        }
+        settingRepository.flush();
+        long perRowDuration = System.currentTimeMillis() - startTime;
+
+        List<TenantSettingUpsert> upserts = new ArrayList<>();
+        for (UUID clientId : clientIds) {
+            for (int k = 1; k <= 20; k++) {
+                upserts.add(new TenantSettingUpsert(clientId, "bulk", "key-" + k, k, false));
+            }
+        }
+        startTime = System.currentTimeMillis();
+        int written = settingService.upsertSettings(upserts);
+        long bulkDuration = System.currentTimeMillis() - startTime;
+
+        // Reads: one query per tenant against chunked bulk reads
+        startTime = System.currentTimeMillis();
+        long perTenantRead = 0;
+        for (UUID clientId : clientIds) {
+            perTenantRead += settingRepository.findValues(List.of(clientId), "bulk").size();
+        }
+        long perTenantReadDuration = System.currentTimeMillis() - startTime;
+
+        startTime = System.currentTimeMillis();
+        Map<UUID, List<TenantSettingValue>> bulkRead = settingService.findSettings(clientIds, "bulk");
+        long bulkReadDuration = System.currentTimeMillis() - startTime;
+
+        assertThat(written).isEqualTo(10_000);
+        assertThat(perTenantRead).isEqualTo(10_000);
+        assertThat(bulkRead.values()).allSatisfy(settings -> assertThat(settings).hasSize(20));
+        assertThat(bulkRead.get(clientIds.get(0)).get(0).getNumberValue()).isNotNull();
+        // Per-setting cost: 1,000 per-row writes against 10,000 bulk writes
+        assertThat(bulkDuration / 10.0).isLessThan(perRowDuration);
+        assertThat(bulkDuration).isLessThan(5000);
+        assertThat(bulkReadDuration).isLessThan(perTenantReadDuration);
+
+        System.out.printf("Settings writes: per-row %.1f us/setting, bulk %.1f us/setting (%d settings in %d ms)%n",
+            perRowDuration * 1000.0 / 1000, bulkDuration * 1000.0 / written, written, bulkDuration);
+        System.out.printf("Settings reads of %d tenants: per-tenant %d ms, bulk %d ms%n",
+            clientIds.size(), perTenantReadDuration, bulkReadDuration);
+    }
+
+    @Test
+    void testDescendantsSkipJsonAttributes() {
+        // 1 root, 20 partners with 999 clients each, every tenant carrying about 1 KB of JSONB attributes
+        UUID rootId = insertTenant(null, "json-root", 0, TenantType.WHOLESALER);
+        List<Object[]> rows = new ArrayList<>();
+        for (int p = 1; p <= 20; p++) {
+            String partnerPath = "json-root/partner-" + p;
+            UUID partnerId = UUID.randomUUID();
+            rows.add(tenantRow(partnerId, rootId, partnerPath, 1, TenantType.PARTNER));
+            for (int c = 1; c <= 999; c++) {
+                rows.add(tenantRow(UUID.randomUUID(), partnerId, partnerPath + "/client-" + p + "-" + c, 2, TenantType.CLIENT));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_TENANT_SQL, rows);
+        jdbcTemplate.update("""
+            UPDATE tenants SET billing_address = ?::jsonb, settings = ?::jsonb, custom_attributes = ?::jsonb
+            WHERE path LIKE 'json-root/%'
+            """,
+            "{\"street\": \"1 Backup Street\", \"city\": \"Lyon\", \"zip\": \"69001\", \"country\": \"FR\"}",
+            "{\"retentionDays\": 30, \"compression\": true, \"schedule\": {\"cron\": \"0 0 2 * * *\"}}",
+            "{\"crmId\": \"CRM-000123\", \"region\": \"eu-west\", \"tier\": \"gold\", \"notes\": \"" + "x".repeat(800) + "\"}");
+        tenantTreeIndex.invalidate();
+        String pathPrefix = "json-root/%";
+
+        // Same rows in a single query that also maps the JSONB columns, as the former eager mapping did
+        String eagerQuery = "SELECT t, a FROM Tenant t JOIN TenantAttributes a ON a.id = t.id " +
+                            "WHERE t.path LIKE :pathPrefix ORDER BY t.level, t.name";
+
+        // Warm up both, then compare the listing with the eager query
+        tenantRepository.findAllDescendants(pathPrefix);
+        entityManager.createQuery(eagerQuery, Object[].class).setParameter("pathPrefix", pathPrefix).getResultList();
+        entityManager.clear();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long startTime = System.currentTimeMillis();
+        List<Tenant> descendants = tenantRepository.findAllDescendants(pathPrefix);
+        long listingDuration = System.currentTimeMillis() - startTime;
+        long listingAllocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        entityManager.clear();
+
+        allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        startTime = System.currentTimeMillis();
+        List<Object[]> eager = entityManager.createQuery(eagerQuery, Object[].class)
+            .setParameter("pathPrefix", pathPrefix)
+            .getResultList();
+        long eagerDuration = System.currentTimeMillis() - startTime;
+        long eagerAllocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        entityManager.clear();
+
+        assertThat(descendants).hasSize(20_000);
+        assertThat(eager).hasSize(20_000);
+        assertThat(((TenantAttributes) eager.get(0)[1]).getCustomAttributes()).containsEntry("tier", "gold");
+        assertThat(listingAllocated).isLessThan(eagerAllocated);
+        assertThat(listingDuration).isLessThan(3000);
+
+        System.out.printf("Listed %d descendants: %d ms / %d KB without JSONB attributes, %d ms / %d KB with them%n",
+            descendants.size(), listingDuration, listingAllocated / 1024, eagerDuration, eagerAllocated / 1024);
+    }
+
+    @Test
+    void testJsonAttributeFilterUsesGinIndexes() throws Exception {
+        // 1 root, 20 partners with 999 clients each; one branch is tagged differently
+        UUID rootId = insertTenant(null, "filter-root", 0, TenantType.WHOLESALER);
+        List<Object[]> rows = new ArrayList<>();
+        for (int p = 1; p <= 20; p++) {
+            String partnerPath = "filter-root/partner-" + p;
+            UUID partnerId = UUID.randomUUID();
+            rows.add(tenantRow(partnerId, rootId, partnerPath, 1, TenantType.PARTNER));
+            for (int c = 1; c <= 999; c++) {
+                rows.add(tenantRow(UUID.randomUUID(), partnerId, partnerPath + "/client-" + p + "-" + c, 2, TenantType.CLIENT));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_TENANT_SQL, rows);
+        jdbcTemplate.update("""
+            UPDATE tenants SET custom_attributes = '{"region": "eu-west", "tier": "gold"}'::jsonb,
+                               settings = '{"retentionDays": 30}'::jsonb
+            WHERE path LIKE 'filter-root/%'
+            """);
+        jdbcTemplate.update("""
+            UPDATE tenants SET custom_attributes = '{"region": "us-east", "tier": "platinum", "crmId": "CRM-7"}'::jsonb
+            WHERE path = 'filter-root/partner-7' OR path LIKE 'filter-root/partner-7/%'
+            """);
+        jdbcTemplate.update("""
+            UPDATE tenants SET settings = '{"retentionDays": 90, "backup": {"encrypt": true}}'::jsonb
+            WHERE path = 'filter-root/partner-3' OR path LIKE 'filter-root/partner-3/%'
+            """);
+        jdbcTemplate.execute("ANALYZE tenants");
+        tenantTreeIndex.invalidate();
+
+        TenantJsonFilter platinum = new TenantJsonFilter();
+        platinum.setCustomAttributes(Map.of("tier", "platinum"));
+        platinum.setParentId(rootId);
+
+        TenantJsonFilter encrypted = new TenantJsonFilter();
+        encrypted.setSettings(Map.of("backup", Map.of("encrypt", true)));
+        encrypted.setPredicates(List.of(
+            new TenantJsonPredicate(TenantJsonPredicate.Column.CUSTOM_ATTRIBUTES, "region", List.of("eu-west", "ap-south")),
+            new TenantJsonPredicate(TenantJsonPredicate.Column.SETTINGS, "retentionDays", List.of(90))));
+
+        TenantJsonFilter crm = new TenantJsonFilter();
+        crm.setPredicates(List.of(
+            new TenantJsonPredicate(TenantJsonPredicate.Column.CUSTOM_ATTRIBUTES, "tier", List.of("platinum")),
+            new TenantJsonPredicate(TenantJsonPredicate.Column.CUSTOM_ATTRIBUTES, "crmId", List.of())));
+
+        // Warm up, then walk every page of the containment filter
+        tenantService.filterTenants(platinum, null, 500);
+        long startTime = System.currentTimeMillis();
+        var firstPage = tenantService.filterTenants(platinum, null, 500);
+        long firstPageDuration = System.currentTimeMillis() - startTime;
+        var secondPage = tenantService.filterTenants(platinum, firstPage.getNextCursor(), 500);
+
+        startTime = System.currentTimeMillis();
+        var encryptedPage = tenantService.filterTenants(encrypted, null, 500);
+        long predicateDuration = System.currentTimeMillis() - startTime;
+
+        assertThat(firstPage.getContent()).hasSize(500);
+        assertThat(firstPage.getContent()).first().extracting(TenantSummary::getSlug).isEqualTo("partner-7");
+        assertThat(secondPage.getContent()).hasSize(500);
+        assertThat(secondPage.getNextCursor()).isNull();
+        assertThat(encryptedPage.getContent()).first().extracting(TenantSummary::getSlug).isEqualTo("partner-3");
+        assertThat(encryptedPage.getNextCursor()).isNotNull();
+        assertThat(tenantService.filterTenants(crm, null, 10).getContent()).hasSize(10);
+        assertThat(firstPageDuration).isLessThan(200);
+        assertThat(predicateDuration).isLessThan(200);
+        assertThatThrownBy(() -> tenantService.filterTenants(new TenantJsonFilter(), null, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        // The repository query itself, with its null guards, plans on the GIN indexes once values are bound
+        assertThat(explainJsonFilter("{\"tier\":\"platinum\"}", null, null, null, "filter-root/%"))
+            .contains("idx_tenants_custom_attributes_path_ops");
+        assertThat(explainJsonFilter(null, null, null, "($.\"retentionDays\" == 90)", null))
+            .contains("idx_tenants_settings_path_ops");
+
+        System.out.printf("Filtered 20,000 tenants on JSONB attributes: containment %d ms, predicates %d ms%n",
+            firstPageDuration, predicateDuration);
+    }
+
+    /**
+     * EXPLAIN of {@link TenantRepository#filterTenantIdsByJson} as declared, for a first page.
+     */
+    private String explainJsonFilter(String customAttributes, String customAttributesPredicate,
+                                     String settings, String settingsPredicate, String parentPath) throws Exception {
+        String sql = TenantRepository.class.getMethod("filterTenantIdsByJson", String.class, String.class, String.class,
+            String.class, String.class, int.class, String.class, UUID.class, int.class).getAnnotation(Query.class).value();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("customAttributes", customAttributes)
+            .addValue("customAttributesPredicate", customAttributesPredicate)
+            .addValue("settings", settings)
+            .addValue("settingsPredicate", settingsPredicate)
+            .addValue("parentPath", parentPath)
+            .addValue("cursorLevel", TenantCursor.START.getLevel())
+            .addValue("cursorName", TenantCursor.START.getName())
+            .addValue("cursorId", TenantCursor.START.getId())
+            .addValue("limit", 501);
+        return String.join("\n", new NamedParameterJdbcTemplate(jdbcTemplate).queryForList("EXPLAIN " + sql, params, String.class));
+    }
+
     @Test
     void testConcurrentReadPerformance() {
         createTestHierarchy();
@@ -237,6 +942,22 @@ class TenantHierarchyPerformanceTest extends AbstractIntegrationTest {
             numberOfReads * 3, duration, readsPerSecond);
     }
 
+    private static final String INSERT_TENANT_SQL =
+        "INSERT INTO tenants (id, parent_id, name, display_name, slug, path_key, path, level, tenant_type, status, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private UUID insertTenant(UUID parentId, String path, int level, TenantType tenantType) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update(INSERT_TENANT_SQL, tenantRow(id, parentId, path, level, tenantType));
+        return id;
+    }
+
+    private Object[] tenantRow(UUID id, UUID parentId, String path, int level, TenantType tenantType) {
+        String slug = path.substring(path.lastIndexOf('/') + 1);
+        Timestamp now = Timestamp.from(Instant.now());
+        return new Object[] {id, parentId, slug, slug, slug, slug, path, level, tenantType.name(), "ACTIVE", now, now};
+    }
+
     /**
      * Creates a test hierarchy with 4 levels:
      * - 1 root company
@@ -0,0 +1,142 @@
+package com.rapidobackup.console.tenant.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.rapidobackup.console.AbstractIntegrationTest;
+import com.rapidobackup.console.common.exception.RetryableConflictException;
+import com.rapidobackup.console.tenant.entity.Tenant;
+import com.rapidobackup.console.tenant.entity.TenantType;
+
+/**
+ * Concurrency stress tests for structural tenant changes.
+ *
+ * Not transactional: every service call commits on its own, as it would in production,
+ * so concurrent calls really compete for the branch locks.
+ *
+ * Tests cover:
+ * - Moves in disjoint branches running in parallel without conflicts
+ * - Crossing moves of the same branches never both succeeding, the loser failing with a retryable or cycle error
+ * - Paths staying consistent with parents after every round
+ */
+class TenantMoveConcurrencyTest extends AbstractIntegrationTest {
+
+    private static final int BRANCHES = 8;
+    private static final int ROUNDS = 20;
+
+    private static final String INCONSISTENT_PATHS_SQL = """
+        SELECT COUNT(*) FROM tenants c JOIN tenants p ON p.id = c.parent_id
+        WHERE c.deleted_at IS NULL AND (c.path <> p.path || '/' || c.path_key OR c.level <> p.level + 1)
+        """;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private TenantTreeIndex tenantTreeIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Tenant root;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        root = tenantService.createTenant("Concurrency Root " + UUID.randomUUID(), null, TenantType.WHOLESALER, null);
+        executor = Executors.newFixedThreadPool(BRANCHES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        jdbcTemplate.update("DELETE FROM tenants WHERE path = ? OR path LIKE ?", root.getPath(), root.getPath() + "/%");
+        tenantTreeIndex.invalidate();
+    }
+
+    @Test
+    void disjointBranches_moveInParallelWithoutConflicts() throws Exception {
+        List<Tenant[]> branches = new ArrayList<>();
+        for (int i = 0; i < BRANCHES; i++) {
+            Tenant partner = tenantService.createTenant("Partner " + i, null, TenantType.PARTNER, root.getId());
+            Tenant a = tenantService.createTenant("Client A" + i, null, TenantType.CLIENT, partner.getId());
+            Tenant b = tenantService.createTenant("Client B" + i, null, TenantType.CLIENT, partner.getId());
+            branches.add(new Tenant[] {partner, a, b});
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Tenant[] branch : branches) {
+            futures.add(executor.submit((Callable<Void>) () -> {
+                start.await();
+                for (int round = 0; round < ROUNDS; round++) {
+                    tenantService.moveTenant(branch[1].getId(), branch[2].getId());
+                    tenantService.moveTenant(branch[1].getId(), branch[0].getId());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+
+        assertThat(jdbcTemplate.queryForObject(INCONSISTENT_PATHS_SQL, Long.class)).isZero();
+    }
+
+    @Test
+    void crossingMoves_atMostOneWinsAndLoserFailsFast() throws Exception {
+        Tenant x = tenantService.createTenant("Partner X", null, TenantType.PARTNER, root.getId());
+        Tenant y = tenantService.createTenant("Partner Y", null, TenantType.PARTNER, root.getId());
+
+        for (int round = 0; round < ROUNDS; round++) {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<Boolean> xUnderY = executor.submit(() -> tryMove(start, x.getId(), y.getId()));
+            Future<Boolean> yUnderX = executor.submit(() -> tryMove(start, y.getId(), x.getId()));
+            start.countDown();
+
+            int successes = (xUnderY.get(1, TimeUnit.MINUTES) ? 1 : 0) + (yUnderX.get(1, TimeUnit.MINUTES) ? 1 : 0);
+            // Whether the moves overlapped or not depends on timing; the outcome must hold either way
+            assertThat(successes).isLessThanOrEqualTo(1);
+            assertThat(jdbcTemplate.queryForObject(INCONSISTENT_PATHS_SQL, Long.class)).isZero();
+
+            // Put both branches back under the root for the next round
+            tenantService.moveTenant(x.getId(), root.getId());
+            tenantService.moveTenant(y.getId(), root.getId());
+        }
+
+        assertThat(jdbcTemplate.queryForObject(INCONSISTENT_PATHS_SQL, Long.class)).isZero();
+    }
+
+    /**
+     * @return true when the move succeeded, false when it was rejected as conflicting
+     */
+    private boolean tryMove(CountDownLatch start, UUID tenantId, UUID newParentId) throws InterruptedException {
+        start.await();
+        try {
+            tenantService.moveTenant(tenantId, newParentId);
+            return true;
+        } catch (RetryableConflictException e) {
+            return false;
+        } catch (IllegalArgumentException e) {
+            // The other move committed before this one started: a cycle, not a lock conflict
+            assertThat(e).hasMessageContaining("circular reference");
+            return false;
+        }
+    }
+}
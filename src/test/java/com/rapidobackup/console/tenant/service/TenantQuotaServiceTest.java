@@ -0,0 +1,144 @@
+package com.rapidobackup.console.tenant.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.rapidobackup.console.AbstractIntegrationTest;
+import com.rapidobackup.console.common.exception.QuotaExceededException;
+import com.rapidobackup.console.tenant.entity.Tenant;
+import com.rapidobackup.console.tenant.entity.TenantType;
+import com.rapidobackup.console.tenant.repository.TenantRepository;
+import com.rapidobackup.console.tenant.service.TenantQuotaService.Reservation;
+import com.rapidobackup.console.tenant.service.TenantQuotaService.Resource;
+
+/**
+ * Integration tests for tenant quota enforcement (in-memory counters in the test profile).
+ *
+ * Tests cover:
+ * - Reservations up to the limit, rejection beyond it and release
+ * - Automatic release when the registering transaction rolls back
+ * - Unlimited tenants and resources
+ * - Pending reservations kept by reconciliation
+ * - Confirmed and abandoned reservations in counter reconciliation
+ */
+@Transactional
+class TenantQuotaServiceTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private TenantQuotaService quotaService;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private TenantUsageCounters counters;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Tenant tenant;
+
+    @BeforeEach
+    void setUp() {
+        tenant = tenantService.createTenant("Quota Client", null, TenantType.CLIENT, null);
+        tenant.setMaxUsers(2);
+        tenantRepository.saveAndFlush(tenant);
+    }
+
+    @Test
+    void reserve_rejectsBeyondLimitUntilReleased() {
+        Reservation first = quotaService.reserve(tenant.getId(), Resource.USERS);
+        quotaService.reserve(tenant.getId(), Resource.USERS);
+
+        assertThatThrownBy(() -> quotaService.reserve(tenant.getId(), Resource.USERS))
+            .isInstanceOf(QuotaExceededException.class)
+            .hasMessageContaining("limit of 2 users");
+
+        quotaService.release(first);
+        assertThatCode(() -> quotaService.reserve(tenant.getId(), Resource.USERS)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void reserveInTransaction_releasesOnRollback() {
+        // The tenant is not committed: cache it so the inner transactions find its limits
+        tenantService.findById(tenant.getId());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int i = 0; i < 5; i++) {
+            transaction.executeWithoutResult(status -> {
+                quotaService.reserveInTransaction(tenant.getId(), Resource.USERS);
+                status.setRollbackOnly();
+            });
+        }
+
+        quotaService.reserve(tenant.getId(), Resource.USERS);
+        quotaService.reserve(tenant.getId(), Resource.USERS);
+        assertThatThrownBy(() -> quotaService.reserve(tenant.getId(), Resource.USERS))
+            .isInstanceOf(QuotaExceededException.class);
+    }
+
+    @Test
+    void reserve_ignoresUnlimitedResources() {
+        for (int i = 0; i < 10; i++) {
+            quotaService.reserve(tenant.getId(), Resource.AGENTS);
+        }
+        assertThatThrownBy(() -> quotaService.reserve(UUID.randomUUID(), Resource.AGENTS))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reconcile_keepsPendingReservations() {
+        Reservation first = quotaService.reserve(tenant.getId(), Resource.USERS);
+        Reservation second = quotaService.reserve(tenant.getId(), Resource.USERS);
+
+        quotaService.reconcile();
+
+        // Neither user is created yet, but both registrations are still in flight
+        assertThatThrownBy(() -> quotaService.reserve(tenant.getId(), Resource.USERS))
+            .isInstanceOf(QuotaExceededException.class);
+
+        quotaService.release(first);
+        quotaService.release(second);
+        quotaService.reserve(tenant.getId(), Resource.USERS);
+        quotaService.reserve(tenant.getId(), Resource.USERS);
+        assertThatThrownBy(() -> quotaService.reserve(tenant.getId(), Resource.USERS))
+            .isInstanceOf(QuotaExceededException.class);
+    }
+
+    @Test
+    void countersReconcile_countsConfirmedAndDropsAbandonedReservations() {
+        String key = "test:" + UUID.randomUUID();
+        counters.load(key, 0);
+        assertThat(counters.tryReserve(key, "a", 2)).isEqualTo(1);
+        assertThat(counters.tryReserve(key, "b", 2)).isEqualTo(2);
+
+        // "a" commits while the database is read: missing from the usage, counted anyway
+        Map<String, Long> confirmedBefore = counters.confirmedCounts(List.of(key));
+        counters.confirm(key, "a");
+        counters.reconcile(Map.of(key, 0L), confirmedBefore, Duration.ofMinutes(15));
+        assertThat(counters.tryReserve(key, "c", 2)).isEqualTo(TenantUsageCounters.LIMIT_REACHED);
+
+        // "b" is abandoned: dropped, and cancelling it later does not free another unit
+        counters.reconcile(Map.of(key, 1L), counters.confirmedCounts(List.of(key)), Duration.ZERO);
+        assertThat(counters.tryReserve(key, "d", 2)).isEqualTo(2);
+        counters.cancel(key, "b");
+        assertThat(counters.tryReserve(key, "e", 2)).isEqualTo(TenantUsageCounters.LIMIT_REACHED);
+    }
+}
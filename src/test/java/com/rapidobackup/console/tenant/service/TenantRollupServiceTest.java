@@ -0,0 +1,111 @@
+package com.rapidobackup.console.tenant.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.rapidobackup.console.AbstractIntegrationTest;
+import com.rapidobackup.console.tenant.entity.Tenant;
+import com.rapidobackup.console.tenant.entity.TenantRollup;
+import com.rapidobackup.console.tenant.entity.TenantType;
+
+/**
+ * Integration tests for subtree rollups.
+ *
+ * Tests cover:
+ * - Incremental maintenance on tenant create, move and delete
+ * - User count propagation to ancestors
+ * - Drift repair by the reconciliation job
+ */
+@Transactional
+class TenantRollupServiceTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private TenantRollupService rollupService;
+
+    @Autowired
+    private TenantRollupReconciler reconciler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Tenant root;
+    private Tenant partnerA;
+    private Tenant partnerB;
+    private Tenant client;
+
+    @BeforeEach
+    void setUp() {
+        root = tenantService.createTenant("Rollup Root", null, TenantType.WHOLESALER, null);
+        partnerA = tenantService.createTenant("Rollup Partner A", null, TenantType.PARTNER, root.getId());
+        partnerB = tenantService.createTenant("Rollup Partner B", null, TenantType.PARTNER, root.getId());
+        client = tenantService.createTenant("Rollup Client", null, TenantType.CLIENT, partnerA.getId());
+    }
+
+    @Test
+    void createTenant_incrementsAncestorDescendantCounts() {
+        assertThat(rollup(root).getDescendantCount()).isEqualTo(3);
+        assertThat(rollup(partnerA).getDescendantCount()).isEqualTo(1);
+        assertThat(rollup(client).getDescendantCount()).isZero();
+    }
+
+    @Test
+    void onUsersChanged_propagatesToAncestors() {
+        rollupService.onUsersChanged(client.getId(), 3);
+
+        assertThat(rollup(client).getUserCount()).isEqualTo(3);
+        assertThat(rollup(partnerA).getUserCount()).isEqualTo(3);
+        assertThat(rollup(root).getUserCount()).isEqualTo(3);
+        assertThat(rollup(partnerB).getUserCount()).isZero();
+    }
+
+    @Test
+    void moveTenant_transfersSubtreeTotals() {
+        rollupService.onUsersChanged(client.getId(), 2);
+
+        tenantService.moveTenant(client.getId(), partnerB.getId());
+
+        assertThat(rollup(partnerA).getDescendantCount()).isZero();
+        assertThat(rollup(partnerA).getUserCount()).isZero();
+        assertThat(rollup(partnerB).getDescendantCount()).isEqualTo(1);
+        assertThat(rollup(partnerB).getUserCount()).isEqualTo(2);
+        assertThat(rollup(root).getDescendantCount()).isEqualTo(3);
+        assertThat(rollup(root).getUserCount()).isEqualTo(2);
+    }
+
+    @Test
+    void deleteTenant_subtractsRemovedSubtree() {
+        tenantService.deleteTenant(partnerA.getId(), true);
+
+        assertThat(rollup(root).getDescendantCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reconcile_repairsDrift() {
+        jdbcTemplate.update("UPDATE tenant_rollups SET descendant_count = 42, user_count = 7 WHERE tenant_id = ?", root.getId());
+
+        int repaired = reconciler.reconcile();
+
+        assertThat(repaired).isGreaterThanOrEqualTo(1);
+        assertThat(rollup(root).getDescendantCount()).isEqualTo(3);
+        assertThat(rollup(root).getUserCount()).isZero();
+        assertThat(reconciler.reconcile()).isZero();
+    }
+
+    private TenantRollup rollup(Tenant tenant) {
+        UUID tenantId = tenant.getId();
+        return jdbcTemplate.queryForObject(
+            "SELECT descendant_count, user_count, agent_count, used_storage_gb FROM tenant_rollups WHERE tenant_id = ?",
+            (rs, rowNum) -> new TenantRollup(tenantId, rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)),
+            tenantId);
+    }
+}
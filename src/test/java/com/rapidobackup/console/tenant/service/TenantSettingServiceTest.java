@@ -0,0 +1,171 @@
+package com.rapidobackup.console.tenant.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.rapidobackup.console.AbstractIntegrationTest;
+import com.rapidobackup.console.tenant.dto.EffectiveTenantSetting;
+import com.rapidobackup.console.tenant.dto.TenantSettingUpsert;
+import com.rapidobackup.console.tenant.dto.TenantSettingValue;
+import com.rapidobackup.console.tenant.entity.Tenant;
+import com.rapidobackup.console.tenant.entity.TenantType;
+
+/**
+ * Integration tests for tenant settings resolution.
+ *
+ * Tests cover:
+ * - Merging of inherited ancestor settings with child overrides
+ * - Settings that are not inherited staying local
+ * - Cache eviction scoped to the changed tenant and its descendants
+ * - Bulk upserts and typed bulk reads
+ */
+@Transactional
+class TenantSettingServiceTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private TenantSettingService settingService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Tenant root;
+    private Tenant partner;
+    private Tenant otherPartner;
+    private Tenant client;
+
+    @BeforeEach
+    void setUp() {
+        root = tenantService.createTenant("Settings Root", null, TenantType.WHOLESALER, null);
+        partner = tenantService.createTenant("Settings Partner", null, TenantType.PARTNER, root.getId());
+        otherPartner = tenantService.createTenant("Settings Other Partner", null, TenantType.PARTNER, root.getId());
+        client = tenantService.createTenant("Settings Client", null, TenantType.CLIENT, partner.getId());
+    }
+
+    @Test
+    void getEffectiveSettings_mergesAncestorsWithChildOverrides() {
+        settingService.putSetting(root.getId(), "backup", "retentionDays", 30, true);
+        settingService.putSetting(root.getId(), "backup", "compression", true, true);
+        settingService.putSetting(partner.getId(), "backup", "retentionDays", 90, true);
+        settingService.putSetting(client.getId(), "branding", "color", "#0055ff", false);
+
+        Map<String, EffectiveTenantSetting> settings = settingService.getEffectiveSettings(client.getId());
+
+        assertThat(settings).containsOnlyKeys("backup.compression", "backup.retentionDays", "branding.color");
+        assertThat((BigDecimal) settings.get("backup.retentionDays").getValue()).isEqualByComparingTo("90");
+        assertThat(settings.get("backup.retentionDays").getSourceTenantId()).isEqualTo(partner.getId());
+        assertThat(settings.get("backup.retentionDays").isInherited()).isTrue();
+        assertThat(settings.get("backup.compression").getValue()).isEqualTo(true);
+        assertThat(settings.get("branding.color").isInherited()).isFalse();
+    }
+
+    @Test
+    void getEffectiveSettings_skipsSettingsThatAreNotInherited() {
+        settingService.putSetting(root.getId(), "backup", "retentionDays", 30, true);
+        settingService.putSetting(partner.getId(), "backup", "retentionDays", 7, false);
+
+        assertThat(settingService.getEffectiveSettings(partner.getId()).get("backup.retentionDays").getSourceTenantId())
+            .isEqualTo(partner.getId());
+        assertThat(settingService.getEffectiveSettings(client.getId()).get("backup.retentionDays").getSourceTenantId())
+            .isEqualTo(root.getId());
+    }
+
+    @Test
+    void putSetting_evictsOnlyDescendantsOfChangedTenant() {
+        settingService.putSetting(partner.getId(), "backup", "retentionDays", 30, true);
+        settingService.getEffectiveSettings(client.getId());
+        settingService.getEffectiveSettings(otherPartner.getId());
+        Cache cache = cacheManager.getCache(TenantCacheInvalidator.SETTINGS_CACHE);
+
+        settingService.putSetting(partner.getId(), "backup", "retentionDays", 60, true);
+
+        assertThat(cache.get(client.getId())).isNull();
+        assertThat(cache.get(otherPartner.getId())).isNotNull();
+        assertThat((BigDecimal) settingService.getEffectiveSettings(client.getId()).get("backup.retentionDays").getValue())
+            .isEqualByComparingTo("60");
+    }
+
+    @Test
+    void removeSetting_restoresInheritedValue() {
+        settingService.putSetting(root.getId(), "backup", "retentionDays", 30, true);
+        settingService.putSetting(partner.getId(), "backup", "retentionDays", 90, true);
+        settingService.getEffectiveSettings(client.getId());
+
+        assertThat(settingService.removeSetting(partner.getId(), "backup", "retentionDays")).isTrue();
+
+        assertThat(settingService.getEffectiveSettings(client.getId()).get("backup.retentionDays").getSourceTenantId())
+            .isEqualTo(root.getId());
+    }
+
+    @Test
+    void upsertSettings_writesTypedValuesAndReplacesExisting() {
+        settingService.upsertSettings(List.of(
+            new TenantSettingUpsert(partner.getId(), "backup", "retentionDays", 30, true),
+            new TenantSettingUpsert(partner.getId(), "backup", "schedule", Map.of("cron", "0 0 2 * * *"), false),
+            new TenantSettingUpsert(client.getId(), "branding", "color", "#0055ff", false)));
+        settingService.getEffectiveSettings(client.getId());
+        settingService.getEffectiveSettings(otherPartner.getId());
+        Cache cache = cacheManager.getCache(TenantCacheInvalidator.SETTINGS_CACHE);
+
+        int written = settingService.upsertSettings(List.of(
+            new TenantSettingUpsert(partner.getId(), "backup", "retentionDays", 45, true),
+            new TenantSettingUpsert(partner.getId(), "backup", "retentionDays", 60, true),
+            new TenantSettingUpsert(partner.getId(), "backup", "encrypt", false, true)));
+
+        assertThat(written).isEqualTo(2);
+        assertThat(cache.get(client.getId())).isNull();
+        assertThat(cache.get(otherPartner.getId())).isNotNull();
+
+        Map<String, TenantSettingValue> values = settingService.findSettings(List.of(partner.getId()), "backup")
+            .get(partner.getId()).stream()
+            .collect(Collectors.toMap(TenantSettingValue::getKey, value -> value));
+        assertThat(values).containsOnlyKeys("encrypt", "retentionDays", "schedule");
+        assertThat(values.get("retentionDays").getNumberValue()).isEqualByComparingTo("60");
+        assertThat(values.get("retentionDays").getStringValue()).isNull();
+        assertThat(values.get("encrypt").getBooleanValue()).isFalse();
+        assertThat(values.get("schedule").getJsonValue()).containsEntry("cron", "0 0 2 * * *");
+        assertThat(values.get("schedule").isInherited()).isFalse();
+        assertThat((BigDecimal) settingService.getEffectiveSettings(client.getId()).get("backup.retentionDays").getValue())
+            .isEqualByComparingTo("60");
+    }
+
+    @Test
+    void findSettings_returnsEveryRequestedTenantFilteredByCategory() {
+        settingService.upsertSettings(List.of(
+            new TenantSettingUpsert(partner.getId(), "backup", "retentionDays", 30, true),
+            new TenantSettingUpsert(partner.getId(), "branding", "color", "#0055ff", false),
+            new TenantSettingUpsert(client.getId(), "backup", "retentionDays", 7, false)));
+
+        Map<UUID, List<TenantSettingValue>> settings =
+            settingService.findSettings(List.of(client.getId(), partner.getId(), otherPartner.getId()), "backup");
+
+        assertThat(settings).containsOnlyKeys(client.getId(), partner.getId(), otherPartner.getId());
+        assertThat(settings.get(partner.getId())).extracting(TenantSettingValue::getFullKey)
+            .containsExactly("backup.retentionDays");
+        assertThat(settings.get(client.getId())).hasSize(1);
+        assertThat(settings.get(otherPartner.getId())).isEmpty();
+    }
+
+    @Test
+    void putSetting_rejectsUnknownTenantAndBlankKey() {
+        assertThatThrownBy(() -> settingService.putSetting(UUID.randomUUID(), "backup", "x", 1, false))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> settingService.putSetting(root.getId(), "backup", " ", 1, false))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
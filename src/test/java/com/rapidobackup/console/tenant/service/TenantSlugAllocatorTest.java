@@ -0,0 +1,84 @@
+package com.rapidobackup.console.tenant.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.rapidobackup.console.AbstractIntegrationTest;
+import com.rapidobackup.console.tenant.entity.Tenant;
+import com.rapidobackup.console.tenant.entity.TenantType;
+
+/**
+ * Concurrency tests for tenant slug allocation.
+ *
+ * Not transactional: every creation commits on its own, as it would in production, so
+ * concurrent creators really compete for the slug locks.
+ *
+ * Tests cover:
+ * - Concurrent creators of overlapping bases ("Acme" resolving to "acme-1", and "Acme 1")
+ *   receiving distinct slugs
+ */
+class TenantSlugAllocatorTest extends AbstractIntegrationTest {
+
+    private static final int ROUNDS = 10;
+    private static final String NAME_PREFIX = "Slug Race ";
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private TenantTreeIndex tenantTreeIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        jdbcTemplate.update("DELETE FROM tenants WHERE slug LIKE 'slug-race-%'");
+        tenantTreeIndex.invalidate();
+    }
+
+    @Test
+    void createTenant_overlappingBasesReceiveDistinctSlugs() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            // Starts with a letter, so it is never taken for a numeric suffix
+            String name = NAME_PREFIX + "t" + UUID.randomUUID().toString().replace("-", "");
+            Tenant existing = tenantService.createTenant(name, null, TenantType.CLIENT, null);
+
+            CountDownLatch start = new CountDownLatch(1);
+            Future<Tenant> suffixed = executor.submit(() -> create(start, name));
+            Future<Tenant> numbered = executor.submit(() -> create(start, name + " 1"));
+            start.countDown();
+
+            Tenant first = suffixed.get(1, TimeUnit.MINUTES);
+            Tenant second = numbered.get(1, TimeUnit.MINUTES);
+            assertThat(first.getSlug()).isNotEqualTo(second.getSlug());
+            assertThat(first.getSlug()).startsWith(existing.getSlug() + "-");
+            assertThat(second.getSlug()).startsWith(existing.getSlug() + "-1");
+        }
+    }
+
+    private Tenant create(CountDownLatch start, String name) throws InterruptedException {
+        start.await();
+        return tenantService.createTenant(name, null, TenantType.CLIENT, null);
+    }
+}
@@ -0,0 +1,180 @@
+package com.rapidobackup.console.tenant.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.rapidobackup.console.tenant.dto.TenantTreeNode;
+import com.rapidobackup.console.tenant.entity.Tenant;
+import com.rapidobackup.console.tenant.entity.TenantStatus;
+import com.rapidobackup.console.tenant.entity.TenantType;
+
+/**
+ * Unit tests for TenantTreeIndex.
+ *
+ * Tests cover:
+ * - Subtree, ancestor and count queries on the loaded hierarchy
+ * - Incremental maintenance on create, rename, move and delete
+ * - Lazy loading, invalidation, version tags and reload on changes from other nodes
+ */
+class TenantTreeIndexTest {
+
+    private final UUID rootId = UUID.randomUUID();
+    private final UUID partnerAId = UUID.randomUUID();
+    private final UUID partnerBId = UUID.randomUUID();
+    private final UUID clientId = UUID.randomUUID();
+
+    private TenantHierarchyStore hierarchyStore;
+    private TenantTreeIndex index;
+
+    @BeforeEach
+    void setUp() {
+        hierarchyStore = mock(TenantHierarchyStore.class);
+        when(hierarchyStore.loadSnapshot()).thenReturn(new TenantHierarchyStore.Snapshot(0, List.of(
+            node(rootId, null, 0, "root", TenantType.WHOLESALER),
+            node(partnerAId, rootId, 1, "root/partner-a", TenantType.PARTNER),
+            node(partnerBId, rootId, 1, "root/partner-b", TenantType.PARTNER),
+            node(clientId, partnerAId, 2, "root/partner-a/client", TenantType.CLIENT)
+        )));
+        index = new TenantTreeIndex(hierarchyStore);
+    }
+
+    @Test
+    void descendants_returnsWholeSubtreeOrderedByLevel() {
+        List<TenantTreeNode> descendants = index.descendants(rootId);
+
+        assertThat(descendants).extracting(TenantTreeNode::getId)
+            .containsExactly(partnerAId, partnerBId, clientId);
+        assertThat(index.countDescendants(rootId)).isEqualTo(3);
+        assertThat(index.countDescendants(clientId)).isZero();
+    }
+
+    @Test
+    void ancestors_returnsRootFirstWithoutTenantItself() {
+        assertThat(index.ancestors(clientId)).extracting(TenantTreeNode::getId)
+            .containsExactly(rootId, partnerAId);
+        assertThat(index.ancestors(rootId)).isEmpty();
+    }
+
+    @Test
+    void isDescendant_detectsCircularMoves() {
+        assertThat(index.isDescendant(clientId, rootId)).isTrue();
+        assertThat(index.isDescendant(clientId, partnerBId)).isFalse();
+        assertThat(index.isDescendant(rootId, clientId)).isFalse();
+    }
+
+    @Test
+    void onMoved_recomputesPathsAndLevelsOfSubtree() {
+        index.onMoved(partnerAId, partnerBId);
+
+        TenantTreeNode movedPartner = index.get(partnerAId).orElseThrow();
+        TenantTreeNode movedClient = index.get(clientId).orElseThrow();
+
+        assertThat(movedPartner.getParentId()).isEqualTo(partnerBId);
+        assertThat(movedPartner.getPath()).isEqualTo("root/partner-b/partner-a");
+        assertThat(movedPartner.getLevel()).isEqualTo(2);
+        assertThat(movedClient.getPath()).isEqualTo("root/partner-b/partner-a/client");
+        assertThat(movedClient.getLevel()).isEqualTo(3);
+        assertThat(index.childIds(rootId)).containsExactly(partnerBId);
+        assertThat(index.ancestors(clientId)).extracting(TenantTreeNode::getId)
+            .containsExactly(rootId, partnerBId, partnerAId);
+    }
+
+    @Test
+    void onMoved_toRootDetachesSubtree() {
+        index.onMoved(partnerAId, null);
+
+        TenantTreeNode movedPartner = index.get(partnerAId).orElseThrow();
+        assertThat(movedPartner.isRoot()).isTrue();
+        assertThat(movedPartner.getPath()).isEqualTo("partner-a");
+        assertThat(index.get(clientId).orElseThrow().getPath()).isEqualTo("partner-a/client");
+        assertThat(index.countDescendants(rootId)).isEqualTo(1);
+    }
+
+    @Test
+    void onUpdated_renameKeepsPathsOfSubtree() {
+        index.size(); // force load
+
+        Tenant renamed = new Tenant("Partner A Renamed", "partner-a-renamed", TenantType.PARTNER);
+        renamed.setId(partnerAId);
+        renamed.setStatus(TenantStatus.ACTIVE);
+
+        index.onUpdated(renamed);
+
+        TenantTreeNode partner = index.get(partnerAId).orElseThrow();
+        assertThat(partner.getSlug()).isEqualTo("partner-a-renamed");
+        assertThat(partner.getPath()).isEqualTo("root/partner-a");
+        assertThat(index.get(clientId).orElseThrow().getPath()).isEqualTo("root/partner-a/client");
+    }
+
+    @Test
+    void onCreatedAndOnDeleted_keepIndexInSync() {
+        index.size(); // force load
+
+        Tenant parent = new Tenant("Partner B", "partner-b", TenantType.PARTNER);
+        parent.setId(partnerBId);
+        Tenant created = new Tenant("New Client", "new-client", TenantType.CLIENT);
+        created.setId(UUID.randomUUID());
+        created.setParent(parent);
+        created.setPath("root/partner-b/new-client");
+        created.setLevel(2);
+
+        index.onCreated(created);
+        assertThat(index.childIds(partnerBId)).containsExactly(created.getId());
+
+        index.onDeleted(partnerAId);
+        assertThat(index.contains(partnerAId)).isFalse();
+        assertThat(index.contains(clientId)).isFalse();
+        assertThat(index.countDescendants(rootId)).isEqualTo(2);
+    }
+
+    @Test
+    void versionTag_followsSharedHierarchyVersion() {
+        when(hierarchyStore.currentVersion()).thenReturn(0L);
+        assertThat(index.versionTag()).isEqualTo("0");
+        assertThat(index.versionTag()).isEqualTo("0");
+        verify(hierarchyStore, times(1)).loadSnapshot();
+
+        // Changed on another node: the index catches up before handing out the new tag
+        when(hierarchyStore.currentVersion()).thenReturn(3L);
+        when(hierarchyStore.loadSnapshot()).thenReturn(new TenantHierarchyStore.Snapshot(3, List.of(
+            node(rootId, null, 0, "root", TenantType.WHOLESALER))));
+        assertThat(index.versionTag()).isEqualTo("3");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidate_reloadsFromDatabaseOnNextRead() {
+        assertThat(index.size()).isEqualTo(4);
+        index.invalidate();
+        assertThat(index.size()).isEqualTo(4);
+
+        verify(hierarchyStore, times(2)).loadSnapshot();
+    }
+
+    @Test
+    void sync_reloadsWhenAnotherNodeChangedTheHierarchy() {
+        assertThat(index.size()).isEqualTo(4);
+
+        when(hierarchyStore.currentVersion()).thenReturn(0L);
+        index.sync();
+        verify(hierarchyStore, times(1)).loadSnapshot();
+
+        when(hierarchyStore.currentVersion()).thenReturn(1L);
+        index.sync();
+        verify(hierarchyStore, times(2)).loadSnapshot();
+    }
+
+    private static TenantTreeNode node(UUID id, UUID parentId, int level, String path, TenantType type) {
+        String slug = path.substring(path.lastIndexOf('/') + 1);
+        return new TenantTreeNode(id, parentId, level, path, slug, TenantStatus.ACTIVE, type);
+    }
+}